@@ -0,0 +1,165 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.server.ApiServer;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga da API HTTP ({@link ApiServer}): sobe o servidor na própria JVM contra o H2 e dispara
+ * requisições de {@code load.clients} clientes simultâneos (padrão 1000), cada um em uma virtual thread,
+ * esperando a resposta antes da próxima requisição.
+ * <p>
+ * Não usa o JMH: mede a vazão e a latência vistas pelos clientes (p50, p99 e máximo) durante
+ * {@code load.seconds} segundos, após {@code load.warmupSeconds} de aquecimento, e imprime ao fim as
+ * métricas do servidor ({@code /api/metrics}). A mistura de requisições é {@code load.searchPercent}% de
+ * buscas (padrão 5) e, do restante, 3/4 de leituras por ID e 1/4 de páginas do catálogo. No H2 a busca
+ * percorre o catálogo com {@code LIKE} e domina o custo; no MySQL ela usa o índice FULLTEXT.
+ * <pre>
+ * java -Dload.clients=1000 -cp target/benchmarks.jar br.com.michael.productsmanager.benchmark.ApiLoadTest
+ * </pre>
+ */
+public final class ApiLoadTest {
+
+    private static final String PASSWORD = "senha-carga";
+    private static final int CLIENTS = Integer.getInteger("load.clients", 1000);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 10);
+    private static final int CATALOG_SIZE = Integer.getInteger("load.catalogSize", 100_000);
+    private static final int SEARCH_PERCENT = Integer.getInteger("load.searchPercent", 5);
+
+    private ApiLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("api.maxConcurrent", System.getProperty("api.maxConcurrent", "256"));
+        System.setProperty("api.queueTimeoutMs", System.getProperty("api.queueTimeoutMs", "5000"));
+        System.setProperty("db.pool.maxSize", System.getProperty("db.pool.maxSize", "32"));
+        System.setProperty("auth.bcrypt.cost", "10");
+        BenchmarkDatabase.configure();
+        BenchmarkDatabase.seedCatalog(CATALOG_SIZE);
+        long[] range = BenchmarkDatabase.productIdRange();
+
+        UserDAO userDAO = new UserDAO();
+        User owner = userDAO.findByUsername(BenchmarkDatabase.OWNER);
+        userDAO.updatePassword(owner.getId(), BCrypt.hashpw(PASSWORD, BCrypt.gensalt(10)));
+
+        System.setProperty("api.metrics.users", BenchmarkDatabase.OWNER);
+        ApiServer server = new ApiServer(0);
+        server.start();
+        String base = "http://localhost:" + server.getPort();
+        String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((BenchmarkDatabase.OWNER + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(SECONDS);
+        long[][] latencies = new long[CLIENTS][];
+        int[] counts = new int[CLIENTS];
+        Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        AtomicInteger clientIndex = new AtomicInteger();
+
+        System.out.printf("%d clientes, %d s de aquecimento e %d s de medição, catálogo de %d produtos%n",
+                CLIENTS, WARMUP_SECONDS, SECONDS, CATALOG_SIZE);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    int index = clientIndex.getAndIncrement();
+                    long[] own = new long[1024];
+                    int count = 0;
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start - end >= 0) break;
+                        String outcome = request(client, base, authorization, range);
+                        long elapsed = System.nanoTime() - start;
+                        if (start - warmupEnd < 0) continue;
+
+                        if (outcome != null) {
+                            failures.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+                        } else {
+                            if (count == own.length) own = Arrays.copyOf(own, count * 2);
+                            own[count++] = elapsed;
+                        }
+                    }
+                    latencies[index] = own;
+                    counts[index] = count;
+                });
+            }
+        }
+
+        long total = Arrays.stream(counts).asLongStream().sum();
+        long[] all = new long[(int) total];
+        int offset = 0;
+        for (int c = 0; c < CLIENTS; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+
+        System.out.printf(Locale.US, "%nRequisições bem-sucedidas: %d (%.0f req/s)%n", total, total / (double) SECONDS);
+        System.out.printf(Locale.US, "Latência no cliente (ms): p50=%.2f p99=%.2f max=%.2f%n",
+                percentile(all, 0.50), percentile(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+        System.out.println("Falhas: " + new TreeMap<>(failures));
+
+        HttpResponse<String> metrics = client.send(HttpRequest.newBuilder(URI.create(base + "/api/metrics"))
+                .header("Authorization", authorization).build(), HttpResponse.BodyHandlers.ofString());
+        System.out.println("Métricas do servidor (incluem o aquecimento): " + metrics.body());
+
+        server.stop(0);
+        System.exit(0);
+    }
+
+    /**
+     * @return {@code null} em caso de sucesso, ou a descrição da falha
+     */
+    private static String request(HttpClient client, String base, String authorization, long[] range) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String path;
+        if (random.nextInt(100) < SEARCH_PERCENT) {
+            path = "/api/products/search?limit=20&q=produto+" + random.nextInt(1, 1000);
+        } else if (random.nextInt(4) > 0) {
+            path = "/api/products/" + random.nextLong(range[0], range[1] + 1);
+        } else {
+            path = "/api/products?limit=50&afterId=" + random.nextLong(range[0], range[1] + 1);
+        }
+
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base + path))
+                    .header("Authorization", authorization)
+                    .timeout(Duration.ofSeconds(30))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200 ? null : "HTTP " + response.statusCode();
+        } catch (Exception e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(sorted.length * quantile) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.service.AuthService;
+import org.mindrot.jbcrypt.BCrypt;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede logins por segundo no {@link AuthService} para cada custo BCrypt.
+ * <p>
+ * O número de threads concorrentes vem do {@link BenchmarkRunner} ({@code -Dbench.threads});
+ * o pool do BCrypt usa um thread por núcleo, como na aplicação. Os tempos de {@code validLogin}
+ * e {@code unknownUser} devem ficar próximos, já que usuários inexistentes também pagam uma verificação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuthBenchmark {
+
+    private static final String PASSWORD = "senha-benchmark";
+
+    @Param({"10", "12"})
+    public int cost;
+
+    private AuthService authService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("auth.bcrypt.cost", String.valueOf(cost));
+        System.setProperty("auth.pool.size", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        System.setProperty("auth.pool.queue", "1024");
+        BenchmarkDatabase.configure();
+        BenchmarkDatabase.seedUsers(1000);
+
+        UserDAO userDAO = new UserDAO();
+        User user = userDAO.findByUsername("user0");
+        userDAO.updatePassword(user.getId(), BCrypt.hashpw(PASSWORD, BCrypt.gensalt(cost)));
+        authService = AuthService.getInstance();
+    }
+
+    @Benchmark
+    public User validLogin() {
+        return authService.authenticate("user0", PASSWORD).join();
+    }
+
+    @Benchmark
+    public User wrongPassword() {
+        return authService.authenticate("user0", "senha-errada").join();
+    }
+
+    @Benchmark
+    public User unknownUser() {
+        return authService.authenticate("missing", PASSWORD).join();
+    }
+}
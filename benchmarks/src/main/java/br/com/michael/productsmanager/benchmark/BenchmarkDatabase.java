@@ -0,0 +1,212 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.util.JPAUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Prepara o banco H2 embarcado (modo MySQL) usado pelos benchmarks.
+ * <p>
+ * Aponta o {@link JPAUtil} para o H2 por meio de propriedades de sistema e popula as tabelas
+ * diretamente via JDBC em lotes, para que a carga inicial não entre na medição.
+ */
+public final class BenchmarkDatabase {
+
+    /** URL do banco em memória, mantido vivo enquanto a JVM do benchmark existir. */
+    public static final String URL =
+            "jdbc:h2:mem:pm_bench;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+
+    /** URL da réplica de leitura em memória ({@link #configureWithReplica()}). */
+    public static final String REPLICA_URL =
+            "jdbc:h2:mem:pm_bench_replica;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+
+    /** Nome do usuário dono do catálogo medido. */
+    public static final String OWNER = "bench";
+
+    private static final int SEED_BATCH = 10_000;
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Configura o {@link JPAUtil} para usar o H2. Deve ser chamado antes de qualquer DAO ser carregado.
+     */
+    public static void configure() {
+        System.setProperty("db.url", URL);
+        System.setProperty("db.user", "sa");
+        System.setProperty("db.password", "");
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.dialect", "org.hibernate.dialect.H2Dialect");
+        System.setProperty("hibernate.show_sql", "false");
+
+        // As migrações são escritas para o MySQL (ex: índice FULLTEXT): no H2 o esquema vem das entidades
+        System.setProperty("db.migration.mode", "none");
+        System.setProperty("hibernate.hbm2ddl.auto", "update");
+
+        // Força a criação do esquema pelo Hibernate antes da carga via JDBC
+        JPAUtil.getEntityManagerFactory();
+
+        // No InnoDB o índice da chave estrangeira user_id também contém o id (chave primária), o que
+        // permite a paginação por chave sem ordenar o catálogo; o H2 precisa do índice composto explícito
+        try (Connection con = connect(); Statement st = con.createStatement()) {
+            st.execute("CREATE INDEX IF NOT EXISTS idx_product_user_id ON product (user_id, id)");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro ao criar os índices de benchmark", e);
+        }
+    }
+
+    /**
+     * Como {@link #configure()}, com um segundo banco H2 em memória como réplica de leitura ({@code db.replica.urls}).
+     * A réplica só recebe os dados em {@link #replicate()}.
+     */
+    public static void configureWithReplica() {
+        System.setProperty("db.replica.urls", REPLICA_URL);
+        configure();
+    }
+
+    /**
+     * Copia o banco principal inteiro para a réplica, fazendo o papel da replicação do MySQL.
+     */
+    public static void replicate() {
+        try {
+            Path script = Files.createTempFile("pm_bench", ".sql");
+            try (Connection con = connect(); Statement st = con.createStatement()) {
+                st.execute("SCRIPT TO '" + script + "'");
+            }
+            try (Connection con = connectReplica(); Statement st = con.createStatement()) {
+                st.execute("DROP ALL OBJECTS");
+                st.execute("RUNSCRIPT FROM '" + script + "'");
+            } finally {
+                Files.delete(script);
+            }
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Erro ao copiar o banco de benchmark para a réplica", e);
+        }
+    }
+
+    /**
+     * Recria o catálogo do usuário {@link #OWNER} com a quantidade de produtos informada.
+     *
+     * @param catalogSize Quantidade de produtos a inserir
+     */
+    public static void seedCatalog(int catalogSize) {
+        try (Connection con = connect()) {
+            truncate(con);
+            con.setAutoCommit(false);
+            try (PreparedStatement user = con.prepareStatement(
+                    "INSERT INTO user (id, username, password) VALUES (1, ?, ?)")) {
+                user.setString(1, OWNER);
+                user.setString(2, "-");
+                user.executeUpdate();
+            }
+            try (PreparedStatement insert = con.prepareStatement(
+                    "INSERT INTO product (id, name, price, description, user_id) VALUES (?, ?, ?, ?, 1)")) {
+                for (int i = 1; i <= catalogSize; i++) {
+                    insert.setLong(1, i);
+                    insert.setString(2, "Produto " + i);
+                    insert.setDouble(3, 1 + (i % 1000) / 10.0);
+                    insert.setString(4, "Descrição do produto de número " + i);
+                    insert.addBatch();
+                    if (i % SEED_BATCH == 0) insert.executeBatch();
+                }
+                insert.executeBatch();
+            }
+            resetIdGenerator(con, 1, catalogSize);
+            con.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro ao popular o catálogo de benchmark", e);
+        }
+    }
+
+    /**
+     * Recria a tabela de usuários com {@code userCount} registros nomeados {@code user0..userN-1}.
+     *
+     * @param userCount Quantidade de usuários a inserir
+     */
+    public static void seedUsers(int userCount) {
+        try (Connection con = connect()) {
+            truncate(con);
+            con.setAutoCommit(false);
+            try (PreparedStatement insert = con.prepareStatement(
+                    "INSERT INTO user (id, username, password) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < userCount; i++) {
+                    insert.setLong(1, i + 1);
+                    insert.setString(2, "user" + i);
+                    insert.setString(3, "-");
+                    insert.addBatch();
+                    if ((i + 1) % SEED_BATCH == 0) insert.executeBatch();
+                }
+                insert.executeBatch();
+            }
+            resetIdGenerator(con, userCount, 0);
+            con.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro ao popular os usuários de benchmark", e);
+        }
+    }
+
+    /**
+     * Retorna o menor e o maior ID de produto existentes.
+     *
+     * @return Vetor {@code [min, max]}
+     */
+    public static long[] productIdRange() {
+        try (Connection con = connect();
+             Statement st = con.createStatement();
+             var rs = st.executeQuery("SELECT MIN(id), MAX(id) FROM product")) {
+            rs.next();
+            return new long[] {rs.getLong(1), rs.getLong(2)};
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro ao consultar os IDs de produto", e);
+        }
+    }
+
+    /**
+     * Abre uma conexão JDBC direta com o banco de benchmark.
+     *
+     * @return Conexão aberta
+     * @throws SQLException se o banco não estiver acessível
+     */
+    public static Connection connect() throws SQLException {
+        return DriverManager.getConnection(URL, "sa", "");
+    }
+
+    /**
+     * Abre uma conexão JDBC direta com a réplica de leitura.
+     *
+     * @return Conexão aberta
+     * @throws SQLException se o banco não estiver acessível
+     */
+    public static Connection connectReplica() throws SQLException {
+        return DriverManager.getConnection(REPLICA_URL, "sa", "");
+    }
+
+    /**
+     * Posiciona a tabela {@code id_generator} logo após os IDs inseridos manualmente,
+     * respeitando o bloco de 50 IDs alocado pelo Hibernate.
+     */
+    private static void resetIdGenerator(Connection con, long maxUserId, long maxProductId) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("DELETE FROM id_generator");
+            st.execute("INSERT INTO id_generator (sequence_name, next_val) VALUES ('user', " + (maxUserId + 50) + ")");
+            st.execute("INSERT INTO id_generator (sequence_name, next_val) VALUES ('product', " + (maxProductId + 50) + ")");
+        }
+    }
+
+    private static void truncate(Connection con) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            st.execute("TRUNCATE TABLE product");
+            // A carga via JDBC não passa pelo ProductDAO: o resumo é recalculado na primeira leitura
+            st.execute("TRUNCATE TABLE product_summary");
+            st.execute("TRUNCATE TABLE user");
+            st.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.michael.productsmanager.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Ponto de entrada do {@code benchmarks.jar}.
+ * <p>
+ * Aceita as mesmas opções de linha de comando do JMH (ex: {@code ProductDAOBenchmark -p catalogSize=1000})
+ * e executa a seleção uma vez para cada quantidade de threads em {@code -Dbench.threads}
+ * (padrão: 1 e o número de processadores). Cada execução grava um JSON em {@code -Dbench.results}
+ * (padrão: {@code target/jmh}) para comparação entre versões.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        String threads = System.getProperty("bench.threads", "1," + Runtime.getRuntime().availableProcessors());
+        Path resultsDir = Path.of(System.getProperty("bench.results", "target/jmh"));
+        Files.createDirectories(resultsDir);
+
+        for (String value : threads.split(",")) {
+            int threadCount = Integer.parseInt(value.trim());
+            Options options = new OptionsBuilder()
+                    .parent(cli)
+                    .threads(threadCount)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultsDir.resolve("results-" + threadCount + "t.json").toString())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a vazão (produtos por segundo) da inserção linha a linha ({@link ProductDAO#addProduct(Product)})
+ * com a inserção em lote ({@link ProductDAO#addProducts(java.util.Collection)}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class BulkInsertBenchmark {
+
+    /** Quantidade de produtos gravados por invocação. */
+    private static final int ROWS = 10_000;
+
+    @Param({"1", "50", "500"})
+    public String batchSize;
+
+    private ProductDAO productDAO;
+    private User owner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("db.batch.size", batchSize);
+        BenchmarkDatabase.configure();
+        BenchmarkDatabase.seedCatalog(0);
+        productDAO = new ProductDAO();
+        owner = new UserDAO().findByUsername(BenchmarkDatabase.OWNER);
+    }
+
+    private List<Product> newProducts() {
+        List<Product> products = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Product product = new Product("Produto importado " + i, 10.0 + i % 100, "Catálogo do fornecedor");
+            product.setUser(owner);
+            products.add(product);
+        }
+        return products;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void perRowInsert() {
+        for (Product product : newProducts()) {
+            productDAO.addProduct(product);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int batchedInsert() {
+        return productDAO.addProducts(newProducts());
+    }
+}
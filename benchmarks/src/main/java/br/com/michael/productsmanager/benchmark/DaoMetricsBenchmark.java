@@ -0,0 +1,82 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DaoMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o custo das métricas de latência dos DAOs ({@link DaoMetrics}) comparando as mesmas chamadas com a
+ * coleta ligada e desligada ({@code -p metrics=true,false}; cada combinação roda em uma JVM própria) e com
+ * a latência medida em todas as chamadas ou em uma amostra ({@code -p sampleRate=1,16}).
+ * <p>
+ * As chamadas medidas são as mais rápidas dos DAOs (leituras atendidas pelo cache de segundo nível e pelo
+ * cache de natural id), onde o custo relativo das métricas é o maior possível. {@link #recordOnly()} mede
+ * só o registro de uma medida, sem acesso ao banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class DaoMetricsBenchmark {
+
+    /** Produtos lidos repetidamente (todos cabem no cache de segundo nível). */
+    private static final int HOT_PRODUCTS = 1000;
+
+    @Param({"true", "false"})
+    public String metrics;
+
+    @Param({"1", "16"})
+    public int sampleRate;
+
+    private ProductDAO productDAO;
+    private UserDAO userDAO;
+    private DaoMetrics.Operation operation;
+    private long minId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Lido uma vez, no carregamento do DaoMetrics
+        System.setProperty("db.metrics.enabled", metrics);
+        System.setProperty("db.metrics.sampleRate", String.valueOf(sampleRate));
+        BenchmarkDatabase.configure();
+        BenchmarkDatabase.seedCatalog(HOT_PRODUCTS);
+        minId = BenchmarkDatabase.productIdRange()[0];
+
+        productDAO = new ProductDAO();
+        userDAO = new UserDAO();
+        operation = DaoMetrics.operation("DaoMetricsBenchmark.recordOnly");
+        if (DaoMetrics.isEnabled() != Boolean.parseBoolean(metrics)) {
+            throw new IllegalStateException("db.metrics.enabled não aplicado: DaoMetrics já estava carregado");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.println(DaoMetrics.report());
+    }
+
+    @Benchmark
+    public Product findCachedProduct() {
+        return productDAO.findProduct(minId + ThreadLocalRandom.current().nextInt(HOT_PRODUCTS));
+    }
+
+    @Benchmark
+    public User findCachedUser() {
+        return userDAO.findByUsername(BenchmarkDatabase.OWNER);
+    }
+
+    @Benchmark
+    public DaoMetrics.Call recordOnly() {
+        DaoMetrics.Call call = operation.start();
+        call.finish();
+        return call;
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.service.ProductExporter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a exportação do catálogo pelo {@link ProductExporter}, em CSV e JSON.
+ * <p>
+ * Cada invocação exporta o catálogo inteiro; a vazão em MB/s é o tamanho do arquivo
+ * (impresso ao fim da preparação) dividido pelo tempo medido. O banco H2 fica na mesma JVM,
+ * por isso o heap precisa comportar o catálogo; o consumo da exportação em si pode ser
+ * acompanhado com {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class ExportBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"csv", "json"})
+    public String format;
+
+    private ProductExporter exporter;
+    private User owner;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkDatabase.configure();
+        BenchmarkDatabase.seedCatalog(catalogSize);
+        exporter = new ProductExporter(new ProductDAO());
+        owner = new UserDAO().findByUsername(BenchmarkDatabase.OWNER);
+        file = Files.createTempFile("export", "." + format);
+
+        ProductExporter.Result result = exportFile();
+        System.out.printf("%nArquivo de %.1f MB (%d produtos), %.1f MB/s%n",
+                result.bytes() / 1_048_576.0, result.rows(), result.megabytesPerSecond());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ProductExporter.Result exportFile() {
+        ProductExporter.Result result = exporter.export(file, owner, progress -> {}, () -> false);
+        if (result.status() != ProductExporter.Status.COMPLETED) {
+            throw new IllegalStateException(result.failure());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.service.ProductImporter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a vazão (produtos por segundo) da importação de arquivos pelo {@link ProductImporter},
+ * da leitura do arquivo à gravação no banco, para CSV e JSON.
+ * <p>
+ * Um em cada 100 registros é inválido (preço negativo), para que a validação e o relatório de
+ * rejeições também entrem na medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class ImportBenchmark {
+
+    /** Registros por arquivo. */
+    private static final int ROWS = 100_000;
+
+    @Param({"csv", "json"})
+    public String format;
+
+    @Param({"500", "5000"})
+    public String batchSize;
+
+    private ProductImporter importer;
+    private User owner;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        System.setProperty("import.batchSize", batchSize);
+        BenchmarkDatabase.configure();
+        BenchmarkDatabase.seedCatalog(0);
+        importer = new ProductImporter(new ProductDAO());
+        owner = new UserDAO().findByUsername(BenchmarkDatabase.OWNER);
+        file = Files.createTempFile("products", "." + format);
+        write(file, format);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long importFile() {
+        ProductImporter.Result result = importer.start(file, owner, progress -> {}, batch -> {}).join();
+        if (result.summary().status() != ProductImporter.Status.COMPLETED) {
+            throw new IllegalStateException(result.failure());
+        }
+        return result.summary().imported();
+    }
+
+    private static void write(Path file, String format) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            boolean json = format.equals("json");
+            out.write(json ? "[\n" : "nome;preco;descricao\n");
+            for (int i = 0; i < ROWS; i++) {
+                String price = i % 100 == 0 ? "-1" : (10 + i % 100) + ",90";
+                if (json) {
+                    out.write((i > 0 ? ",\n" : "") + "{\"nome\": \"Produto importado " + i + "\", \"preco\": \"" + price
+                            + "\", \"descricao\": \"Catálogo do fornecedor; lote " + i / 1000 + "\"}");
+                } else {
+                    out.write("Produto importado " + i + ";" + price + ";\"Catálogo do fornecedor; lote " + i / 1000 + "\"\n");
+                }
+            }
+            out.write(json ? "\n]\n" : "");
+        }
+    }
+}
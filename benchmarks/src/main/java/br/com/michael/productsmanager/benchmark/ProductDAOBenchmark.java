@@ -0,0 +1,207 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.dao.ProductSummaryDAO;
+import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.ProductSummary;
+import br.com.michael.productsmanager.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Mede as operações do {@link ProductDAO} contra catálogos de 1 mil a 1 milhão de produtos.
+ * <p>
+ * A quantidade de threads é definida na execução (veja {@link BenchmarkRunner}), de forma que
+ * o mesmo conjunto de medições cobre os cenários mono e multithread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ProductDAOBenchmark {
+
+    /** Produtos afetados por operação em massa. */
+    private static final int BULK_SIZE = 1000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private ProductDAO productDAO;
+    private ProductSummaryDAO summaryDAO;
+    private User owner;
+    private long minId;
+    private long maxId;
+    private ProductDAO.SearchCursor searchCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.configure();
+        BenchmarkDatabase.seedCatalog(catalogSize);
+
+        long[] range = BenchmarkDatabase.productIdRange();
+        minId = range[0];
+        maxId = range[1];
+
+        productDAO = new ProductDAO();
+        summaryDAO = new ProductSummaryDAO();
+        owner = new UserDAO().findByUsername(BenchmarkDatabase.OWNER);
+
+        List<ProductDAO.SearchHit> firstPage = productDAO.search(owner, "produto", null, 100);
+        searchCursor = firstPage.get(firstPage.size() - 1).cursor();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+    }
+
+    @Benchmark
+    public Product findProduct() {
+        return productDAO.findProduct(randomId());
+    }
+
+    /**
+     * Produtos de uma fatia do catálogo exclusiva de cada thread, para que as atualizações não entrem em
+     * conflito entre si. Cada produto é lido na primeira vez que é sorteado e acompanha as atualizações.
+     */
+    @State(Scope.Thread)
+    public static class OwnedProducts {
+        long first;
+        Product[] products;
+
+        @Setup(Level.Trial)
+        public void setUp(ProductDAOBenchmark benchmark, ThreadParams thread) {
+            long span = Math.max(1, (benchmark.maxId - benchmark.minId + 1) / thread.getThreadCount());
+            first = benchmark.minId + thread.getThreadIndex() * span;
+            products = new Product[(int) span];
+        }
+    }
+
+    /**
+     * Atualização de preço com verificação de versão: {@code UPDATE} do produto e do resumo do catálogo.
+     */
+    @Benchmark
+    public int updateProduct(OwnedProducts owned) {
+        int slot = ThreadLocalRandom.current().nextInt(owned.products.length);
+        Product current = owned.products[slot];
+        if (current == null) current = owned.products[slot] = productDAO.findProduct(owned.first + slot);
+        double newPrice = ThreadLocalRandom.current().nextDouble(1, 1000);
+        int updated = productDAO.updateProduct(current, null, newPrice, null);
+        if (updated == 1) {
+            current.setPrice(newPrice);
+            current.setVersion(current.getVersion() + 1);
+        } else {
+            // Alterado por updateProducts: lido de novo no próximo sorteio
+            owned.products[slot] = null;
+        }
+        return updated;
+    }
+
+    /**
+     * Alteração em massa de 1000 produtos contíguos: {@code UPDATE ... WHERE id IN} em uma transação.
+     */
+    @Benchmark
+    public int updateProducts() {
+        long first = ThreadLocalRandom.current().nextLong(minId, Math.max(minId + 1, maxId - BULK_SIZE + 2));
+        List<Long> ids = LongStream.range(first, first + BULK_SIZE).boxed().toList();
+        return productDAO.updateProducts(ids, ThreadLocalRandom.current().nextDouble(1, 1000), null);
+    }
+
+    /**
+     * Insere e exclui em massa 1000 produtos, mantendo o tamanho do catálogo estável.
+     */
+    @Benchmark
+    public int addThenDeleteProducts() {
+        List<Product> products = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            Product product = new Product("Novo produto " + i, 9.9, "Inserido pelo benchmark");
+            product.setUser(owner);
+            products.add(product);
+        }
+        productDAO.addProducts(products);
+        return productDAO.deleteProducts(products.stream().map(Product::getId).toList());
+    }
+
+    @Benchmark
+    public Product addProduct() {
+        Product product = new Product("Novo produto", 9.9, "Inserido pelo benchmark");
+        product.setUser(owner);
+        productDAO.addProduct(product);
+        return product;
+    }
+
+    /**
+     * Insere e remove um produto, mantendo o tamanho do catálogo estável.
+     * O custo do {@code deleteProduct} é a diferença em relação a {@link #addProduct()}.
+     */
+    @Benchmark
+    public void addThenDeleteProduct() {
+        Product product = addProduct();
+        productDAO.deleteProduct(product);
+    }
+
+    /**
+     * Página de 100 produtos a partir de uma posição aleatória (paginação por chave).
+     */
+    @Benchmark
+    public List<Product> listPageByUser() {
+        return productDAO.listPageByUser(owner, randomId(), 100);
+    }
+
+    /**
+     * Primeira página de uma busca no banco. No H2 a busca usa {@code LIKE} (varredura do catálogo);
+     * no MySQL, o índice FULLTEXT.
+     */
+    @Benchmark
+    public List<ProductDAO.SearchHit> searchFirstPage() {
+        return productDAO.search(owner, "produto " + ThreadLocalRandom.current().nextInt(1, 100), null, 100);
+    }
+
+    /**
+     * Página seguinte de uma busca, a partir do cursor da primeira (paginação por chave).
+     */
+    @Benchmark
+    public List<ProductDAO.SearchHit> searchNextPage() {
+        return productDAO.search(owner, "produto", searchCursor, 100);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public void listByUser(Blackhole bh) {
+        List<Product> products = productDAO.listByUser(owner);
+        bh.consume(products.size());
+    }
+
+    /**
+     * Resumo do catálogo (quantidade, total, mínimo e máximo) lido da tabela mantida a cada escrita.
+     */
+    @Benchmark
+    public ProductSummary findSummary() {
+        return summaryDAO.findByUser(owner);
+    }
+
+    /**
+     * O mesmo resumo calculado carregando o catálogo inteiro e somando em Java, como antes do {@link ProductSummaryDAO}.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public DoubleSummaryStatistics summarizeByListing() {
+        return productDAO.listByUser(owner).stream().mapToDouble(Product::getPrice).summaryStatistics();
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.service.ProductSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a busca pelo {@link ProductSearchIndex} com o filtro antigo da tela principal
+ * ({@code toLowerCase().contains()} no nome e na descrição de cada produto), em memória.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ProductSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "Caneta", "Azul", "Caderno", "Mochila", "Notebook", "Cabo", "USB", "Teclado", "Mouse",
+            "Monitor", "Cadeira", "Mesa", "Garrafa", "Térmica", "Fone", "Bluetooth", "Carregador",
+            "Lâmpada", "Led", "Tinta", "Papel", "Sulfite", "Grampeador", "Tesoura", "Régua"
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    /** Termos com muitos resultados, poucos resultados e nenhum resultado. */
+    @Param({"ca", "azul", "produto 4242", "inexistente"})
+    public String term;
+
+    private List<Product> products;
+    private ProductSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        products = new ArrayList<>(catalogSize);
+        index = new ProductSearchIndex();
+        for (int i = 0; i < catalogSize; i++) {
+            Product product = new Product("Produto " + i + " " + WORDS[random.nextInt(WORDS.length)], 10.0,
+                    WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                            + WORDS[random.nextInt(WORDS.length)]);
+            product.setId(i + 1L);
+            products.add(product);
+            index.add(product);
+        }
+    }
+
+    /** Filtro usado antes do índice: percorre todos os produtos a cada tecla. */
+    @Benchmark
+    public int predicateScan() {
+        String filter = term.trim().toLowerCase();
+        int matches = 0;
+        for (Product product : products) {
+            if (product.getName().toLowerCase().contains(filter) ||
+                    product.getDescription().toLowerCase().contains(filter)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int indexSearch() {
+        return index.search(term).size();
+    }
+
+    /** Custo de manter o índice a cada edição de produto. */
+    @Benchmark
+    public void indexUpdate() {
+        index.add(products.get(ThreadLocalRandom.current().nextInt(catalogSize)));
+    }
+}
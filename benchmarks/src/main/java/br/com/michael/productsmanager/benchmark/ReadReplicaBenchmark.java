@@ -0,0 +1,117 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.JPAUtil;
+import br.com.michael.productsmanager.util.ReadReplicas;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede as leituras do catálogo sem réplica e com uma réplica de leitura ({@code -p replica=false,true}; cada
+ * combinação roda em uma JVM própria), usando dois bancos H2 em memória: o principal e a réplica, que recebe
+ * uma cópia do principal no lugar da replicação ({@link BenchmarkDatabase#replicate()}).
+ * <p>
+ * Antes das medições, o roteamento é conferido: com a réplica, um produto alterado apenas nela precisa aparecer
+ * na leitura, e logo após uma escrita do mesmo usuário a leitura precisa voltar ao banco principal. As leituras
+ * medidas não usam o cache de consultas, então cada chamada vai ao banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+public class ReadReplicaBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+
+    /** Tempo em que as leituras ficam no banco principal após uma escrita (reduzido para a conferência). */
+    private static final int STICKY_MILLIS = 500;
+
+    private static final String REPLICA_ONLY_NAME = "Alterado apenas na réplica";
+
+    @Param({"false", "true"})
+    public boolean replica;
+
+    private ProductDAO productDAO;
+    private User owner;
+    private long minId;
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        System.setProperty("db.replica.stickyMillis", String.valueOf(STICKY_MILLIS));
+        if (replica) {
+            BenchmarkDatabase.configureWithReplica();
+        } else {
+            BenchmarkDatabase.configure();
+        }
+        BenchmarkDatabase.seedCatalog(CATALOG_SIZE);
+        if (replica) BenchmarkDatabase.replicate();
+
+        long[] range = BenchmarkDatabase.productIdRange();
+        minId = range[0];
+        maxId = range[1];
+        productDAO = new ProductDAO();
+        owner = new UserDAO().findByUsername(BenchmarkDatabase.OWNER);
+
+        if (replica) verifyRouting();
+    }
+
+    /**
+     * Confere que as leituras vão à réplica e que, após uma escrita, voltam ao banco principal.
+     */
+    private void verifyRouting() throws SQLException, InterruptedException {
+        try (Connection con = BenchmarkDatabase.connectReplica(); Statement st = con.createStatement()) {
+            st.executeUpdate("UPDATE product SET name = '" + REPLICA_ONLY_NAME + "' WHERE id = " + minId);
+        }
+        // A réplica entra no rodízio na primeira verificação do ReadReplicas
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!REPLICA_ONLY_NAME.equals(firstName())) {
+            if (System.nanoTime() > deadline) throw new IllegalStateException("Leituras não foram roteadas para a réplica");
+            Thread.sleep(100);
+        }
+
+        productDAO.updateProduct(productDAO.findProduct(maxId), null, null, "Escrita do benchmark");
+        if (REPLICA_ONLY_NAME.equals(firstName())) {
+            throw new IllegalStateException("Leitura logo após uma escrita foi roteada para a réplica");
+        }
+
+        BenchmarkDatabase.replicate();
+        Thread.sleep(STICKY_MILLIS);
+    }
+
+    private Object firstName() {
+        return productDAO.listSearchTextPage(owner, minId - 1, 1).get(0)[1];
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        ReadReplicas replicas = JPAUtil.getReadReplicas();
+        if (replicas != null) System.out.println(replicas.report());
+    }
+
+    /**
+     * Página de 100 produtos (projeção, fora do cache de consultas) a partir de uma posição aleatória.
+     */
+    @Benchmark
+    public List<Object[]> readPage() {
+        return productDAO.listSearchTextPage(owner, ThreadLocalRandom.current().nextLong(minId, maxId + 1), 100);
+    }
+
+    /**
+     * Quantidade de resultados de uma busca no banco (no H2, varredura do catálogo com {@code LIKE}).
+     */
+    @Benchmark
+    public int countSearch() {
+        return productDAO.countSearch(owner, "produto " + ThreadLocalRandom.current().nextInt(1, 100));
+    }
+}
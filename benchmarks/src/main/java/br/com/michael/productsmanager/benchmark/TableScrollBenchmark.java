@@ -0,0 +1,237 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.controller.TooltipTableCell;
+import br.com.michael.productsmanager.model.Product;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.Tooltip;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.stage.Stage;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Mede a rolagem rápida da tabela de produtos com as células antigas ({@code legacy}: um {@code Label}
+ * e um {@code Tooltip} novos por atualização, estilo inline e formatador de moeda criado a cada preço)
+ * e com o {@link TooltipTableCell} ({@code reusable}).
+ * <p>
+ * Não usa o JMH: precisa de uma tela (JavaFX). Para cada modo, rola 100 mil linhas por {@code frames}
+ * quadros e informa o intervalo entre quadros, o tempo de CSS + layout de cada pulso, os bytes alocados
+ * na thread de interface e as coletas de lixo.
+ * <pre>
+ * java -cp target/benchmarks.jar br.com.michael.productsmanager.benchmark.TableScrollBenchmark legacy
+ * java -cp target/benchmarks.jar br.com.michael.productsmanager.benchmark.TableScrollBenchmark reusable
+ * </pre>
+ * Rode um modo por JVM para que o JIT de um não favoreça o outro.
+ */
+public final class TableScrollBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_FRAMES = 120;
+    private static final int FRAMES = Integer.getInteger("bench.frames", 600);
+
+    /** Deslocamento por quadro, em pixels (rolagem rápida). */
+    private static final double SCROLL_PER_FRAME = 400;
+
+    private TableScrollBenchmark() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> modes = args.length > 0 ? Arrays.asList(args) : List.of("legacy", "reusable");
+        ObservableList<Product> products = catalog();
+
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+        Platform.setImplicitExit(false);
+
+        for (String mode : modes) {
+            CountDownLatch done = new CountDownLatch(1);
+            Platform.runLater(() -> run(mode, products, done));
+            done.await();
+        }
+        Platform.exit();
+    }
+
+    private static void run(String mode, ObservableList<Product> products, CountDownLatch done) {
+        TableView<Product> table = new TableView<>(products);
+        if (mode.equals("legacy")) {
+            legacyColumns(table);
+        } else if (mode.equals("reusable")) {
+            reusableColumns(table);
+        } else {
+            throw new IllegalArgumentException("Modo desconhecido: " + mode + " (use legacy ou reusable)");
+        }
+
+        Scene scene = new Scene(table, 800, 600);
+        scene.getStylesheets().add(TableScrollBenchmark.class.getResource("/style/style.css").toExternalForm());
+        Stage stage = new Stage();
+        stage.setScene(scene);
+        stage.show();
+
+        long[] intervals = new long[FRAMES];
+        long[] layouts = new long[FRAMES];
+        long[] layoutStart = new long[1];
+        int[] frame = {-WARMUP_FRAMES};
+        long[] allocatedAtStart = new long[1];
+        long[] gcAtStart = new long[2];
+
+        scene.addPreLayoutPulseListener(() -> layoutStart[0] = System.nanoTime());
+        scene.addPostLayoutPulseListener(() -> {
+            if (frame[0] >= 0 && frame[0] < FRAMES) layouts[frame[0]] = System.nanoTime() - layoutStart[0];
+        });
+
+        new AnimationTimer() {
+            private long last;
+
+            @Override
+            public void handle(long now) {
+                if (frame[0] == 0) {
+                    allocatedAtStart[0] = allocatedBytes();
+                    gcAtStart[0] = gcCount();
+                    gcAtStart[1] = gcMillis();
+                } else if (frame[0] > 0 && frame[0] <= FRAMES) {
+                    intervals[frame[0] - 1] = now - last;
+                }
+                last = now;
+
+                if (frame[0] == FRAMES) {
+                    stop();
+                    report(mode, intervals, layouts, allocatedBytes() - allocatedAtStart[0],
+                            gcCount() - gcAtStart[0], gcMillis() - gcAtStart[1]);
+                    stage.close();
+                    done.countDown();
+                    return;
+                }
+
+                VirtualFlow<?> flow = (VirtualFlow<?>) table.lookup(".virtual-flow");
+                if (flow != null) {
+                    double moved = flow.scrollPixels(SCROLL_PER_FRAME);
+                    if (moved < SCROLL_PER_FRAME) flow.scrollTo(0);
+                }
+                frame[0]++;
+            }
+        }.start();
+    }
+
+    private static void report(String mode, long[] intervals, long[] layouts, long allocated, long gcs, long gcMillis) {
+        System.out.printf(Locale.US, "%n[%s] %d quadros, %d linhas%n", mode, FRAMES, ROWS);
+        System.out.printf(Locale.US, "  intervalo entre quadros (ms): p50=%.2f p99=%.2f max=%.2f%n",
+                percentile(intervals, 50), percentile(intervals, 99), percentile(intervals, 100));
+        System.out.printf(Locale.US, "  CSS + layout por pulso (ms):  p50=%.2f p99=%.2f max=%.2f%n",
+                percentile(layouts, 50), percentile(layouts, 99), percentile(layouts, 100));
+        System.out.printf(Locale.US, "  alocação na thread de interface: %.1f MB (%.1f KB/quadro)%n",
+                allocated / 1_048_576.0, allocated / 1024.0 / FRAMES);
+        System.out.printf(Locale.US, "  coletas de lixo: %d (%d ms)%n", gcs, gcMillis);
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static ObservableList<Product> catalog() {
+        List<Product> products = new ArrayList<>(ROWS);
+        for (int i = 1; i <= ROWS; i++) {
+            Product product = new Product("Produto " + i, 1 + (i % 1000) / 10.0,
+                    "Descrição do produto de número " + i + ", usada para medir a rolagem da tabela");
+            product.setId((long) i);
+            products.add(product);
+        }
+        return FXCollections.observableArrayList(products);
+    }
+
+    private static void reusableColumns(TableView<Product> table) {
+        TableColumn<Product, String> name = new TableColumn<>("Nome");
+        TableColumn<Product, Double> price = new TableColumn<>("Preço");
+        TableColumn<Product, String> description = new TableColumn<>("Descrição");
+        name.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().getName()));
+        price.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().getPrice()));
+        description.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().getDescription()));
+        name.setCellFactory(tc -> TooltipTableCell.text());
+        price.setCellFactory(tc -> TooltipTableCell.currency());
+        description.setCellFactory(tc -> TooltipTableCell.text());
+        table.getColumns().setAll(List.of(name, price, description));
+    }
+
+    /**
+     * Reproduz as células usadas antes do {@link TooltipTableCell}.
+     */
+    private static void legacyColumns(TableView<Product> table) {
+        TableColumn<Product, String> name = new TableColumn<>("Nome");
+        TableColumn<Product, Double> price = new TableColumn<>("Preço");
+        TableColumn<Product, String> description = new TableColumn<>("Descrição");
+        name.setCellValueFactory(new PropertyValueFactory<>("name"));
+        price.setCellValueFactory(new PropertyValueFactory<>("price"));
+        description.setCellValueFactory(new PropertyValueFactory<>("description"));
+        name.setCellFactory(tc -> legacyTextCell());
+        description.setCellFactory(tc -> legacyTextCell());
+        price.setCellFactory(tc -> new TableCell<>() {
+            @Override
+            protected void updateItem(Double value, boolean empty) {
+                super.updateItem(value, empty);
+                if (empty || value == null) {
+                    setGraphic(null);
+                } else {
+                    String formatted = NumberFormat.getCurrencyInstance(Locale.of("pt", "BR")).format(value);
+                    setGraphic(legacyLabel(formatted, false));
+                }
+            }
+        });
+        table.getColumns().setAll(List.of(name, price, description));
+    }
+
+    private static TableCell<Product, String> legacyTextCell() {
+        return new TableCell<>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                setGraphic(empty || item == null ? null : legacyLabel(item, true));
+            }
+        };
+    }
+
+    private static Label legacyLabel(String text, boolean wrap) {
+        Label label = new Label(text);
+        if (wrap) {
+            label.setWrapText(true);
+            label.setMaxWidth(Double.MAX_VALUE);
+        }
+        label.setStyle("-fx-padding: 5px;");
+        Tooltip tooltip = new Tooltip(text);
+        tooltip.setWrapText(true);
+        tooltip.setMaxWidth(300);
+        tooltip.setStyle("-fx-font-size: 13px; -fx-background-color: white; -fx-text-fill: black; -fx-padding: 10px; -fx-border-color: #ccc;");
+        Tooltip.install(label, tooltip);
+        return label;
+    }
+}
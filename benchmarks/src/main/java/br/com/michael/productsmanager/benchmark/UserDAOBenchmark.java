@@ -0,0 +1,57 @@
+package br.com.michael.productsmanager.benchmark;
+
+import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mede a busca de usuários por nome de login ({@link UserDAO#findByUsername(String)}) e o registro
+ * ({@link UserDAO#register(User)}) em tabelas de 1 mil a 1 milhão de usuários.
+ * <p>
+ * Com o índice único e o cache de natural id, a busca não deve crescer com o tamanho da tabela.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class UserDAOBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int userCount;
+
+    private final AtomicLong newUsers = new AtomicLong();
+    private UserDAO userDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.configure();
+        BenchmarkDatabase.seedUsers(userCount);
+        userDAO = new UserDAO();
+    }
+
+    @Benchmark
+    public User findExistingUser() {
+        return userDAO.findByUsername("user" + ThreadLocalRandom.current().nextInt(userCount));
+    }
+
+    @Benchmark
+    public User findMissingUser() {
+        return userDAO.findByUsername("missing" + ThreadLocalRandom.current().nextInt(userCount));
+    }
+
+    @Benchmark
+    public UserDAO.RegisterResult registerNewUser() {
+        return userDAO.register(new User("new" + newUsers.incrementAndGet(), "-"));
+    }
+
+    @Benchmark
+    public UserDAO.RegisterResult registerTakenUser() {
+        return userDAO.register(new User("user" + ThreadLocalRandom.current().nextInt(userCount), "-"));
+    }
+}
@@ -0,0 +1,11 @@
+-- Exclusões (ProductDeletion), gravadas na mesma transação que remove o produto, para que ProductDAO.changedSince
+-- também as encontre. Os IDs de produtos não são reutilizados, então cada produto tem no máximo uma linha.
+-- Registros mais antigos que db.changes.deletionRetentionDays são descartados (ProductDAO.pruneDeletions).
+CREATE TABLE `product_deletion` (
+  `product_id` bigint NOT NULL,
+  `user_id` bigint NOT NULL,
+  `deleted_at` timestamp(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+  PRIMARY KEY (`product_id`),
+  KEY `idx_product_deletion_user_deleted` (`user_id`, `deleted_at`),
+  CONSTRAINT `fk_product_deletion_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`)
+);
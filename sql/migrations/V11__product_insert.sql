@@ -0,0 +1,10 @@
+-- Inclusões enviadas pelas cópias locais do catálogo (ProductInsert), gravadas na mesma transação que o produto.
+-- A chave (ID da cópia e ID local do produto) é única: uma inclusão reenviada depois de perder a resposta encontra
+-- a linha e recebe o produto já incluído, em vez de duplicá-lo (ProductDAO.applyChanges).
+CREATE TABLE `product_insert` (
+  `insert_key` varchar(64) NOT NULL,
+  `user_id` bigint NOT NULL,
+  `product_id` bigint NOT NULL,
+  PRIMARY KEY (`insert_key`),
+  CONSTRAINT `fk_product_insert_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`)
+);
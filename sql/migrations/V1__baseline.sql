@@ -1,7 +1,3 @@
-create database pm_appdb;
-
-use pm_appdb;
-
 CREATE TABLE `user` (
   `id` bigint NOT NULL AUTO_INCREMENT,
   `password` varchar(255) DEFAULT NULL,
@@ -0,0 +1,13 @@
+-- Alocação de IDs em blocos (allocationSize = 50), que permite inserções em lote.
+-- O valor inicial fica um bloco acima do maior ID existente para não colidir com registros antigos.
+CREATE TABLE `id_generator` (
+  `sequence_name` varchar(255) NOT NULL,
+  `next_val` bigint DEFAULT NULL,
+  PRIMARY KEY (`sequence_name`)
+);
+
+INSERT INTO `id_generator` (`sequence_name`, `next_val`)
+SELECT 'user', COALESCE(MAX(`id`), 0) + 50 FROM `user`;
+
+INSERT INTO `id_generator` (`sequence_name`, `next_val`)
+SELECT 'product', COALESCE(MAX(`id`), 0) + 50 FROM `product`;
@@ -0,0 +1,5 @@
+-- Username único e obrigatório (User.username, natural id). Falha se houver usernames nulos ou duplicados:
+-- corrija esses cadastros antes de aplicar.
+ALTER TABLE `user`
+  MODIFY `username` varchar(255) NOT NULL,
+  ADD UNIQUE KEY `uk_user_username` (`username`);
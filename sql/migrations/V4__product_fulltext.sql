@@ -0,0 +1,6 @@
+-- Busca de produtos no banco (ProductDAO.search).
+-- O MySQL não cria índices FULLTEXT com LOCK=NONE: as leituras continuam, mas as escritas em product esperam
+-- a criação do índice. Em catálogos grandes, aplique fora do horário de uso.
+ALTER TABLE `product`
+  ADD FULLTEXT KEY `ft_product_name_description` (`name`, `description`),
+  ALGORITHM=INPLACE, LOCK=SHARED;
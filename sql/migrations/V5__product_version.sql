@@ -0,0 +1,5 @@
+-- migration: online
+-- Controle de concorrência otimista (Product.version).
+ALTER TABLE `product`
+  ADD COLUMN `version` bigint NOT NULL DEFAULT 0,
+  ALGORITHM=INPLACE, LOCK=NONE;
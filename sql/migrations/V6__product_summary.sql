@@ -0,0 +1,11 @@
+-- Resumo do catálogo de cada usuário (ProductSummary), mantido a cada escrita em product.
+-- O resumo de cada usuário já existente é calculado na primeira leitura ou escrita.
+CREATE TABLE `product_summary` (
+  `user_id` bigint NOT NULL,
+  `product_count` bigint NOT NULL,
+  `total_value` double NOT NULL,
+  `min_price` double DEFAULT NULL,
+  `max_price` double DEFAULT NULL,
+  PRIMARY KEY (`user_id`),
+  CONSTRAINT `fk_product_summary_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`)
+);
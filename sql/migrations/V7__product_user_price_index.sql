@@ -0,0 +1,5 @@
+-- migration: online
+-- Permite recalcular o menor e o maior preço do resumo (ProductSummary) sem percorrer o catálogo.
+ALTER TABLE `product`
+  ADD KEY `idx_product_user_price` (`user_id`, `price`),
+  ALGORITHM=INPLACE, LOCK=NONE;
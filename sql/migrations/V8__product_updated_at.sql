@@ -0,0 +1,8 @@
+-- Rastreamento de alterações do catálogo (ProductDAO.changedSince): momento da última inclusão ou alteração,
+-- mantido pelo próprio banco em qualquer escrita (inclusive comandos UPDATE em massa). Os produtos existentes
+-- recebem o momento da migração.
+-- O MySQL não inclui com LOCK=NONE uma coluna com padrão CURRENT_TIMESTAMP: as leituras continuam, mas as escritas
+-- em product esperam a cópia da tabela. Em catálogos grandes, aplique fora do horário de uso.
+ALTER TABLE `product`
+  ADD COLUMN `updated_at` timestamp(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+  LOCK=SHARED;
@@ -0,0 +1,5 @@
+-- migration: online
+-- Limita a consulta de ProductDAO.changedSince às alterações do usuário desde a última leitura.
+ALTER TABLE `product`
+  ADD KEY `idx_product_user_updated` (`user_id`, `updated_at`),
+  ALGORITHM=INPLACE, LOCK=NONE;
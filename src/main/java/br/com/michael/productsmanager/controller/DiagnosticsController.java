@@ -0,0 +1,146 @@
+package br.com.michael.productsmanager.controller;
+
+import br.com.michael.productsmanager.util.CacheStatistics;
+import br.com.michael.productsmanager.util.DaoMetrics;
+import br.com.michael.productsmanager.util.HibernateStatistics;
+import br.com.michael.productsmanager.util.JPAUtil;
+import br.com.michael.productsmanager.util.LatencyHistogram;
+import br.com.michael.productsmanager.util.PoolMetrics;
+import br.com.michael.productsmanager.util.ReadReplicas;
+import br.com.michael.productsmanager.util.SlowQueryLog;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.net.URL;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.function.Function;
+
+/**
+ * Controlador do painel de diagnóstico, aberto com Ctrl+Shift+D na tela principal.
+ * <p>
+ * Mostra a latência de cada método dos DAOs ({@link DaoMetrics}), as estatísticas do Hibernate, do pool de
+ * conexões, do cache de segundo nível e do log de comandos lentos. Os valores são relidos a cada
+ * {@link #REFRESH_INTERVAL} enquanto a janela estiver aberta; ler os contadores não acessa o banco.
+ */
+public class DiagnosticsController implements Initializable {
+
+    private static final Duration REFRESH_INTERVAL = Duration.seconds(2);
+
+    /**
+     * Linha da tabela de operações.
+     *
+     * @param name Nome da operação (ex: {@code ProductDAO.findProduct})
+     * @param stats Contagens e percentis da operação
+     */
+    private record OperationRow(String name, LatencyHistogram.Snapshot stats) {}
+
+    private final Timeline autoRefresh = new Timeline(new KeyFrame(REFRESH_INTERVAL, event -> refresh()));
+    private double xOffset;
+    private double yOffset;
+
+    @FXML private HBox customTitleBar;
+    @FXML private Label operationsTitle;
+    @FXML private TableView<OperationRow> operationsTable;
+    @FXML private TableColumn<OperationRow, String> colOperation;
+    @FXML private TableColumn<OperationRow, Long> colCount;
+    @FXML private TableColumn<OperationRow, Long> colErrors;
+    @FXML private TableColumn<OperationRow, String> colP50;
+    @FXML private TableColumn<OperationRow, String> colP95;
+    @FXML private TableColumn<OperationRow, String> colP99;
+    @FXML private TableColumn<OperationRow, String> colMax;
+    @FXML private TextArea statisticsArea;
+
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        customTitleBar.setOnMousePressed(event -> {
+            xOffset = event.getSceneX();
+            yOffset = event.getSceneY();
+        });
+        customTitleBar.setOnMouseDragged(event -> {
+            Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
+            stage.setX(event.getScreenX() - xOffset);
+            stage.setY(event.getScreenY() - yOffset);
+        });
+
+        colOperation.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().name()));
+        colCount.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().stats().count()));
+        colErrors.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().stats().errors()));
+        millisColumn(colP50, LatencyHistogram.Snapshot::p50);
+        millisColumn(colP95, LatencyHistogram.Snapshot::p95);
+        millisColumn(colP99, LatencyHistogram.Snapshot::p99);
+        millisColumn(colMax, LatencyHistogram.Snapshot::max);
+        operationsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        if (!DaoMetrics.isEnabled()) operationsTitle.setText("Latência dos DAOs: coleta desligada (db.metrics.enabled=false)");
+
+        refresh();
+        autoRefresh.setCycleCount(Animation.INDEFINITE);
+        autoRefresh.play();
+    }
+
+    private static void millisColumn(TableColumn<OperationRow, String> column,
+                                     Function<LatencyHistogram.Snapshot, Double> value) {
+        column.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(
+                String.format(Locale.US, "%.3f", value.apply(data.getValue().stats()))));
+    }
+
+    /**
+     * Relê todos os contadores.
+     */
+    @FXML
+    private void refresh() {
+        List<OperationRow> rows = DaoMetrics.snapshot().entrySet().stream()
+                .map(entry -> new OperationRow(entry.getKey(), entry.getValue()))
+                .toList();
+        operationsTable.setItems(FXCollections.observableArrayList(rows));
+
+        StringBuilder text = new StringBuilder("Hibernate:");
+        HibernateStatistics.snapshot().forEach((name, value) -> text.append("\n  ").append(name).append(": ").append(value));
+
+        PoolMetrics pool = JPAUtil.getPoolMetrics();
+        text.append(String.format(Locale.US,
+                "%n%nPool de conexões:%n  ativas=%d ociosas=%d aguardando=%d obtidas=%d"
+                        + " espera média=%.3f ms espera máx=%.3f ms uso médio=%.3f ms timeouts=%d",
+                pool.getActiveConnections(), pool.getIdleConnections(), pool.getPendingThreads(),
+                pool.getAcquireCount(), pool.getAverageWaitMillis(), pool.getMaxWaitMillis(),
+                pool.getAverageUsageMillis(), pool.getTimeoutCount()));
+
+        text.append("\n\n").append(CacheStatistics.report());
+
+        ReadReplicas replicas = JPAUtil.getReadReplicas();
+        if (replicas != null) text.append("\n\n").append(replicas.report());
+
+        SlowQueryLog slowQueries = JPAUtil.getSlowQueryLog();
+        if (slowQueries != null) {
+            text.append(String.format("%n%nComandos lentos: registrados=%d descartados=%d",
+                    slowQueries.getLoggedCount(), slowQueries.getDroppedCount()));
+        }
+        statisticsArea.setText(text.toString());
+    }
+
+    /**
+     * Para a atualização automática; chamado quando a janela é fechada.
+     */
+    public void stop() {
+        autoRefresh.stop();
+    }
+
+    @FXML
+    private void close() {
+        ((Stage) statisticsArea.getScene().getWindow()).close();
+    }
+}
@@ -1,26 +1,29 @@
 package br.com.michael.productsmanager.controller;
 
-import br.com.michael.productsmanager.dao.UserDAO;
 import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.service.AuthService;
 import br.com.michael.productsmanager.session.Session;
+import br.com.michael.productsmanager.util.StartupTimeline;
 import javafx.application.Platform;
 import javafx.fxml.*;
 import javafx.scene.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.stage.*;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.io.IOException;
 import java.net.URL;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controlador responsável pela tela de login da aplicação ProductsManager.
  * <p>
  * Valida credenciais, autentica usuários com senha criptografada via BCrypt,
  * inicializa a sessão e gerencia transições entre janelas.
+ * <p>
+ * A consulta ao banco e a verificação do BCrypt rodam fora da thread de interface, via {@link AuthService}.
  */
 public class LoginController implements Initializable {
 
@@ -31,7 +34,11 @@ public class LoginController implements Initializable {
     @FXML private PasswordField passwordField;
     @FXML private Label errorLabel;
     @FXML private Button loginButton;
+    @FXML private ProgressIndicator progressIndicator;
+    @FXML private Button cancelButton;
 
+    private final AuthService authService = AuthService.getInstance();
+    private ProgressTracker progress;
     private double xOffset;
     private double yOffset;
 
@@ -69,6 +76,12 @@ public class LoginController implements Initializable {
         });
 
         loginButton.setOnMouseClicked(event -> login());
+
+        progress = new ProgressTracker(progressIndicator, cancelButton);
+        progress.setOnCancelled(() -> {
+            loginButton.setDisable(false);
+            errorLabel.setText("Login cancelado.");
+        });
     }
 
     /**
@@ -85,10 +98,30 @@ public class LoginController implements Initializable {
             return;
         }
 
-        UserDAO userDAO = new UserDAO();
-        User user = userDAO.findByUsername(username);
+        if (progress.isBusy()) return;
+        errorLabel.setText("");
+        loginButton.setDisable(true);
 
-        if (user != null && BCrypt.checkpw(password, user.getPassword())) {
+        progress.track("Login", () -> authService.authenticate(username, password), this::completeLogin, error -> {
+            loginButton.setDisable(false);
+            if (error instanceof RejectedExecutionException) {
+                errorLabel.setText("Sistema ocupado, tente novamente.");
+                return;
+            }
+            errorLabel.setText("Erro ao conectar ao banco de dados.");
+            error.printStackTrace();
+        });
+    }
+
+    /**
+     * Conclui o login na thread de interface, com o resultado da autenticação.
+     *
+     * @param user Usuário autenticado, ou {@code null} se as credenciais forem inválidas
+     */
+    private void completeLogin(User user) {
+        loginButton.setDisable(false);
+
+        if (user != null) {
             Session.loggedUser = user;
 
             try {
@@ -103,6 +136,10 @@ public class LoginController implements Initializable {
                 Stage currentStage = (Stage) usernameField.getScene().getWindow();
                 currentStage.close();
 
+                if (StartupTimeline.mark("Tela principal exibida")) {
+                    System.out.println(StartupTimeline.report());
+                }
+
             } catch (IOException e) {
                 errorLabel.setText("Erro ao carregar a tela principal.");
                 e.printStackTrace();
@@ -1,35 +1,92 @@
 package br.com.michael.productsmanager.controller;
 
+import br.com.michael.productsmanager.dao.AsyncProductDAO;
+import br.com.michael.productsmanager.dao.LocalProductDAO;
 import br.com.michael.productsmanager.dao.ProductDAO;
 import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.ProductSummary;
+import br.com.michael.productsmanager.service.CatalogSync;
+import br.com.michael.productsmanager.service.ProductChangePoller;
+import br.com.michael.productsmanager.service.ProductExporter;
+import br.com.michael.productsmanager.service.ProductImporter;
+import br.com.michael.productsmanager.service.ProductSearchIndex;
+import br.com.michael.productsmanager.service.ProductValidator;
 import br.com.michael.productsmanager.session.Session;
+import br.com.michael.productsmanager.util.JPAUtil;
+import br.com.michael.productsmanager.util.Tracing;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
-import javafx.collections.transformation.SortedList;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.fxml.*;
 import javafx.scene.*;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.HBox;
 import javafx.scene.text.Font;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.util.Duration;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
-import java.text.NumberFormat;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Controlador da tela principal.
  * Gerencia produtos associados ao usuário logado: adicionar, excluir, editar e visualizar.
+ * <p>
+ * Todas as operações de banco são assíncronas ({@link AsyncProductDAO}); a tela exibe o progresso
+ * e permite cancelar a espera, sem nunca bloquear a thread de interface.
+ * <p>
+ * A busca usa um {@link ProductSearchIndex} montado em segundo plano e mantido pelas operações da tela;
+ * catálogos maiores que {@code search.index.maxProducts} são buscados direto no banco
+ * ({@link ProductDAO#search}), sem carregar os produtos na memória do cliente.
+ * <p>
+ * A barra de resumo abaixo da tabela (quantidade, valor total e preços mínimo, médio e máximo) lê o
+ * resumo mantido pelo banco ({@link ProductSummary}) e é atualizada após cada escrita.
+ * <p>
+ * Com {@code local.mirror.enabled}, a tabela, a busca, o resumo e as alterações usam a cópia local do catálogo
+ * ({@link CatalogSync}), sincronizada com o banco em segundo plano: o catálogo abre sem esperar pelo banco e a
+ * tela continua funcionando se ele ficar fora do ar.
+ * <p>
+ * Alterações feitas em outras estações chegam em segundo plano (pela sincronização da cópia local ou, sem ela,
+ * por um {@link ProductChangePoller}) e são aplicadas na tabela apenas nas linhas afetadas
+ * ({@link PagedProductList#applyChanges}).
+ * <p>
+ * {@link #DIAGNOSTICS_SHORTCUT} abre o painel de diagnóstico ({@link DiagnosticsController}), sem botão na tela.
  */
 public class MainViewController implements Initializable {
 
-    private final ObservableList<Product> productList = FXCollections.observableArrayList();
+    /** Espera após a última tecla antes de buscar. */
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(200);
+
+    /** Atalho do painel de diagnóstico. */
+    private static final KeyCombination DIAGNOSTICS_SHORTCUT =
+            new KeyCodeCombination(KeyCode.D, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN);
+
+    private final AsyncProductDAO productDAO = new AsyncProductDAO();
+    private final ProductDAO queryDAO = new ProductDAO();
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+    private final ProductImporter importer = new ProductImporter(queryDAO);
+    private final ProductExporter exporter = new ProductExporter(queryDAO);
+    private PagedProductList productList;
+    private PagedProductList.PageSource catalog;
+    private CatalogSync sync;
+    private ProductChangePoller poller;
+    private CompletableFuture<Boolean> localSearch;
+    private CompletableFuture<List<Long>> pendingSearch;
+    private CompletableFuture<ProductSummary> pendingSummary;
+    private String activeSearch = "";
+    private ProgressTracker progress;
+    private Stage diagnosticsStage;
     private double xOffset;
     private double yOffset;
 
@@ -47,6 +104,11 @@ public class MainViewController implements Initializable {
     @FXML private Button deleteButton;
     @FXML private Button updateButton;
     @FXML private Button logoutButton;
+    @FXML private ProgressIndicator busyIndicator;
+    @FXML private Button cancelButton;
+    @FXML private Label fileStatus;
+    @FXML private Label catalogSummary;
+    @FXML private Label syncStatus;
 
     @FXML private HBox customTitleBar;
 
@@ -56,11 +118,14 @@ public class MainViewController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         handleWindowMovement();
+        setupProgress();
         setupTableColumns();
         initializeTableContent();
         setupSelectionBehavior();
         applySearchFilter();
         applyTableStyling();
+        refreshSummary();
+        registerDiagnosticsShortcut();
     }
 
     private void handleWindowMovement() {
@@ -76,89 +141,288 @@ public class MainViewController implements Initializable {
         });
     }
 
+    private void registerDiagnosticsShortcut() {
+        // A cena só existe depois do carregamento do FXML
+        customTitleBar.sceneProperty().addListener((obs, oldScene, scene) -> {
+            if (scene != null) scene.getAccelerators().put(DIAGNOSTICS_SHORTCUT, this::openDiagnostics);
+        });
+    }
+
     /**
-     * Adiciona um novo produto após validação.
+     * Abre o painel de diagnóstico, ou o traz para frente se já estiver aberto.
      */
-    @FXML
-    public void addProductButton() {
-        String name = prodName.getText();
-        String priceText = prodPrice.getText().trim().replace(",", ".");
-        String description = prodDescription.getText().trim();
-
-        if (name.isBlank() || priceText.isBlank() || description.isBlank()) {
-            showAlert("Campos obrigatórios", "Preencha todos os campos.");
+    private void openDiagnostics() {
+        if (diagnosticsStage != null) {
+            diagnosticsStage.toFront();
             return;
         }
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/DiagnosticsView.fxml"));
+            Parent root = loader.load();
+            DiagnosticsController controller = loader.getController();
+
+            Stage stage = new Stage();
+            stage.setScene(new Scene(root));
+            stage.initStyle(StageStyle.UNDECORATED);
+            stage.initOwner(customTitleBar.getScene().getWindow());
+            stage.initModality(Modality.NONE);
+            stage.setOnHidden(event -> {
+                controller.stop();
+                diagnosticsStage = null;
+            });
+            diagnosticsStage = stage;
+            stage.show();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void setupProgress() {
+        progress = new ProgressTracker(busyIndicator, cancelButton);
+        // Uma escrita cancelada ainda pode ter sido gravada: recarrega o que está visível
+        progress.setOnCancelled(() -> {
+            productList.refresh();
+            refreshSummary();
+        });
 
-        double price;
+        fileStatus.managedProperty().bind(fileStatus.visibleProperty());
+        fileStatus.setVisible(false);
+    }
+
+    /**
+     * Adiciona um novo produto após validação.
+     */
+    @FXML
+    public void addProductButton() {
+        Product product;
         try {
-            price = Double.parseDouble(priceText);
-            if (price <= 0) {
-                showAlert("Preço inválido", "O preço deve ser maior que zero.");
-                return;
-            }
-        } catch (NumberFormatException e) {
-            showAlert("Erro de formato", "Digite um número válido para o preço.");
+            product = ProductValidator.validate(prodName.getText(), prodPrice.getText(), prodDescription.getText());
+        } catch (ProductValidator.InvalidProductException e) {
+            showAlert(e.getTitle(), e.getMessage());
             return;
         }
 
-        Product product = new Product(name, price, description);
         product.setUser(Session.loggedUser);
-        new ProductDAO().addProduct(product);
-        productList.add(product);
+        progress.track("Adicionar produto", () -> sync != null ? sync.addProduct(product) : productDAO.addProduct(product), done -> {
+            if (usesLocalIndex()) searchIndex.add(product);
+            afterWrite(productList::refresh);
+            showAlert("Sucesso", "Produto adicionado com sucesso!");
+            clearFields();
+        }, this::showError);
+    }
 
-        showAlert("Sucesso", "Produto adicionado com sucesso!");
+    /**
+     * Importa produtos de um arquivo CSV ou JSON escolhido pelo usuário, com as mesmas regras do formulário.
+     * O progresso aparece acima da tabela; o botão "Cancelar" interrompe a importação entre dois lotes.
+     */
+    @FXML
+    public void importProducts() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Importar produtos");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV ou JSON", "*.csv", "*.json"));
+        File file = chooser.showOpenDialog(productsTable.getScene().getWindow());
+        if (file == null) return;
+
+        fileStatus.setText("Importando " + file.getName() + "...");
+        fileStatus.setVisible(true);
+        CompletableFuture<ProductImporter.Result> importing = importer.start(file.toPath(), Session.loggedUser,
+                status -> Platform.runLater(() -> fileStatus.setText(describe(status))),
+                batch -> {
+                    if (usesLocalIndex()) batch.forEach(searchIndex::add);
+                    Platform.runLater(this::refreshSummary);
+                });
+
+        progress.track(importing, this::showImportResult, this::showError);
+    }
+
+    /**
+     * Exporta o catálogo do usuário para um arquivo CSV ou JSON, lido e escrito em fluxo.
+     * O arquivo gerado pode ser importado de volta ({@link #importProducts()}).
+     */
+    @FXML
+    public void exportProducts() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Exportar produtos");
+        chooser.setInitialFileName("produtos.csv");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON", "*.json"));
+        File file = chooser.showSaveDialog(productsTable.getScene().getWindow());
+        if (file == null) return;
+
+        fileStatus.setText("Exportando para " + file.getName() + "...");
+        fileStatus.setVisible(true);
+        CompletableFuture<ProductExporter.Result> exporting = exporter.start(file.toPath(), Session.loggedUser,
+                status -> Platform.runLater(() -> fileStatus.setText(String.format(Locale.of("pt", "BR"),
+                        "Exportando: %,d de %,d produtos", status.rows(), status.totalRows()))));
+
+        progress.track(exporting, result -> {
+            fileStatus.setText(switch (result.status()) {
+                case COMPLETED -> String.format(Locale.of("pt", "BR"), "Exportação concluída: %,d produtos (%.1f MB/s)",
+                        result.rows(), result.megabytesPerSecond());
+                case CANCELLED -> "Exportação cancelada";
+                case FAILED -> "Exportação interrompida";
+            });
+            if (result.status() == ProductExporter.Status.FAILED) {
+                showAlert("Erro na exportação", result.failure());
+            }
+        }, this::showError);
+        exporting.whenComplete((result, error) -> {
+            if (exporting.isCancelled()) Platform.runLater(() -> fileStatus.setText("Exportação cancelada"));
+        });
+    }
 
-        clearFields();
+    /**
+     * @param status Progresso da importação
+     * @return Texto exibido acima da tabela
+     */
+    private static String describe(ProductImporter.Progress status) {
+        String state = switch (status.status()) {
+            case RUNNING -> "Importando";
+            case COMPLETED -> "Importação concluída";
+            case CANCELLED -> "Importação cancelada";
+            case FAILED -> "Importação interrompida";
+        };
+        return String.format(Locale.of("pt", "BR"), "%s: %.0f%% do arquivo, %,d produtos importados, %,d rejeitados (%,.0f produtos/s)",
+                state, status.fraction() * 100, status.imported(), status.rejected(), status.rowsPerSecond());
+    }
+
+    /**
+     * Exibe o resumo de uma importação e recarrega a tabela.
+     *
+     * @param result Resultado da importação
+     */
+    private void showImportResult(ProductImporter.Result result) {
+        afterWrite(productList::refresh);
+        // A importação grava direto no banco: a cópia local recebe os produtos na próxima sincronização
+        if (sync != null) sync.requestSync();
+
+        ProductImporter.Progress summary = result.summary();
+        StringBuilder message = new StringBuilder();
+        if (summary.status() == ProductImporter.Status.FAILED) {
+            message.append(result.failure()).append("\n\n");
+        }
+        message.append(String.format(Locale.of("pt", "BR"), "%,d produtos importados e %,d registros rejeitados.",
+                summary.imported(), summary.rejected()));
+
+        int shown = Math.min(result.rejections().size(), 10);
+        for (ProductImporter.Rejection rejection : result.rejections().subList(0, shown)) {
+            message.append("\nLinha ").append(rejection.line()).append(": ").append(rejection.reason());
+        }
+        if (summary.rejected() > shown) {
+            message.append("\n... e mais ").append(summary.rejected() - shown).append(" rejeitados.");
+        }
+
+        showAlert(summary.status() == ProductImporter.Status.FAILED ? "Erro na importação" : "Importação concluída",
+                message.toString());
     }
 
     /**
      * Atualiza os dados de um produto selecionado.
+     * Com vários produtos selecionados, aplica a alteração em massa ({@link #updateSelectedProducts}).
      */
     @FXML
     public void updateProductButton() {
+        if (productsTable.getSelectionModel().getSelectedIndices().size() > 1) {
+            updateSelectedProducts();
+            return;
+        }
+
         Product selected = productsTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             showAlert("Nenhum produto selecionado", "Selecione um produto na tabela para editar.");
             return;
         }
 
-        String newName = prodName.getText().trim();
-        String newPriceText = prodPrice.getText().trim().replace(",", ".");
-        String newDescription = prodDescription.getText().trim();
+        Product edited;
+        try {
+            edited = ProductValidator.validate(prodName.getText(), prodPrice.getText(), prodDescription.getText());
+        } catch (ProductValidator.InvalidProductException e) {
+            showAlert(e.getTitle(), e.getMessage());
+            return;
+        }
+        String newName = edited.getName();
+        double newPrice = edited.getPrice();
+        String newDescription = edited.getDescription();
+
+        progress.track("Atualizar produto",
+                () -> sync != null
+                        ? sync.updateProduct(selected.getId(), selected.getVersion(), newName, newPrice, newDescription)
+                        : productDAO.updateProduct(selected, newName, newPrice, newDescription), updated -> {
+            if (updated == 0) {
+                showConflict();
+                return;
+            }
+            selected.setName(newName);
+            selected.setPrice(newPrice);
+            selected.setDescription(newDescription);
+            selected.setVersion(selected.getVersion() + 1);
+            if (usesLocalIndex()) searchIndex.add(selected);
+            afterWrite(productsTable::refresh);
+
+            showAlert("Sucesso", "Produto atualizado com sucesso!");
+            clearFields();
+        }, this::showError);
+    }
+
+    /**
+     * Aplica o preço e/ou a descrição preenchidos a todos os produtos selecionados, em uma única
+     * transação. Campos em branco mantêm os valores atuais; o nome não é alterado.
+     */
+    private void updateSelectedProducts() {
+        List<Integer> indexes = List.copyOf(productsTable.getSelectionModel().getSelectedIndices());
+        String priceText = prodPrice.getText().trim();
+        String descriptionText = prodDescription.getText().trim();
 
-        if (newName.isBlank() || newPriceText.isBlank() || newDescription.isBlank()) {
-            showAlert("Campos obrigatórios", "Preencha todos os campos para editar.");
+        if (priceText.isBlank() && descriptionText.isBlank()) {
+            showAlert("Campos obrigatórios", "Preencha o preço e/ou a descrição para aplicar aos produtos selecionados.");
             return;
         }
 
-        double newPrice;
+        Double newPrice;
+        String newDescription;
         try {
-            newPrice = Double.parseDouble(newPriceText);
-            if (newPrice <= 0) {
-                showAlert("Preço inválido", "O preço deve ser maior que zero.");
-                return;
-            }
-        } catch (NumberFormatException e) {
-            showAlert("Erro de formato", "Digite um número válido para o preço.");
+            newPrice = priceText.isBlank() ? null : ProductValidator.parsePrice(priceText);
+            newDescription = descriptionText.isBlank() ? null : ProductValidator.checkLength("descrição", descriptionText);
+        } catch (ProductValidator.InvalidProductException e) {
+            showAlert(e.getTitle(), e.getMessage());
+            return;
+        }
+
+        if (!confirm("Confirmar alteração", "Aplicar as alterações aos " + indexes.size() + " produtos selecionados?")) {
             return;
         }
 
-        new ProductDAO().updateProduct(selected.getId(), newName, newPrice, newDescription);
-        selected.setName(newName);
-        selected.setPrice(newPrice);
-        selected.setDescription(newDescription);
-        productsTable.refresh();
+        Double price = newPrice;
+        progress.track("Atualizar produtos em massa", () -> productList.itemsAt(indexes).thenCompose(products ->
+                (sync != null ? sync.updateProducts(ids(products), price, newDescription)
+                        : productDAO.updateProducts(ids(products), price, newDescription))
+                        .thenApply(count -> new BulkResult(products, count))), result -> {
+            for (Product product : result.products()) {
+                if (price != null) product.setPrice(price);
+                if (newDescription != null) product.setDescription(newDescription);
+                product.setVersion(product.getVersion() + 1);
+                if (usesLocalIndex()) searchIndex.add(product);
+            }
+            // Menos linhas que o esperado: algum produto foi excluído em outra sessão
+            afterWrite(result.complete() ? productsTable::refresh : productList::refresh);
 
-        showAlert("Sucesso", "Produto atualizado com sucesso!");
-        clearFields();
+            showAlert("Sucesso", result.affected() + " produtos atualizados com sucesso!");
+            clearFields();
+        }, this::showError);
     }
 
     /**
-     * Exclui o produto selecionado da lista e do banco.
+     * Exclui os produtos selecionados da lista e do banco.
+     * Com vários produtos selecionados, a exclusão é feita em massa, com uma única confirmação.
      */
     @FXML
     public void deleteSelectedProduct() {
+        if (productsTable.getSelectionModel().getSelectedIndices().size() > 1) {
+            deleteSelectedProducts();
+            return;
+        }
+
         Product selected = productsTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
             showAlert("Nenhum produto selecionado", "Selecione um produto para excluir.");
@@ -173,12 +437,80 @@ public class MainViewController implements Initializable {
 
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                new ProductDAO().deleteProduct(selected.getId());
-                productList.remove(selected);
+                progress.track("Excluir produto", () -> sync != null
+                        ? sync.deleteProduct(selected.getId(), selected.getVersion())
+                        : productDAO.deleteProduct(selected), deleted -> {
+                    if (deleted == 0) {
+                        showConflict();
+                        return;
+                    }
+                    if (usesLocalIndex()) searchIndex.remove(selected.getId());
+                    afterWrite(() -> productList.remove(selected));
+                }, this::showError);
             }
         });
     }
 
+    /**
+     * Exclui todos os produtos selecionados em uma única transação e os remove da tabela
+     * com uma única notificação.
+     */
+    private void deleteSelectedProducts() {
+        List<Integer> indexes = List.copyOf(productsTable.getSelectionModel().getSelectedIndices());
+        if (!confirm("Confirmar exclusão", "Deseja realmente excluir os " + indexes.size() + " produtos selecionados?")) {
+            return;
+        }
+
+        progress.track("Excluir produtos em massa", () -> productList.itemsAt(indexes).thenCompose(products ->
+                (sync != null ? sync.deleteProducts(ids(products)) : productDAO.deleteProducts(ids(products)))
+                        .thenApply(count -> new BulkResult(products, count))), result -> {
+            if (usesLocalIndex()) {
+                result.products().forEach(product -> searchIndex.remove(product.getId()));
+            }
+            productsTable.getSelectionModel().clearSelection();
+            afterWrite(result.complete() ? () -> productList.removeAt(indexes) : productList::refresh);
+
+            showAlert("Sucesso", result.affected() + " produtos excluídos com sucesso!");
+            clearFields();
+        }, this::showError);
+    }
+
+    /**
+     * Resultado de uma operação em massa.
+     *
+     * @param products Produtos selecionados
+     * @param affected Linhas alteradas no banco
+     */
+    private record BulkResult(List<Product> products, int affected) {
+
+        /**
+         * @return {@code true} se todos os produtos selecionados foram afetados
+         */
+        boolean complete() {
+            return affected == products.size();
+        }
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    /**
+     * Exibe uma confirmação estilizada.
+     *
+     * @param title Título da janela
+     * @param message Pergunta exibida
+     * @return {@code true} se o usuário confirmou
+     */
+    private boolean confirm(String title, String message) {
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle(title);
+        confirm.setHeaderText(null);
+        confirm.setContentText(message);
+        confirm.getDialogPane().getStylesheets().add(getClass().getResource("/style/style.css").toExternalForm());
+        return confirm.showAndWait().filter(response -> response == ButtonType.OK).isPresent();
+    }
+
     /**
      * Aplica estilização visual à tabela, como fonte personalizada.
      */
@@ -195,79 +527,155 @@ public class MainViewController implements Initializable {
 
     /**
      * Aplica filtro dinâmico à tabela com base no campo de busca.
+     * <p>
+     * A busca espera uma pausa na digitação, cancela a busca anterior e roda no índice fora da
+     * thread de interface (ou no banco, em catálogos grandes). O resultado vira a nova origem da
+     * lista paginada, em uma única notificação à tabela. Sem filtro, a tabela volta a ler o catálogo completo.
      */
     private void applySearchFilter() {
-        FilteredList<Product> filteredList = new FilteredList<>(productList, p -> true);
-
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            String filter = newVal.trim().toLowerCase();
-            filteredList.setPredicate(product ->
-                    product.getName().toLowerCase().contains(filter) ||
-                            product.getDescription().toLowerCase().contains(filter)
-            );
-        });
+        PauseTransition debounce = new PauseTransition(SEARCH_DEBOUNCE);
+        debounce.setOnFinished(event -> runSearch(searchField.getText().trim()));
 
-        SortedList<Product> sortedList = new SortedList<>(filteredList);
-        sortedList.comparatorProperty().bind(productsTable.comparatorProperty());
-        productsTable.setItems(sortedList);
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> Tracing.action("Busca (tecla)", () -> {
+            if (pendingSearch != null) pendingSearch.cancel(false);
+            debounce.playFromStart();
+        }));
     }
 
     /**
-     * Configura a tabela com colunas e renderização personalizada com tooltips.
+     * Busca o termo no índice e exibe o resultado; um termo vazio restaura o catálogo.
+     *
+     * @param term Termo digitado
      */
-    private void setupTableColumns() {
-        colName.setCellValueFactory(new PropertyValueFactory<>("name"));
-        colDescription.setCellValueFactory(new PropertyValueFactory<>("description"));
-        colPrice.setCellValueFactory(new PropertyValueFactory<>("price"));
-
-        colName.setCellFactory(tc -> createTooltipCell());
-        colDescription.setCellFactory(tc -> createTooltipCell());
-        colPrice.setCellFactory(tc -> new TableCell<>() {
-            @Override
-            protected void updateItem(Double price, boolean empty) {
-                super.updateItem(price, empty);
-                if (empty || price == null) {
-                    setGraphic(null);
-                } else {
-                    String formatted = NumberFormat.getCurrencyInstance(new Locale("pt", "BR")).format(price);
-                    Label label = new Label(formatted);
-                    label.setStyle("-fx-padding: 5px;");
-                    Tooltip tooltip = new Tooltip(formatted);
-                    tooltip.setWrapText(true);
-                    tooltip.setMaxWidth(300);
-                    tooltip.setStyle("-fx-font-size: 13px; -fx-background-color: white; -fx-text-fill: black; -fx-padding: 10px; -fx-border-color: #ccc;");
-                    Tooltip.install(label, tooltip);
-                    setGraphic(label);
+    private void runSearch(String term) {
+        if (pendingSearch != null) pendingSearch.cancel(false);
+        activeSearch = term;
+
+        if (term.isEmpty()) {
+            pendingSearch = null;
+            if (productList.getSource() != catalog) productList.setSource(catalog);
+            return;
+        }
+
+        if (!usesLocalIndex()) {
+            pendingSearch = null;
+            Tracing.action("Busca", () ->
+                    productList.setSource(PagedProductList.databaseSearch(queryDAO, Session.loggedUser, term)));
+            return;
+        }
+
+        Tracing.Action action = Tracing.startAction("Busca");
+        CompletableFuture<List<Long>> search = action.call(() -> searchIndex.searchAsync(term));
+        pendingSearch = search;
+        search.whenCompleteAsync((ids, error) -> {
+            try {
+                if (search != pendingSearch || search.isCancelled()) return;
+                pendingSearch = null;
+                if (error != null) {
+                    error.printStackTrace();
+                    return;
                 }
+                // O índice pode ter sido descartado (catálogo grande) enquanto a busca aguardava a carga
+                action.run(() -> productList.setSource(usesLocalIndex()
+                        ? PagedProductList.byIds(productFinder(), ids)
+                        : PagedProductList.databaseSearch(queryDAO, Session.loggedUser, term)));
+            } finally {
+                action.end(error != null);
             }
-        });
+        }, Platform::runLater);
+    }
 
-        colName.setPrefWidth(200);
-        colDescription.setPrefWidth(425);
-        colPrice.setPrefWidth(120);
+    /**
+     * @return {@code true} se a busca usa o índice em memória (ou se o tamanho do catálogo ainda não é conhecido)
+     */
+    private boolean usesLocalIndex() {
+        return !Boolean.FALSE.equals(localSearch.getNow(null));
     }
 
-    private TableCell<Product, String> createTooltipCell() {
-        return new TableCell<>() {
-            @Override
-            protected void updateItem(String item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || item == null) {
-                    setGraphic(null);
-                } else {
-                    Label label = new Label(item);
-                    label.setWrapText(true);
-                    label.setMaxWidth(Double.MAX_VALUE);
-                    label.setStyle("-fx-padding: 5px;");
-                    Tooltip tooltip = new Tooltip(item);
-                    tooltip.setWrapText(true);
-                    tooltip.setMaxWidth(300);
-                    tooltip.setStyle("-fx-font-size: 13px; -fx-background-color: white; -fx-text-fill: black; -fx-padding: 10px; -fx-border-color: #ccc;");
-                    Tooltip.install(label, tooltip);
-                    setGraphic(label);
-                }
+    /**
+     * Reflete uma escrita concluída na tabela: com uma busca ativa, refaz a busca no índice já
+     * atualizado (o produto pode ter deixado de corresponder); sem busca, aplica a alteração no catálogo.
+     *
+     * @param catalogUpdate Atualização da lista quando não há busca ativa
+     */
+    private void afterWrite(Runnable catalogUpdate) {
+        if (activeSearch.isEmpty()) {
+            catalogUpdate.run();
+        } else {
+            runSearch(activeSearch);
+        }
+        refreshSummary();
+    }
+
+    /**
+     * Recarrega a barra de resumo do catálogo; uma leitura mais recente descarta a anterior.
+     */
+    private void refreshSummary() {
+        if (pendingSummary != null) pendingSummary.cancel(false);
+        CompletableFuture<ProductSummary> summary = sync == null ? productDAO.findSummary(Session.loggedUser)
+                : sync.summary().thenCompose(local -> local != null
+                        ? CompletableFuture.completedFuture(local) : productDAO.findSummary(Session.loggedUser));
+        pendingSummary = summary;
+        summary.whenCompleteAsync((result, error) -> {
+            if (summary != pendingSummary || summary.isCancelled()) return;
+            pendingSummary = null;
+            if (error != null) {
+                error.printStackTrace();
+                catalogSummary.setText("Resumo indisponível");
+                return;
             }
-        };
+            catalogSummary.setText(describe(result));
+        }, Platform::runLater);
+    }
+
+    /**
+     * @param summary Resumo do catálogo
+     * @return Texto exibido na barra de resumo
+     */
+    private static String describe(ProductSummary summary) {
+        Locale locale = Locale.of("pt", "BR");
+        if (summary.getProductCount() == 0) return "Nenhum produto cadastrado";
+        return String.format(locale, "%,d produtos  |  Valor total: R$ %,.2f  |  Mínimo: R$ %,.2f  |  Médio: R$ %,.2f  |  Máximo: R$ %,.2f",
+                summary.getProductCount(), summary.getTotalValue(),
+                summary.getMinPrice(), summary.getAveragePrice(), summary.getMaxPrice());
+    }
+
+    /**
+     * Recalcula o resumo do catálogo a partir dos produtos e informa se o valor mantido estava correto.
+     */
+    @FXML
+    public void verifySummary() {
+        progress.track("Verificar resumo", () -> productDAO.verifySummary(Session.loggedUser), verification -> {
+            catalogSummary.setText(describe(verification.rebuilt()));
+            if (verification.consistent()) {
+                showAlert("Resumo verificado", "O resumo do catálogo está correto.");
+            } else {
+                showAlert("Resumo corrigido", "O resumo do catálogo estava desatualizado e foi recalculado.\n\n"
+                        + "Antes: " + (verification.stored() == null ? "não calculado" : describe(verification.stored()))
+                        + "\nAgora: " + describe(verification.rebuilt()));
+            }
+        }, this::showError);
+    }
+
+    /**
+     * Configura a tabela com colunas e renderização personalizada com tooltips.
+     * As células reaproveitam seus nós durante a rolagem ({@link TooltipTableCell}).
+     */
+    private void setupTableColumns() {
+        colName.setCellValueFactory(data -> data.getValue() == null ? null
+                : new ReadOnlyObjectWrapper<>(data.getValue().getName()));
+        colDescription.setCellValueFactory(data -> data.getValue() == null ? null
+                : new ReadOnlyObjectWrapper<>(data.getValue().getDescription()));
+        colPrice.setCellValueFactory(data -> data.getValue() == null ? null
+                : new ReadOnlyObjectWrapper<>(data.getValue().getPrice()));
+
+        colName.setCellFactory(tc -> TooltipTableCell.text());
+        colDescription.setCellFactory(tc -> TooltipTableCell.text());
+        colPrice.setCellFactory(tc -> TooltipTableCell.currency());
+
+        colName.setPrefWidth(200);
+        colDescription.setPrefWidth(425);
+        colPrice.setPrefWidth(120);
     }
 
     /**
@@ -296,6 +704,26 @@ public class MainViewController implements Initializable {
         alert.showAndWait();
     }
 
+    /**
+     * Informa que o produto foi alterado ou excluído em outra sessão desde que foi carregado,
+     * e recarrega a lista para exibir os dados atuais.
+     */
+    private void showConflict() {
+        afterWrite(productList::refresh);
+        showAlert("Conflito de edição",
+                "O produto foi alterado ou excluído em outra sessão. A lista foi recarregada; confira os dados e tente novamente.");
+    }
+
+    /**
+     * Exibe a falha de uma operação assíncrona.
+     *
+     * @param error Causa da falha
+     */
+    private void showError(Throwable error) {
+        error.printStackTrace();
+        showAlert("Erro", "Não foi possível concluir a operação. Tente novamente.");
+    }
+
     /**
      * Desloga o usuário atual e retorna para a tela de login.
      */
@@ -309,6 +737,13 @@ public class MainViewController implements Initializable {
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             try {
+                progress.cancelAll();
+                if (pendingSearch != null) pendingSearch.cancel(false);
+                if (pendingSummary != null) pendingSummary.cancel(false);
+                if (sync != null) sync.close();
+                sync = null;
+                if (poller != null) poller.close();
+                poller = null;
                 Session.loggedUser = null;
 
                 FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LoginView.fxml"));
@@ -329,12 +764,115 @@ public class MainViewController implements Initializable {
     }
 
     private void initializeTableContent() {
-        productList.addAll(new ProductDAO().listByUser(Session.loggedUser));
+        PagedProductList.PageSource remoteCatalog = PagedProductList.userCatalog(queryDAO, Session.loggedUser);
+        int maxIndexed = JPAUtil.getIntProperty("search.index.maxProducts", 100_000);
+        syncStatus.managedProperty().bind(syncStatus.visibleProperty());
+        syncStatus.setVisible(false);
+
+        if (CatalogSync.isEnabled()) {
+            sync = CatalogSync.start(Session.loggedUser, queryDAO, status -> Platform.runLater(() -> showSyncStatus(status)));
+            catalog = PagedProductList.mirroredCatalog(sync, remoteCatalog);
+            // Na primeira sincronização nesta máquina a cópia ainda está vazia: o índice vem do banco
+            localSearch = sync.store().thenCompose(local -> local.isPopulated()
+                    ? searchIndex.indexCatalogAsync(local, maxIndexed)
+                    : searchIndex.indexCatalogAsync(queryDAO, Session.loggedUser, maxIndexed));
+            sync.store().whenCompleteAsync((local, error) -> {
+                if (error != null) disableMirror(remoteCatalog, error);
+            }, Platform::runLater);
+        } else {
+            catalog = remoteCatalog;
+            localSearch = searchIndex.indexCatalogAsync(queryDAO, Session.loggedUser, maxIndexed);
+            startChangePoller();
+        }
+        localSearch = localSearch.exceptionally(error -> {
+            error.printStackTrace();
+            return false;
+        });
+
+        productList = new PagedProductList(catalog);
         productsTable.setItems(productList);
         productsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
     }
 
+    /**
+     * Aplica na tela o resultado de um ciclo de sincronização da cópia local.
+     *
+     * @param status Resultado do ciclo
+     */
+    private void showSyncStatus(CatalogSync.Status status) {
+        if (sync == null) return; // sessão encerrada
+
+        LocalProductDAO.Changes changes = status.changes();
+        if (!changes.isEmpty()) {
+            applyCatalogChanges(changes.upserted(), changes.removed(), status.count());
+        }
+
+        syncStatus.setVisible(true);
+        if (status.state() == CatalogSync.State.OFFLINE) {
+            syncStatus.setText(status.pending() > 0 ? "Offline: " + status.pending() + " alterações a enviar" : "Offline");
+        } else {
+            syncStatus.setText(status.pending() > 0 ? status.pending() + " alterações a enviar" : "Sincronizado");
+        }
+
+        if (changes.conflicts() > 0) {
+            showAlert("Conflito de sincronização", changes.conflicts() + " alterações locais foram descartadas porque os "
+                    + "produtos foram alterados ou excluídos em outra sessão. A lista mostra os dados atuais.");
+        }
+    }
+
+    /**
+     * Acompanha as alterações feitas em outras estações quando a tabela lê direto do banco (sem a cópia local).
+     */
+    private void startChangePoller() {
+        poller = ProductChangePoller.start(Session.loggedUser, queryDAO, delta -> Platform.runLater(() -> {
+            if (poller != null) applyCatalogChanges(delta.changed(), delta.deleted(), delta.count());
+        }));
+    }
+
+    /**
+     * Aplica na tela produtos incluídos, alterados ou excluídos fora dela, sem recarregar o catálogo.
+     *
+     * @param changed Produtos incluídos ou alterados
+     * @param deleted IDs dos produtos excluídos
+     * @param count Quantidade de produtos do catálogo após as alterações
+     */
+    private void applyCatalogChanges(List<Product> changed, List<Long> deleted, int count) {
+        if (usesLocalIndex()) {
+            deleted.forEach(searchIndex::remove);
+            changed.forEach(searchIndex::add);
+        }
+        afterWrite(() -> productList.applyChanges(changed, deleted, count));
+    }
+
+    /**
+     * Volta a usar apenas o banco quando a cópia local não pode ser aberta (ex: aberta por outra instância).
+     */
+    private void disableMirror(PagedProductList.PageSource remoteCatalog, Throwable error) {
+        if (sync == null) return;
+        error.printStackTrace();
+        sync.close();
+        sync = null;
+        catalog = remoteCatalog;
+        if (activeSearch.isEmpty()) productList.setSource(catalog);
+        startChangePoller();
+        refreshSummary();
+        syncStatus.setVisible(true);
+        syncStatus.setText("Cópia local indisponível");
+    }
+
+    /**
+     * @return Busca de produtos por IDs na cópia local, se ela estiver completa, ou no banco
+     */
+    private Function<List<Long>, List<Product>> productFinder() {
+        if (sync != null && sync.isPopulated()) {
+            LocalProductDAO local = sync.store().join();
+            return local::findByIds;
+        }
+        return queryDAO::findByIds;
+    }
+
     private void setupSelectionBehavior() {
+        productsTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         productsTable.setOnMouseClicked(event -> {
             Product selected = productsTable.getSelectionModel().getSelectedItem();
             if (selected != null) {
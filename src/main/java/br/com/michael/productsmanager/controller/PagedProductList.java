@@ -0,0 +1,567 @@
+package br.com.michael.productsmanager.controller;
+
+import br.com.michael.productsmanager.dao.LocalProductDAO;
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.service.CatalogSync;
+import br.com.michael.productsmanager.util.DbExecutor;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Lista observável que carrega os produtos sob demanda, em páginas, conforme a tabela os solicita.
+ * <p>
+ * Apenas o tamanho total é consultado no início. Cada página é buscada por chave (último ID da
+ * página anterior) quando uma linha dela é exibida, e somente as páginas usadas mais recentemente
+ * ficam em memória. Assim, o tempo de abertura e o consumo de memória independem do tamanho do catálogo.
+ * <p>
+ * As consultas rodam fora da thread de interface ({@link DbExecutor}): enquanto uma página não chega,
+ * suas posições retornam {@code null} e, quando ela chega, a lista notifica a substituição dessas posições.
+ * <p>
+ * Deve ser usada apenas na JavaFX Application Thread.
+ */
+public class PagedProductList extends ObservableListBase<Product> {
+
+    /** Quantidade padrão de produtos por página. */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /** Quantidade padrão de páginas mantidas em memória. */
+    public static final int DEFAULT_CACHED_PAGES = 10;
+
+    /** Máximo de páginas sendo buscadas ao mesmo tempo, para não esgotar o pool de conexões. */
+    private static final int MAX_CONCURRENT_LOADS = 2;
+
+    /** Resultados de {@link #locate}: o ID está na posição, ou estaria nela, ou estaria a partir dela. */
+    private static final int FOUND = 0, ABSENT = 1, UNKNOWN = 2;
+
+    /**
+     * Origem das páginas de produtos.
+     */
+    public interface PageSource {
+
+        /**
+         * @return Quantidade total de produtos disponíveis
+         */
+        int count();
+
+        /**
+         * Busca uma página de produtos.
+         *
+         * @param offset Posição do primeiro produto da página
+         * @param afterId Último ID da página anterior, quando conhecido; {@code null} caso contrário
+         * @param limit Quantidade máxima de produtos
+         * @return Produtos da página, em ordem
+         */
+        List<Product> fetch(int offset, Long afterId, int limit);
+    }
+
+    private PageSource source;
+    private final int pageSize;
+    private final Map<Integer, List<Product>> pages;
+    private final Map<Integer, Long> lastIds = new HashMap<>();
+    private final Set<Integer> loading = new HashSet<>();
+    private final Semaphore loadPermits = new Semaphore(MAX_CONCURRENT_LOADS);
+    private int generation;
+    private int size;
+
+    /**
+     * Cria a lista com o tamanho de página e a quantidade de páginas em memória padrão.
+     *
+     * @param source Origem das páginas
+     */
+    public PagedProductList(PageSource source) {
+        this(source, DEFAULT_PAGE_SIZE, DEFAULT_CACHED_PAGES);
+    }
+
+    /**
+     * @param source Origem das páginas
+     * @param pageSize Quantidade de produtos por página
+     * @param maxCachedPages Quantidade máxima de páginas mantidas em memória
+     */
+    public PagedProductList(PageSource source, int pageSize, int maxCachedPages) {
+        this.source = source;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(maxCachedPages + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Product>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+        refresh();
+    }
+
+    /**
+     * Cria uma origem de páginas com o catálogo de um usuário, ordenado por ID.
+     *
+     * @param dao DAO usado nas consultas
+     * @param user Usuário proprietário dos produtos
+     * @return Origem de páginas baseada em {@link ProductDAO#listPageByUser(User, Long, int)}
+     */
+    public static PageSource userCatalog(ProductDAO dao, User user) {
+        return new PageSource() {
+            @Override
+            public int count() {
+                return dao.countByUser(user);
+            }
+
+            @Override
+            public List<Product> fetch(int offset, Long afterId, int limit) {
+                if (afterId == null && offset > 0) {
+                    afterId = dao.findIdAtOffset(user, offset - 1);
+                    if (afterId == null) return List.of();
+                }
+                return dao.listPageByUser(user, afterId, limit);
+            }
+        };
+    }
+
+    /**
+     * Cria uma origem de páginas com a cópia local do catálogo ({@link CatalogSync}). Enquanto a cópia não
+     * tiver o catálogo completo (primeira sincronização do usuário nesta máquina), as páginas vêm da origem remota.
+     *
+     * @param sync Sincronização da cópia local
+     * @param remote Origem usada até a cópia estar completa
+     * @return Origem de páginas baseada em {@link LocalProductDAO#listPage(Long, int)}
+     */
+    public static PageSource mirroredCatalog(CatalogSync sync, PageSource remote) {
+        return new PageSource() {
+            @Override
+            public int count() {
+                LocalProductDAO local = sync.store().join();
+                return sync.isPopulated() ? local.count() : remote.count();
+            }
+
+            @Override
+            public List<Product> fetch(int offset, Long afterId, int limit) {
+                LocalProductDAO local = sync.store().join();
+                if (!sync.isPopulated()) return remote.fetch(offset, afterId, limit);
+                if (afterId == null && offset > 0) {
+                    afterId = local.findIdAtOffset(offset - 1);
+                    if (afterId == null) return List.of();
+                }
+                return local.listPage(afterId, limit);
+            }
+        };
+    }
+
+    /**
+     * Cria uma origem de páginas com uma lista fixa de IDs (ex: resultado de uma busca), na ordem da lista.
+     *
+     * @param finder Busca os produtos de uma faixa de IDs, na ordem informada (ex: {@link ProductDAO#findByIds(List)})
+     * @param ids IDs dos produtos
+     * @return Origem de páginas baseada em {@code finder}
+     */
+    public static PageSource byIds(Function<List<Long>, List<Product>> finder, List<Long> ids) {
+        List<Long> snapshot = List.copyOf(ids);
+        return new PageSource() {
+            @Override
+            public int count() {
+                return snapshot.size();
+            }
+
+            @Override
+            public List<Product> fetch(int offset, Long afterId, int limit) {
+                if (offset >= snapshot.size()) return List.of();
+                return finder.apply(snapshot.subList(offset, Math.min(offset + limit, snapshot.size())));
+            }
+        };
+    }
+
+    /**
+     * Cria uma origem de páginas com o resultado de uma busca no banco, em ordem de relevância.
+     * <p>
+     * Cada página parte do cursor (relevância, ID) do fim da página anterior; para uma página
+     * distante, o cursor inicial é localizado com {@link ProductDAO#findSearchCursorAt(User, String, int)}.
+     *
+     * @param dao DAO usado nas consultas
+     * @param user Usuário proprietário dos produtos
+     * @param term Termo buscado
+     * @return Origem de páginas baseada em {@link ProductDAO#search(User, String, ProductDAO.SearchCursor, int)}
+     */
+    public static PageSource databaseSearch(ProductDAO dao, User user, String term) {
+        Map<Integer, ProductDAO.SearchCursor> cursors = new ConcurrentHashMap<>();
+        return new PageSource() {
+            @Override
+            public int count() {
+                return dao.countSearch(user, term);
+            }
+
+            @Override
+            public List<Product> fetch(int offset, Long afterId, int limit) {
+                ProductDAO.SearchCursor after = offset == 0 ? null : cursors.get(offset);
+                if (after == null && offset > 0) {
+                    after = dao.findSearchCursorAt(user, term, offset - 1);
+                    if (after == null) return List.of();
+                }
+
+                List<ProductDAO.SearchHit> hits = dao.search(user, term, after, limit);
+                if (!hits.isEmpty()) {
+                    cursors.put(offset + hits.size(), hits.get(hits.size() - 1).cursor());
+                }
+                return hits.stream().map(ProductDAO.SearchHit::product).toList();
+            }
+        };
+    }
+
+    /**
+     * Troca a origem das páginas (ex: ao aplicar ou limpar uma busca) e recarrega a lista.
+     * A tabela recebe uma única notificação com o novo conteúdo.
+     *
+     * @param source Nova origem das páginas
+     * @return Future concluído (na thread de interface) quando o novo tamanho for aplicado
+     */
+    public CompletableFuture<Void> setSource(PageSource source) {
+        this.source = source;
+        return refresh();
+    }
+
+    /**
+     * @return Origem atual das páginas
+     */
+    public PageSource getSource() {
+        return source;
+    }
+
+    @Override
+    public Product get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / pageSize;
+        List<Product> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int position = index % pageSize;
+        return position < rows.size() ? rows.get(position) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Procura o produto apenas nas páginas em memória, comparando pelo ID.
+     * Evita que {@code indexOf}/{@code remove(Object)} percorram o catálogo inteiro.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Product product) || product.getId() == null) return -1;
+        for (Map.Entry<Integer, List<Product>> entry : pages.entrySet()) {
+            List<Product> rows = entry.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (product.getId().equals(rows.get(i).getId())) {
+                    return entry.getKey() * pageSize + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) return false;
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Remove o produto da posição informada (já excluído do banco) e descarta as páginas
+     * a partir dela, que serão recarregadas com as posições deslocadas.
+     */
+    @Override
+    public Product remove(int index) {
+        Objects.checkIndex(index, size);
+        Product removed = cachedAt(index);
+        removeAt(List.of(index));
+        return removed;
+    }
+
+    /**
+     * Remove os produtos das posições informadas (já excluídos do banco) com uma única notificação
+     * à tabela, e descarta as páginas a partir da primeira posição removida.
+     *
+     * @param indexes Posições a remover
+     */
+    public void removeAt(Collection<Integer> indexes) {
+        List<Integer> descending = indexes.stream().distinct().sorted(Comparator.reverseOrder()).toList();
+        if (descending.isEmpty()) return;
+        descending.forEach(index -> Objects.checkIndex(index, size));
+
+        List<Product> removed = descending.stream().map(this::cachedAt).toList();
+        int firstPage = descending.get(descending.size() - 1) / pageSize;
+        pages.keySet().removeIf(p -> p >= firstPage);
+        lastIds.keySet().removeIf(p -> p >= firstPage);
+        invalidateLoads();
+        size -= descending.size();
+
+        // Em ordem decrescente, cada remoção não desloca as posições das seguintes
+        beginChange();
+        for (int i = 0; i < descending.size(); i++) {
+            nextRemove(descending.get(i), removed.get(i));
+        }
+        endChange();
+    }
+
+    /**
+     * Aplica produtos incluídos, alterados e excluídos fora desta tela (ex: em outra estação) com uma única
+     * notificação à tabela, sem recarregar o catálogo. A origem deve estar em ordem de ID (catálogo, não busca).
+     * <p>
+     * Produtos alterados que estão em páginas em memória são substituídos na própria posição. Inclusões e
+     * exclusões deslocam as posições seguintes: as páginas a partir da primeira posição afetada são descartadas
+     * e buscadas de novo quando exibidas. Nas faixas de páginas em memória a posição de cada ID é conhecida;
+     * fora delas, um produto pode ser tanto uma inclusão quanto a alteração de uma linha não carregada, e o
+     * novo tamanho decide: se ele não fecha com as inclusões e exclusões localizadas, as páginas são descartadas
+     * a partir da faixa onde esses produtos estariam. O custo depende das alterações e das páginas em memória,
+     * não do tamanho do catálogo.
+     *
+     * @param changed Produtos incluídos ou alterados
+     * @param deleted IDs dos produtos excluídos (IDs que não estão na lista são ignorados)
+     * @param newSize Quantidade de produtos na origem após as alterações
+     */
+    public void applyChanges(Collection<Product> changed, Collection<Long> deleted, int newSize) {
+        List<List<Product>> runs = new ArrayList<>();
+        List<Integer> runStarts = new ArrayList<>();
+        new TreeMap<>(pages).forEach((page, rows) -> {
+            if (rows.isEmpty()) return;
+            int last = runs.size() - 1;
+            if (last >= 0 && runStarts.get(last) + runs.get(last).size() == page * pageSize) {
+                runs.get(last).addAll(rows);
+            } else {
+                runs.add(new ArrayList<>(rows));
+                runStarts.add(page * pageSize);
+            }
+        });
+
+        Map<Integer, Product> replaced = new TreeMap<>();
+        int firstShift = Integer.MAX_VALUE;
+        int uncertainFrom = Integer.MAX_VALUE;
+        int located = 0;
+        boolean uncertainDeletes = false;
+
+        for (Product product : changed) {
+            int[] position = locate(runs, runStarts, product.getId());
+            if (position[1] == FOUND) {
+                Product current = cachedAt(position[0]);
+                if (current != null && !Objects.equals(current.getVersion(), product.getVersion())) {
+                    replaced.put(position[0], product);
+                }
+            } else if (position[1] == ABSENT) {
+                located++;
+                firstShift = Math.min(firstShift, position[0]);
+            } else {
+                uncertainFrom = Math.min(uncertainFrom, position[0]);
+            }
+        }
+        for (Long id : deleted) {
+            int[] position = locate(runs, runStarts, id);
+            if (position[1] == FOUND) {
+                located--;
+                firstShift = Math.min(firstShift, position[0]);
+            } else if (position[1] == UNKNOWN) {
+                uncertainDeletes = true;
+                uncertainFrom = Math.min(uncertainFrom, position[0]);
+            }
+        }
+        // Sem inclusões ou exclusões fora das páginas em memória, os produtos não localizados são alterações
+        if (size + located != newSize || uncertainDeletes) {
+            firstShift = Math.min(firstShift, uncertainFrom == Integer.MAX_VALUE ? 0 : uncertainFrom);
+        }
+        if (replaced.isEmpty() && firstShift == Integer.MAX_VALUE) return;
+
+        int from = Math.min(firstShift, size) / pageSize * pageSize;
+        beginChange();
+        replaced.forEach((index, product) -> {
+            if (index >= from) return;
+            List<Product> rows = new ArrayList<>(pages.get(index / pageSize));
+            Product old = rows.set(index % pageSize, product);
+            pages.put(index / pageSize, rows);
+            nextSet(index, old);
+        });
+        if (firstShift != Integer.MAX_VALUE) {
+            int firstPage = from / pageSize;
+            pages.keySet().removeIf(p -> p >= firstPage);
+            lastIds.keySet().removeIf(p -> p >= firstPage);
+            invalidateLoads();
+            int oldSize = size;
+            size = newSize;
+            if (oldSize > from) nextRemove(from, Collections.nCopies(oldSize - from, null));
+            if (size > from) nextAdd(from, size);
+        }
+        endChange();
+    }
+
+    /**
+     * Localiza um ID nas faixas contíguas de páginas em memória.
+     *
+     * @return {@code [posição, FOUND]} se o ID está na lista; {@code [posição, ABSENT]} se ele não está, com a
+     *         posição que ocuparia; {@code [posição, UNKNOWN]} se ele cai fora das faixas, com a primeira posição
+     *         que poderia ocupar
+     */
+    private int[] locate(List<List<Product>> runs, List<Integer> runStarts, Long id) {
+        int after = 0;
+        for (int r = 0; r < runs.size(); r++) {
+            List<Product> rows = runs.get(r);
+            int start = runStarts.get(r);
+            // A primeira faixa conhece os IDs anteriores a ela se começa no início; a última, os posteriores se vai até o fim
+            boolean knowsBefore = start == 0 || id >= rows.get(0).getId();
+            boolean knowsAfter = start + rows.size() >= size || id <= rows.get(rows.size() - 1).getId();
+            if (knowsBefore && knowsAfter) {
+                int low = 0, high = rows.size();
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (rows.get(mid).getId() < id) low = mid + 1; else high = mid;
+                }
+                boolean found = low < rows.size() && rows.get(low).getId().equals(id);
+                return new int[] {start + low, found ? FOUND : ABSENT};
+            }
+            if (id > rows.get(rows.size() - 1).getId()) after = start + rows.size();
+        }
+        return new int[] {after, UNKNOWN};
+    }
+
+    /**
+     * Obtém os produtos das posições informadas, inclusive das que não estão em memória
+     * (buscadas na origem em faixas contíguas, fora da thread de interface).
+     * Usado em operações sobre seleções grandes, que passam de muitas páginas.
+     *
+     * @param indexes Posições desejadas
+     * @return Future com os produtos, em ordem de posição
+     */
+    public CompletableFuture<List<Product>> itemsAt(Collection<Integer> indexes) {
+        List<Integer> sorted = indexes.stream().distinct().sorted().toList();
+        Map<Integer, Product> found = new HashMap<>();
+        List<int[]> missingRuns = new ArrayList<>();
+
+        for (int index : sorted) {
+            Product cached = cachedAt(index);
+            if (cached != null) {
+                found.put(index, cached);
+                continue;
+            }
+            int[] last = missingRuns.isEmpty() ? null : missingRuns.get(missingRuns.size() - 1);
+            if (last != null && last[1] == index - 1) {
+                last[1] = index;
+            } else {
+                missingRuns.add(new int[] {index, index});
+            }
+        }
+
+        PageSource current = source;
+        return DbExecutor.supply(() -> {
+            for (int[] run : missingRuns) {
+                List<Product> rows = current.fetch(run[0], null, run[1] - run[0] + 1);
+                for (int i = 0; i < rows.size(); i++) {
+                    found.put(run[0] + i, rows.get(i));
+                }
+            }
+            return sorted.stream().map(found::get).filter(Objects::nonNull).toList();
+        });
+    }
+
+    /**
+     * @return Produto da posição, se a página estiver em memória; {@code null} caso contrário
+     */
+    private Product cachedAt(int index) {
+        List<Product> rows = pages.get(index / pageSize);
+        int position = index % pageSize;
+        return rows != null && position < rows.size() ? rows.get(position) : null;
+    }
+
+    /**
+     * Descarta todas as páginas em memória e recarrega o tamanho do catálogo em segundo plano,
+     * notificando a tabela para que as linhas visíveis sejam buscadas novamente.
+     *
+     * @return Future concluído (na thread de interface) quando o novo tamanho for aplicado
+     */
+    public CompletableFuture<Void> refresh() {
+        pages.clear();
+        lastIds.clear();
+        int expected = invalidateLoads();
+        PageSource current = source;
+
+        return DbExecutor.supply(current::count).thenAcceptAsync(count -> {
+            if (expected != generation) return;
+            int oldSize = size;
+            size = count;
+
+            beginChange();
+            if (oldSize > 0) nextRemove(0, Collections.nCopies(oldSize, null));
+            if (size > 0) nextAdd(0, size);
+            endChange();
+        }, Platform::runLater);
+    }
+
+    /**
+     * Descarta buscas em andamento, cujos resultados podem não corresponder mais às posições atuais.
+     *
+     * @return Nova geração, usada para reconhecer resultados de buscas antigas
+     */
+    private int invalidateLoads() {
+        loading.clear();
+        return ++generation;
+    }
+
+    /**
+     * Busca uma página em segundo plano e, ao recebê-la, notifica a substituição de suas posições.
+     */
+    private void requestPage(int page) {
+        if (!loading.add(page)) return;
+        int expected = generation;
+        Long afterId = page == 0 ? null : lastIds.get(page - 1);
+        PageSource current = source;
+
+        DbExecutor.supply(() -> {
+            loadPermits.acquireUninterruptibly();
+            try {
+                return current.fetch(page * pageSize, afterId, pageSize);
+            } finally {
+                loadPermits.release();
+            }
+        }).whenCompleteAsync((rows, error) -> {
+            if (expected != generation) return;
+            loading.remove(page);
+            if (error != null) {
+                error.printStackTrace();
+                return;
+            }
+
+            if (!rows.isEmpty()) {
+                lastIds.put(page, rows.get(rows.size() - 1).getId());
+            }
+            pages.put(page, rows);
+
+            int from = page * pageSize;
+            int to = Math.min(from + pageSize, size);
+            if (from < to) {
+                beginChange();
+                nextReplace(from, to, Collections.nCopies(to - from, null));
+                endChange();
+            }
+        }, Platform::runLater);
+    }
+}
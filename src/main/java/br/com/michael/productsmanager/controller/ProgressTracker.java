@@ -0,0 +1,140 @@
+package br.com.michael.productsmanager.controller;
+
+import br.com.michael.productsmanager.util.Tracing;
+import javafx.application.Platform;
+import javafx.scene.control.Button;
+import javafx.scene.control.ProgressIndicator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Acompanha operações assíncronas de uma tela: exibe o indicador de progresso e o botão
+ * de cancelamento enquanto houver operações pendentes e entrega os resultados na
+ * JavaFX Application Thread via {@link Platform#runLater(Runnable)}.
+ * <p>
+ * Cancelar interrompe a espera da tela; uma escrita já enviada ao banco ainda pode ser concluída,
+ * por isso o callback de cancelamento permite recarregar os dados exibidos.
+ */
+public class ProgressTracker {
+
+    private final ProgressIndicator indicator;
+    private final Button cancelButton;
+    private final Set<CompletableFuture<?>> pending = new HashSet<>();
+    private Runnable onCancelled = () -> {};
+
+    /**
+     * @param indicator Indicador exibido enquanto houver operações pendentes
+     * @param cancelButton Botão que cancela as operações pendentes (opcional)
+     */
+    public ProgressTracker(ProgressIndicator indicator, Button cancelButton) {
+        this.indicator = indicator;
+        this.cancelButton = cancelButton;
+
+        indicator.managedProperty().bind(indicator.visibleProperty());
+        indicator.setVisible(false);
+        if (cancelButton != null) {
+            cancelButton.managedProperty().bind(cancelButton.visibleProperty());
+            cancelButton.setVisible(false);
+            cancelButton.setOnAction(event -> cancelAll());
+        }
+    }
+
+    /**
+     * Define a ação executada (na thread de interface) após um cancelamento pelo usuário.
+     *
+     * @param onCancelled Ação de cancelamento
+     */
+    public void setOnCancelled(Runnable onCancelled) {
+        this.onCancelled = onCancelled;
+    }
+
+    /**
+     * Acompanha uma operação e entrega seu resultado na thread de interface.
+     * Se a operação for cancelada, nenhum dos callbacks é chamado.
+     *
+     * @param future Operação em andamento
+     * @param onSuccess Chamado com o resultado em caso de sucesso
+     * @param onFailure Chamado com a causa em caso de erro
+     * @param <T> Tipo do resultado
+     */
+    public <T> void track(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        track(future, onSuccess, onFailure, null);
+    }
+
+    /**
+     * Acompanha uma operação iniciada por uma ação do usuário, rastreada do clique até o fim dos
+     * callbacks ({@link Tracing}).
+     *
+     * @param action Nome da ação (ex: {@code Adicionar produto})
+     * @param operation Inicia a operação; as tarefas que ela agendar fazem parte da ação
+     * @param onSuccess Chamado com o resultado em caso de sucesso
+     * @param onFailure Chamado com a causa em caso de erro
+     * @param <T> Tipo do resultado
+     */
+    public <T> void track(String action, Supplier<CompletableFuture<T>> operation,
+                          Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Tracing.Action traced = Tracing.startAction(action);
+        CompletableFuture<T> future;
+        try {
+            future = traced.call(operation);
+        } catch (RuntimeException e) {
+            traced.end(true);
+            throw e;
+        }
+        track(future, onSuccess, onFailure, traced);
+    }
+
+    private <T> void track(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onFailure,
+                           Tracing.Action action) {
+        pending.add(future);
+        updateVisibility();
+
+        future.whenCompleteAsync((result, error) -> {
+            pending.remove(future);
+            updateVisibility();
+            boolean failed = error != null;
+            try {
+                if (future.isCancelled()) return;
+
+                Runnable callback = failed
+                        ? () -> onFailure.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error)
+                        : () -> onSuccess.accept(result);
+                if (action != null) {
+                    action.run(callback);
+                } else {
+                    callback.run();
+                }
+            } finally {
+                if (action != null) action.end(failed);
+            }
+        }, Platform::runLater);
+    }
+
+    /**
+     * @return {@code true} se houver operações pendentes
+     */
+    public boolean isBusy() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Cancela todas as operações pendentes.
+     */
+    public void cancelAll() {
+        if (pending.isEmpty()) return;
+        new ArrayList<>(pending).forEach(future -> future.cancel(true));
+        onCancelled.run();
+    }
+
+    private void updateVisibility() {
+        boolean busy = !pending.isEmpty();
+        indicator.setVisible(busy);
+        if (cancelButton != null) cancelButton.setVisible(busy);
+    }
+}
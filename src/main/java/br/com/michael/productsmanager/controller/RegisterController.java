@@ -1,7 +1,10 @@
 package br.com.michael.productsmanager.controller;
 
+import br.com.michael.productsmanager.dao.AsyncUserDAO;
 import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.dao.UserDAO.RegisterResult;
 import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.service.AuthService;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.*;
@@ -10,18 +13,20 @@ import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.stage.*;
 import javafx.util.Duration;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.io.IOException;
 import java.net.URL;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controlador responsável pela tela de registro de novos usuários.
  * <p>
- * Valida entradas, aplica criptografia com BCrypt e interage com o {@link UserDAO}
+ * Valida entradas, aplica criptografia com BCrypt via {@link AuthService} e interage com o {@link UserDAO}
  * para persistência no banco. Também gerencia eventos de interface como mover, minimizar e fechar a janela.
+ * <p>
+ * A consulta, a criptografia e a gravação rodam fora da thread de interface.
  */
 public class RegisterController implements Initializable {
 
@@ -33,7 +38,13 @@ public class RegisterController implements Initializable {
     @FXML private PasswordField passwordField;
     @FXML private PasswordField confirmPasswordField;
     @FXML private Label messageLabel;
+    @FXML private Button registerButton;
+    @FXML private ProgressIndicator progressIndicator;
+    @FXML private Button cancelButton;
 
+    private final AsyncUserDAO userDAO = new AsyncUserDAO();
+    private final AuthService authService = AuthService.getInstance();
+    private ProgressTracker progress;
     private double xOffset;
     private double yOffset;
 
@@ -72,11 +83,18 @@ public class RegisterController implements Initializable {
                 Platform.exit();
             }
         });
+
+        progress = new ProgressTracker(progressIndicator, cancelButton);
+        progress.setOnCancelled(() -> {
+            registerButton.setDisable(false);
+            messageLabel.setText("Registro cancelado.");
+        });
     }
 
     /**
      * Executa o processo de registro de um novo usuário.
      * Verifica campos, valida senhas, aplica criptografia e persiste via DAO.
+     * Um username já existente é detectado pelo próprio banco, na inserção.
      */
     @FXML
     private void register() {
@@ -94,18 +112,34 @@ public class RegisterController implements Initializable {
             return;
         }
 
-        UserDAO dao = new UserDAO();
-        User existingUser = dao.findByUsername(username);
-        if (existingUser != null) {
-            messageLabel.setText("Nome de usuário já existe.");
-            return;
-        }
+        if (progress.isBusy()) return;
+        messageLabel.setText("");
+        registerButton.setDisable(true);
+
+        progress.track("Registro", () -> authService.hash(password)
+                .thenCompose(hashedPassword -> userDAO.register(new User(username, hashedPassword))),
+                this::completeRegistration, error -> {
+            registerButton.setDisable(false);
+            if (error instanceof RejectedExecutionException) {
+                messageLabel.setText("Sistema ocupado, tente novamente.");
+                return;
+            }
+            messageLabel.setText("Erro ao registrar usuário.");
+            error.printStackTrace();
+        });
+    }
 
-        String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());
-        User newUser = new User(username, hashedPassword);
-        boolean success = dao.save(newUser);
+    /**
+     * Conclui o registro na thread de interface, com o resultado da tentativa.
+     *
+     * @param outcome Resultado do registro
+     */
+    private void completeRegistration(RegisterResult outcome) {
+        registerButton.setDisable(false);
 
-        if (success) {
+        if (outcome == RegisterResult.USERNAME_TAKEN) {
+            messageLabel.setText("Nome de usuário já existe.");
+        } else if (outcome == RegisterResult.CREATED) {
             messageLabel.setText("Usuário registrado com sucesso!");
             usernameField.clear();
             passwordField.clear();
@@ -0,0 +1,89 @@
+package br.com.michael.productsmanager.controller;
+
+import javafx.scene.control.TableCell;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Célula de tabela que exibe o valor formatado como texto e mostra o texto completo em um tooltip.
+ * <p>
+ * A célula reaproveita os próprios nós a cada {@code updateItem}: o texto vai direto para a célula
+ * (sem criar {@code Label}), a aparência vem das classes {@code product-cell} e {@code product-tooltip}
+ * do {@code style.css} e o tooltip só é criado na primeira vez que o mouse passa sobre a célula.
+ *
+ * @param <S> Tipo das linhas da tabela
+ * @param <T> Tipo do valor da coluna
+ */
+public class TooltipTableCell<S, T> extends TableCell<S, T> {
+
+    /**
+     * Formatador de moeda compartilhado. {@link NumberFormat} não é thread-safe, mas as células
+     * só são atualizadas na JavaFX Application Thread.
+     */
+    private static final NumberFormat CURRENCY = NumberFormat.getCurrencyInstance(Locale.of("pt", "BR"));
+
+    /** Largura máxima dos tooltips, em pixels. */
+    private static final double TOOLTIP_MAX_WIDTH = 300;
+
+    private final Function<T, String> formatter;
+
+    /**
+     * @param formatter Converte o valor da coluna no texto exibido
+     * @param wrapText Se o texto pode quebrar em várias linhas
+     */
+    public TooltipTableCell(Function<T, String> formatter, boolean wrapText) {
+        this.formatter = formatter;
+        getStyleClass().add("product-cell");
+        setWrapText(wrapText);
+        addEventHandler(MouseEvent.MOUSE_ENTERED, event -> installTooltip());
+    }
+
+    /**
+     * @param <S> Tipo das linhas da tabela
+     * @return Célula de texto com quebra de linha
+     */
+    public static <S> TooltipTableCell<S, String> text() {
+        return new TooltipTableCell<>(Function.identity(), true);
+    }
+
+    /**
+     * @param <S> Tipo das linhas da tabela
+     * @return Célula de preço em reais (ex: {@code R$ 1.234,50})
+     */
+    public static <S> TooltipTableCell<S, Double> currency() {
+        return new TooltipTableCell<>(CURRENCY::format, false);
+    }
+
+    @Override
+    protected void updateItem(T item, boolean empty) {
+        super.updateItem(item, empty);
+        String text = empty || item == null ? null : formatter.apply(item);
+        setText(text);
+
+        Tooltip tooltip = getTooltip();
+        if (tooltip != null) {
+            if (text == null) {
+                setTooltip(null);
+            } else {
+                tooltip.setText(text);
+            }
+        }
+    }
+
+    /**
+     * Cria o tooltip no primeiro hover; nas próximas vezes ele já acompanha o texto da célula.
+     */
+    private void installTooltip() {
+        if (getText() == null || getTooltip() != null) return;
+
+        Tooltip tooltip = new Tooltip(getText());
+        tooltip.getStyleClass().add("product-tooltip");
+        tooltip.setWrapText(true);
+        tooltip.setMaxWidth(TOOLTIP_MAX_WIDTH);
+        setTooltip(tooltip);
+    }
+}
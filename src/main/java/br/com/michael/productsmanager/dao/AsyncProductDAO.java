@@ -0,0 +1,108 @@
+package br.com.michael.productsmanager.dao;
+
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.ProductSummary;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DbExecutor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fachada assíncrona do {@link ProductDAO}.
+ * <p>
+ * Cada método executa a operação correspondente em uma virtual thread ({@link DbExecutor}) e
+ * devolve um {@link CompletableFuture}, para que a interface nunca espere pelo banco.
+ */
+public class AsyncProductDAO {
+
+    private final ProductDAO productDAO;
+    private final ProductSummaryDAO summaryDAO = new ProductSummaryDAO();
+
+    public AsyncProductDAO() {
+        this(new ProductDAO());
+    }
+
+    /**
+     * @param productDAO DAO síncrono usado nas operações
+     */
+    public AsyncProductDAO(ProductDAO productDAO) {
+        this.productDAO = productDAO;
+    }
+
+    /** @see ProductDAO#addProduct(Product) */
+    public CompletableFuture<Void> addProduct(Product product) {
+        return DbExecutor.run(() -> productDAO.addProduct(product));
+    }
+
+    /** @see ProductDAO#addProducts(Collection) */
+    public CompletableFuture<Integer> addProducts(Collection<Product> products) {
+        return DbExecutor.supply(() -> productDAO.addProducts(products));
+    }
+
+    /** @see ProductDAO#findProduct(Long) */
+    public CompletableFuture<Product> findProduct(Long id) {
+        return DbExecutor.supply(() -> productDAO.findProduct(id));
+    }
+
+    /** @see ProductDAO#updateProduct(Product, String, Double, String) */
+    public CompletableFuture<Integer> updateProduct(Product current, String newName, Double newPrice, String newDescription) {
+        return DbExecutor.supply(() -> productDAO.updateProduct(current, newName, newPrice, newDescription));
+    }
+
+    /** @see ProductDAO#deleteProduct(Product) */
+    public CompletableFuture<Integer> deleteProduct(Product current) {
+        return DbExecutor.supply(() -> productDAO.deleteProduct(current));
+    }
+
+    /** @see ProductDAO#deleteProducts(Collection) */
+    public CompletableFuture<Integer> deleteProducts(Collection<Long> ids) {
+        return DbExecutor.supply(() -> productDAO.deleteProducts(ids));
+    }
+
+    /** @see ProductDAO#updateProducts(Collection, Double, String) */
+    public CompletableFuture<Integer> updateProducts(Collection<Long> ids, Double newPrice, String newDescription) {
+        return DbExecutor.supply(() -> productDAO.updateProducts(ids, newPrice, newDescription));
+    }
+
+    /** @see ProductDAO#listByUser(User) */
+    public CompletableFuture<List<Product>> listByUser(User user) {
+        return DbExecutor.supply(() -> productDAO.listByUser(user));
+    }
+
+    /** @see ProductDAO#countByUser(User) */
+    public CompletableFuture<Integer> countByUser(User user) {
+        return DbExecutor.supply(() -> productDAO.countByUser(user));
+    }
+
+    /** @see ProductDAO#listPageByUser(User, Long, int) */
+    public CompletableFuture<List<Product>> listPageByUser(User user, Long afterId, int limit) {
+        return DbExecutor.supply(() -> productDAO.listPageByUser(user, afterId, limit));
+    }
+
+    /** @see ProductDAO#findByIds(List) */
+    public CompletableFuture<List<Product>> findByIds(List<Long> ids) {
+        return DbExecutor.supply(() -> productDAO.findByIds(ids));
+    }
+
+    /** @see ProductDAO#search(User, String, ProductDAO.SearchCursor, int) */
+    public CompletableFuture<List<ProductDAO.SearchHit>> search(User user, String term, ProductDAO.SearchCursor after, int limit) {
+        return DbExecutor.supply(() -> productDAO.search(user, term, after, limit));
+    }
+
+    /** @see ProductDAO#countSearch(User, String) */
+    public CompletableFuture<Integer> countSearch(User user, String term) {
+        return DbExecutor.supply(() -> productDAO.countSearch(user, term));
+    }
+
+    /** @see ProductSummaryDAO#findByUser(User) */
+    public CompletableFuture<ProductSummary> findSummary(User user) {
+        return DbExecutor.supply(() -> summaryDAO.findByUser(user));
+    }
+
+    /** @see ProductSummaryDAO#verify(User) */
+    public CompletableFuture<ProductSummaryDAO.Verification> verifySummary(User user) {
+        return DbExecutor.supply(() -> summaryDAO.verify(user));
+    }
+}
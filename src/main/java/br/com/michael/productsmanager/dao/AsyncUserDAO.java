@@ -0,0 +1,48 @@
+package br.com.michael.productsmanager.dao;
+
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DbExecutor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fachada assíncrona do {@link UserDAO}.
+ * <p>
+ * Cada método executa a operação correspondente em uma virtual thread ({@link DbExecutor}) e
+ * devolve um {@link CompletableFuture}, para que a interface nunca espere pelo banco.
+ */
+public class AsyncUserDAO {
+
+    private final UserDAO userDAO;
+
+    public AsyncUserDAO() {
+        this(new UserDAO());
+    }
+
+    /**
+     * @param userDAO DAO síncrono usado nas operações
+     */
+    public AsyncUserDAO(UserDAO userDAO) {
+        this.userDAO = userDAO;
+    }
+
+    /** @see UserDAO#save(User) */
+    public CompletableFuture<Boolean> save(User user) {
+        return DbExecutor.supply(() -> userDAO.save(user));
+    }
+
+    /** @see UserDAO#register(User) */
+    public CompletableFuture<UserDAO.RegisterResult> register(User user) {
+        return DbExecutor.supply(() -> userDAO.register(user));
+    }
+
+    /** @see UserDAO#findByUsername(String) */
+    public CompletableFuture<User> findByUsername(String username) {
+        return DbExecutor.supply(() -> userDAO.findByUsername(username));
+    }
+
+    /** @see UserDAO#updatePassword(Long, String) */
+    public CompletableFuture<Boolean> updatePassword(Long id, String passwordHash) {
+        return DbExecutor.supply(() -> userDAO.updatePassword(id, passwordHash));
+    }
+}
@@ -0,0 +1,793 @@
+package br.com.michael.productsmanager.dao;
+
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.ProductSummary;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DaoMetrics;
+import br.com.michael.productsmanager.util.JPAUtil;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Cópia local do catálogo do usuário logado, em um banco H2 embarcado (um arquivo por usuário em
+ * {@code local.mirror.dir}).
+ * <p>
+ * A tela lê o catálogo daqui, sem ir ao banco central, e as alterações feitas na tela são gravadas aqui
+ * junto com uma entrada na fila de envio ({@code outbox}), na mesma transação local. A sincronização
+ * ({@link br.com.michael.productsmanager.service.CatalogSync}) envia a fila com {@link ProductDAO#applyChanges}
+ * e traz do banco central apenas os produtos que mudaram desde a última leitura ({@link ProductDAO#changedSince},
+ * a partir da marca guardada em {@code sync_state}).
+ * <p>
+ * Cada produto guarda duas versões: {@code version}, incrementada a cada alteração local (usada pela tela
+ * no controle otimista, como no banco central), e {@code server_version}, a última versão conhecida no banco
+ * central (a base das alterações enviadas). A fila tem no máximo uma entrada por produto: alterações
+ * seguidas são combinadas, e excluir um produto ainda não enviado apenas o retira da fila.
+ * <p>
+ * Produtos incluídos localmente recebem IDs a partir de {@link #LOCAL_ID_BASE}, trocados pelo ID gerado
+ * no banco central quando a inclusão é enviada. A inclusão leva uma chave única, formada pelo ID aleatório da
+ * cópia (guardado em {@code sync_state}) e o ID local, para que reenviá-la não duplique o produto.
+ */
+public class LocalProductDAO implements AutoCloseable {
+
+    /** Primeiro ID dos produtos ainda não enviados; maior que qualquer ID do banco central. */
+    public static final long LOCAL_ID_BASE = 1L << 62;
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS product (id BIGINT PRIMARY KEY, name VARCHAR, price DOUBLE PRECISION, " +
+                    "description VARCHAR, version BIGINT NOT NULL, server_version BIGINT NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS outbox (product_id BIGINT PRIMARY KEY, seq BIGINT NOT NULL, kind VARCHAR(6) NOT NULL, " +
+                    "base_version BIGINT, revision INT NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS idx_outbox_seq ON outbox (seq)",
+            "CREATE SEQUENCE IF NOT EXISTS local_id START WITH " + LOCAL_ID_BASE,
+            "CREATE SEQUENCE IF NOT EXISTS outbox_seq",
+            "CREATE TABLE IF NOT EXISTS sync_state (name VARCHAR(50) PRIMARY KEY, val VARCHAR(100))",
+            // Produtos a reler do banco central (alterações locais descartadas por conflito)
+            "CREATE TABLE IF NOT EXISTS refetch (product_id BIGINT PRIMARY KEY)",
+            // Identifica a cópia nas chaves das inclusões enviadas (ProductDAO.Change.insertKey)
+            "INSERT INTO sync_state (name, val) SELECT 'mirror', CAST(RANDOM_UUID() AS VARCHAR) " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM sync_state WHERE name = 'mirror')"
+    };
+
+    // Latência de cada método público (DaoMetrics)
+    private static final DaoMetrics.Operation COUNT = DaoMetrics.operation("LocalProductDAO.count");
+    private static final DaoMetrics.Operation LIST_PAGE = DaoMetrics.operation("LocalProductDAO.listPage");
+    private static final DaoMetrics.Operation FIND_ID_AT_OFFSET = DaoMetrics.operation("LocalProductDAO.findIdAtOffset");
+    private static final DaoMetrics.Operation FIND_BY_IDS = DaoMetrics.operation("LocalProductDAO.findByIds");
+    private static final DaoMetrics.Operation LIST_SEARCH_TEXT_PAGE = DaoMetrics.operation("LocalProductDAO.listSearchTextPage");
+    private static final DaoMetrics.Operation SUMMARY = DaoMetrics.operation("LocalProductDAO.summary");
+    private static final DaoMetrics.Operation ADD_PRODUCT = DaoMetrics.operation("LocalProductDAO.addProduct");
+    private static final DaoMetrics.Operation UPDATE_PRODUCT = DaoMetrics.operation("LocalProductDAO.updateProduct");
+    private static final DaoMetrics.Operation DELETE_PRODUCT = DaoMetrics.operation("LocalProductDAO.deleteProduct");
+    private static final DaoMetrics.Operation UPDATE_PRODUCTS = DaoMetrics.operation("LocalProductDAO.updateProducts");
+    private static final DaoMetrics.Operation DELETE_PRODUCTS = DaoMetrics.operation("LocalProductDAO.deleteProducts");
+    private static final DaoMetrics.Operation PENDING_CHANGES = DaoMetrics.operation("LocalProductDAO.pendingChanges");
+    private static final DaoMetrics.Operation COMPLETE_CHANGES = DaoMetrics.operation("LocalProductDAO.completeChanges");
+    private static final DaoMetrics.Operation APPLY_REMOTE = DaoMetrics.operation("LocalProductDAO.applyRemote");
+
+    /**
+     * Alteração na fila de envio.
+     *
+     * @param revision Revisão da entrada; muda se o produto for alterado de novo enquanto a entrada é enviada
+     * @param change Alteração a enviar, com os valores atuais do produto
+     */
+    public record PendingChange(int revision, ProductDAO.Change change) {}
+
+    /**
+     * Efeito de uma sincronização na cópia local.
+     *
+     * @param upserted Produtos incluídos ou alterados (inclusive os que receberam o ID do banco central)
+     * @param removed IDs que deixaram de existir (inclusive os IDs locais substituídos)
+     * @param conflicts Alterações locais descartadas por conflito com o banco central
+     */
+    public record Changes(List<Product> upserted, List<Long> removed, int conflicts) {
+
+        /**
+         * @return {@code true} se a cópia local mudou
+         */
+        public boolean isEmpty() {
+            return upserted.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    private final JdbcConnectionPool pool;
+    private final User user;
+    private final String mirror;
+
+    private LocalProductDAO(JdbcConnectionPool pool, User user) {
+        this.pool = pool;
+        this.user = user;
+        this.mirror = state("mirror");
+    }
+
+    /**
+     * Abre (ou cria) a cópia local do catálogo de um usuário.
+     *
+     * @param user Usuário logado
+     * @return Cópia local aberta; deve ser fechada com {@link #close()}
+     * @throws IllegalStateException se o arquivo não puder ser aberto
+     */
+    public static LocalProductDAO open(User user) {
+        String dir = JPAUtil.getProperty("local.mirror.dir");
+        Path file = Path.of(dir == null || dir.isBlank() ? "data" : dir.trim(), "catalog-" + user.getId()).toAbsolutePath();
+        JdbcConnectionPool pool = JdbcConnectionPool.create("jdbc:h2:file:" + file, "sa", "");
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            for (String ddl : SCHEMA) {
+                statement.execute(ddl);
+            }
+        } catch (SQLException e) {
+            pool.dispose();
+            throw new IllegalStateException("Não foi possível abrir a cópia local do catálogo: " + file, e);
+        }
+        return new LocalProductDAO(pool, user);
+    }
+
+    /**
+     * @return {@code true} se a cópia já foi preenchida por uma sincronização completa
+     */
+    public boolean isPopulated() {
+        return state("populated") != null;
+    }
+
+    /**
+     * @return Marca da última leitura das alterações do banco central ({@link ProductDAO#changedSince}), ou
+     *         {@code null} se a cópia ainda não foi sincronizada por marca
+     */
+    public Instant changeMarker() {
+        String marker = state("marker");
+        return marker == null ? null : Instant.parse(marker);
+    }
+
+    private String state(String name) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT val FROM sync_state WHERE name = ?")) {
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return Quantidade de produtos na cópia local
+     */
+    public int count() {
+        DaoMetrics.Call call = COUNT.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM product");
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * Lista uma página de produtos em ordem de ID (keyset), como {@link ProductDAO#listPageByUser}.
+     *
+     * @param afterId Último ID da página anterior, ou {@code null} para a primeira página
+     * @param limit Quantidade máxima de produtos
+     * @return Produtos com ID maior que {@code afterId}
+     */
+    public List<Product> listPage(Long afterId, int limit) {
+        DaoMetrics.Call call = LIST_PAGE.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id, name, price, description, version FROM product WHERE id > ? ORDER BY id LIMIT ?")) {
+            statement.setLong(1, afterId == null ? 0L : afterId);
+            statement.setInt(2, limit);
+            return readProducts(statement);
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * @param offset Posição (base zero) no catálogo, em ordem de ID
+     * @return ID na posição, ou {@code null} se ela estiver além do fim
+     */
+    public Long findIdAtOffset(int offset) {
+        DaoMetrics.Call call = FIND_ID_AT_OFFSET.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT id FROM product ORDER BY id LIMIT 1 OFFSET ?")) {
+            statement.setInt(1, offset);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * @param ids IDs dos produtos
+     * @return Produtos encontrados, na ordem dos IDs (IDs inexistentes são ignorados)
+     */
+    public List<Product> findByIds(List<Long> ids) {
+        DaoMetrics.Call call = FIND_BY_IDS.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id, name, price, description, version FROM product WHERE id = ANY(?)")) {
+            statement.setArray(1, connection.createArrayOf("BIGINT", ids.toArray()));
+            Map<Long, Product> found = new HashMap<>();
+            for (Product product : readProducts(statement)) {
+                found.put(product.getId(), product);
+            }
+            return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * Projeção {@code [id, name, description]} de uma página, como {@link ProductDAO#listSearchTextPage}.
+     *
+     * @param afterId Último ID da página anterior, ou {@code null} para a primeira página
+     * @param limit Quantidade máxima de linhas
+     * @return Linhas com ID maior que {@code afterId}
+     */
+    public List<Object[]> listSearchTextPage(Long afterId, int limit) {
+        DaoMetrics.Call call = LIST_SEARCH_TEXT_PAGE.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id, name, description FROM product WHERE id > ? ORDER BY id LIMIT ?")) {
+            statement.setLong(1, afterId == null ? 0L : afterId);
+            statement.setInt(2, limit);
+            List<Object[]> rows = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new Object[] {rs.getLong(1), rs.getString(2), rs.getString(3)});
+                }
+            }
+            return rows;
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * Calcula o resumo do catálogo local, já com as alterações ainda não enviadas.
+     *
+     * @return Resumo do catálogo
+     */
+    public ProductSummary summary() {
+        DaoMetrics.Call call = SUMMARY.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT COUNT(*), COALESCE(SUM(price), 0), MIN(price), MAX(price) FROM product");
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return new ProductSummary(user.getId(), rs.getLong(1), rs.getDouble(2),
+                    rs.getObject(3, Double.class), rs.getObject(4, Double.class));
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * Inclui um produto na cópia local e na fila de envio. O produto recebe um ID local e a versão 0.
+     *
+     * @param product Produto a incluir
+     */
+    public void addProduct(Product product) {
+        DaoMetrics.Call call = ADD_PRODUCT.start();
+        try (Connection connection = pool.getConnection()) {
+            inTransaction(connection, () -> {
+                long id;
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT NEXT VALUE FOR local_id")) {
+                    rs.next();
+                    id = rs.getLong(1);
+                }
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO product (id, name, price, description, version, server_version) VALUES (?, ?, ?, ?, 0, 0)")) {
+                    insert.setLong(1, id);
+                    insert.setString(2, product.getName());
+                    setPrice(insert, 3, product.getPrice());
+                    insert.setString(4, product.getDescription());
+                    insert.executeUpdate();
+                }
+                enqueue(connection, id, ProductDAO.Change.Kind.INSERT, null);
+                product.setId(id);
+                product.setVersion(0L);
+                return null;
+            });
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * Altera um produto na cópia local, se ele ainda estiver na versão informada, e o coloca na fila de envio.
+     *
+     * @param id ID do produto
+     * @param expectedVersion Versão lida junto com o produto
+     * @param newName Novo nome (opcional)
+     * @param newPrice Novo preço (opcional)
+     * @param newDescription Nova descrição (opcional)
+     * @return 1, ou 0 se a versão local for outra ou o produto não existir mais
+     */
+    public int updateProduct(Long id, Long expectedVersion, String newName, Double newPrice, String newDescription) {
+        DaoMetrics.Call call = UPDATE_PRODUCT.start();
+        try (Connection connection = pool.getConnection()) {
+            return inTransaction(connection, () -> update(connection, id, expectedVersion, newName, newPrice, newDescription));
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * Exclui um produto da cópia local, se ele ainda estiver na versão informada, e o coloca na fila de envio.
+     *
+     * @param id ID do produto
+     * @param expectedVersion Versão lida junto com o produto
+     * @return 1, ou 0 se a versão local for outra ou o produto não existir mais
+     */
+    public int deleteProduct(Long id, Long expectedVersion) {
+        DaoMetrics.Call call = DELETE_PRODUCT.start();
+        try (Connection connection = pool.getConnection()) {
+            return inTransaction(connection, () -> delete(connection, id, expectedVersion));
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * Altera o preço e/ou a descrição de vários produtos, como {@link ProductDAO#updateProducts}.
+     *
+     * @param ids IDs dos produtos
+     * @param newPrice Novo preço (opcional)
+     * @param newDescription Nova descrição (opcional)
+     * @return Quantidade de produtos alterados
+     */
+    public int updateProducts(Collection<Long> ids, Double newPrice, String newDescription) {
+        DaoMetrics.Call call = UPDATE_PRODUCTS.start();
+        try (Connection connection = pool.getConnection()) {
+            return inTransaction(connection, () -> {
+                int updated = 0;
+                for (Long id : ids) {
+                    updated += update(connection, id, null, null, newPrice, newDescription);
+                }
+                return updated;
+            });
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * Exclui vários produtos, como {@link ProductDAO#deleteProducts}.
+     *
+     * @param ids IDs dos produtos
+     * @return Quantidade de produtos excluídos
+     */
+    public int deleteProducts(Collection<Long> ids) {
+        DaoMetrics.Call call = DELETE_PRODUCTS.start();
+        try (Connection connection = pool.getConnection()) {
+            return inTransaction(connection, () -> {
+                int deleted = 0;
+                for (Long id : ids) {
+                    deleted += delete(connection, id, null);
+                }
+                return deleted;
+            });
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * @return Quantidade de alterações na fila de envio
+     */
+    public int pendingCount() {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM outbox");
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Lê as próximas alterações da fila de envio, na ordem em que foram feitas, com os valores atuais dos produtos.
+     *
+     * @param limit Quantidade máxima de alterações
+     * @return Alterações pendentes
+     */
+    public List<PendingChange> pendingChanges(int limit) {
+        DaoMetrics.Call call = PENDING_CHANGES.start();
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT o.product_id, o.kind, o.base_version, o.revision, p.name, p.price, p.description " +
+                             "FROM outbox o LEFT JOIN product p ON p.id = o.product_id ORDER BY o.seq LIMIT ?")) {
+            statement.setInt(1, limit);
+            List<PendingChange> changes = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ProductDAO.Change.Kind kind = ProductDAO.Change.Kind.valueOf(rs.getString(2));
+                    long id = rs.getLong(1);
+                    ProductDAO.Change change = new ProductDAO.Change(kind, id, rs.getObject(3, Long.class),
+                            rs.getString(5), rs.getObject(6, Double.class), rs.getString(7),
+                            kind == ProductDAO.Change.Kind.INSERT ? mirror + ":" + id : null);
+                    changes.add(new PendingChange(rs.getInt(4), change));
+                }
+            }
+            return changes;
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * Registra o resultado do envio de alterações da fila.
+     * <p>
+     * Alterações aplicadas saem da fila (ou ficam com a nova versão base, se o produto foi alterado de novo
+     * durante o envio); inclusões passam a usar o ID gerado no banco central. Alterações em conflito são
+     * descartadas e o produto é marcado para ser relido do banco central na próxima leitura ({@link #refetchIds()}).
+     *
+     * @param sent Alterações enviadas
+     * @param results Resultado de cada alteração ({@link ProductDAO#applyChanges})
+     * @return Efeito na cópia local
+     */
+    public Changes completeChanges(List<PendingChange> sent, List<ProductDAO.ChangeResult> results) {
+        DaoMetrics.Call call = COMPLETE_CHANGES.start();
+        List<Long> remapped = new ArrayList<>();
+        List<Long> serverIds = new ArrayList<>();
+        try (Connection connection = pool.getConnection()) {
+            int conflicts = inTransaction(connection, () -> {
+                int conflicting = 0;
+                for (int i = 0; i < sent.size(); i++) {
+                    ProductDAO.Change change = sent.get(i).change();
+                    ProductDAO.ChangeResult result = results.get(i);
+                    int revision = sent.get(i).revision();
+
+                    if (!result.applied()) {
+                        conflicting++;
+                        execute(connection, "DELETE FROM outbox WHERE product_id = ?", change.id());
+                        execute(connection, "MERGE INTO refetch KEY (product_id) VALUES (?)", change.id());
+                        continue;
+                    }
+                    switch (change.kind()) {
+                        case INSERT -> {
+                            execute(connection, "UPDATE product SET id = ?, server_version = ? WHERE id = ?",
+                                    result.id(), result.version(), change.id());
+                            execute(connection, "UPDATE outbox SET product_id = ?, kind = 'UPDATE', base_version = ? " +
+                                    "WHERE product_id = ? AND revision <> ?", result.id(), result.version(), change.id(), revision);
+                            remapped.add(change.id());
+                            serverIds.add(result.id());
+                        }
+                        case UPDATE -> {
+                            execute(connection, "UPDATE product SET server_version = ? WHERE id = ?", result.version(), change.id());
+                            execute(connection, "UPDATE outbox SET base_version = ? WHERE product_id = ? AND revision <> ?",
+                                    result.version(), change.id(), revision);
+                        }
+                        case DELETE -> { }
+                    }
+                    execute(connection, "DELETE FROM outbox WHERE product_id = ? AND revision = ?", change.id(), revision);
+                }
+                return conflicting;
+            });
+            return new Changes(serverIds.isEmpty() ? List.of() : findByIds(serverIds), remapped, conflicts);
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * @return Última versão conhecida no banco central de cada produto já enviado, por ID
+     */
+    public Map<Long, Long> serverVersions() {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT id, server_version FROM product WHERE id < ?")) {
+            statement.setLong(1, LOCAL_ID_BASE);
+            Map<Long, Long> versions = new HashMap<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    versions.put(rs.getLong(1), rs.getLong(2));
+                }
+            }
+            return versions;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return IDs com alterações na fila de envio
+     */
+    public Set<Long> pendingIds() {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT product_id FROM outbox");
+             ResultSet rs = statement.executeQuery()) {
+            Set<Long> ids = new HashSet<>();
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+            return ids;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return IDs dos produtos a reler do banco central, cujas alterações locais foram descartadas por conflito
+     */
+    public List<Long> refetchIds() {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT product_id FROM refetch");
+             ResultSet rs = statement.executeQuery()) {
+            List<Long> ids = new ArrayList<>();
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+            return ids;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Aplica na cópia local os produtos lidos do banco central. Produtos com alterações na fila de envio
+     * são mantidos como estão (a fila é enviada antes de cada leitura), e produtos que a cópia já tem na
+     * mesma versão do banco central (lidos de novo na margem de {@link ProductDAO#changedSince}) são ignorados.
+     *
+     * @param upserts Produtos incluídos ou alterados no banco central
+     * @param deletedIds Produtos excluídos no banco central
+     * @param marker Marca da leitura ({@link ProductDAO.Delta#marker()}), gravada na mesma transação;
+     *               {@code null} mantém a atual
+     * @return Efeito na cópia local
+     */
+    public Changes applyRemote(List<Product> upserts, Collection<Long> deletedIds, Instant marker) {
+        DaoMetrics.Call call = APPLY_REMOTE.start();
+        Set<Long> pending = pendingIds();
+        List<Long> upserted = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        try (Connection connection = pool.getConnection()) {
+            inTransaction(connection, () -> {
+                List<Long> applied = new ArrayList<>();
+                try (PreparedStatement merge = connection.prepareStatement(
+                        "MERGE INTO product p USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS DOUBLE PRECISION), " +
+                                "CAST(? AS VARCHAR), CAST(? AS BIGINT))) AS s(id, name, price, description, server_version) ON p.id = s.id " +
+                                "WHEN MATCHED AND (p.server_version <> s.server_version OR p.id IN (SELECT product_id FROM refetch)) " +
+                                "THEN UPDATE SET name = s.name, price = s.price, description = s.description, " +
+                                "version = p.version + 1, server_version = s.server_version " +
+                                "WHEN NOT MATCHED THEN INSERT VALUES (s.id, s.name, s.price, s.description, s.server_version, s.server_version)")) {
+                    for (Product product : upserts) {
+                        if (pending.contains(product.getId())) continue;
+                        merge.setLong(1, product.getId());
+                        merge.setString(2, product.getName());
+                        setPrice(merge, 3, product.getPrice());
+                        merge.setString(4, product.getDescription());
+                        merge.setLong(5, product.getVersion());
+                        merge.addBatch();
+                        applied.add(product.getId());
+                    }
+                    int[] counts = merge.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] > 0) upserted.add(applied.get(i));
+                    }
+                }
+                int firstDeleted = applied.size();
+                try (PreparedStatement delete = connection.prepareStatement("DELETE FROM product WHERE id = ?")) {
+                    for (Long id : deletedIds) {
+                        if (pending.contains(id)) continue;
+                        delete.setLong(1, id);
+                        delete.addBatch();
+                        applied.add(id);
+                    }
+                    int[] counts = delete.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] > 0) removed.add(applied.get(firstDeleted + i));
+                    }
+                }
+                try (PreparedStatement refetched = connection.prepareStatement("DELETE FROM refetch WHERE product_id = ?")) {
+                    for (Long id : applied) {
+                        refetched.setLong(1, id);
+                        refetched.addBatch();
+                    }
+                    refetched.executeBatch();
+                }
+                execute(connection, "MERGE INTO sync_state KEY (name) VALUES ('populated', ?)",
+                        String.valueOf(System.currentTimeMillis()));
+                if (marker != null) {
+                    execute(connection, "MERGE INTO sync_state KEY (name) VALUES ('marker', ?)", marker.toString());
+                }
+                return null;
+            });
+            // A versão local foi incrementada: a tela recebe os produtos relidos da cópia
+            return new Changes(upserted.isEmpty() ? List.of() : findByIds(upserted), removed, 0);
+        } catch (SQLException e) {
+            call.fail();
+            throw new IllegalStateException(e);
+        } finally {
+            call.finish();
+        }
+    }
+
+    /**
+     * Fecha a cópia local.
+     */
+    @Override
+    public void close() {
+        pool.dispose();
+    }
+
+    /**
+     * Altera um produto e registra a alteração na fila. Sem {@code expectedVersion}, altera a versão atual.
+     */
+    private int update(Connection connection, Long id, Long expectedVersion, String newName, Double newPrice,
+                       String newDescription) throws SQLException {
+        Long[] versions = versions(connection, id);
+        if (versions == null || (expectedVersion != null && !expectedVersion.equals(versions[0]))) return 0;
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE product SET name = COALESCE(?, name), price = COALESCE(?, price), " +
+                        "description = COALESCE(?, description), version = version + 1 WHERE id = ?")) {
+            statement.setString(1, newName);
+            setPrice(statement, 2, newPrice);
+            statement.setString(3, newDescription);
+            statement.setLong(4, id);
+            statement.executeUpdate();
+        }
+        enqueue(connection, id, ProductDAO.Change.Kind.UPDATE, versions[1]);
+        return 1;
+    }
+
+    /**
+     * Exclui um produto e registra a exclusão na fila. Sem {@code expectedVersion}, exclui a versão atual.
+     */
+    private int delete(Connection connection, Long id, Long expectedVersion) throws SQLException {
+        Long[] versions = versions(connection, id);
+        if (versions == null || (expectedVersion != null && !expectedVersion.equals(versions[0]))) return 0;
+
+        execute(connection, "DELETE FROM product WHERE id = ?", id);
+        enqueue(connection, id, ProductDAO.Change.Kind.DELETE, versions[1]);
+        return 1;
+    }
+
+    /**
+     * @return {@code [version, server_version]} do produto, ou {@code null} se ele não existir
+     */
+    private static Long[] versions(Connection connection, Long id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT version, server_version FROM product WHERE id = ?")) {
+            statement.setLong(1, id);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? new Long[] {rs.getLong(1), rs.getLong(2)} : null;
+            }
+        }
+    }
+
+    /**
+     * Registra uma alteração na fila, combinando-a com a entrada já existente do produto:
+     * uma inclusão alterada continua inclusão, uma inclusão excluída sai da fila e uma alteração
+     * excluída vira exclusão, sempre com a versão base da primeira alteração.
+     */
+    private static void enqueue(Connection connection, long id, ProductDAO.Change.Kind kind, Long baseVersion) throws SQLException {
+        String existing = null;
+        try (PreparedStatement statement = connection.prepareStatement("SELECT kind FROM outbox WHERE product_id = ?")) {
+            statement.setLong(1, id);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) existing = rs.getString(1);
+            }
+        }
+
+        if (existing == null) {
+            execute(connection, "INSERT INTO outbox (product_id, seq, kind, base_version, revision) " +
+                    "VALUES (?, NEXT VALUE FOR outbox_seq, ?, ?, 0)", id, kind.name(), baseVersion);
+        } else if (kind == ProductDAO.Change.Kind.DELETE && existing.equals("INSERT")) {
+            execute(connection, "DELETE FROM outbox WHERE product_id = ?", id);
+        } else {
+            String merged = existing.equals("INSERT") ? "INSERT" : kind.name();
+            execute(connection, "UPDATE outbox SET kind = ?, revision = revision + 1 WHERE product_id = ?", merged, id);
+        }
+    }
+
+    private List<Product> readProducts(PreparedStatement statement) throws SQLException {
+        List<Product> products = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                Product product = new Product(rs.getString(2), rs.getObject(3, Double.class), rs.getString(4));
+                product.setId(rs.getLong(1));
+                product.setVersion(rs.getLong(5));
+                product.setUser(user);
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private static void setPrice(PreparedStatement statement, int index, Double price) throws SQLException {
+        if (price == null) {
+            statement.setNull(index, Types.DOUBLE);
+        } else {
+            statement.setDouble(index, price);
+        }
+    }
+
+    private static void execute(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    private static <T> T inTransaction(Connection connection, Work<T> work) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            T result = work.run();
+            connection.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
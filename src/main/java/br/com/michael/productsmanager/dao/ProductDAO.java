@@ -1,38 +1,307 @@
 package br.com.michael.productsmanager.dao;
 
 import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.ProductDeletion;
+import br.com.michael.productsmanager.model.ProductInsert;
 import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DaoMetrics;
 import br.com.michael.productsmanager.util.JPAUtil;
+import br.com.michael.productsmanager.util.ReadReplicas;
+import br.com.michael.productsmanager.util.Tracing;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
 
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
 
 /**
  * Classe DAO responsável pelas operações de persistência da entidade {@link Product}.
  * Utiliza JPA para interagir com o banco de dados.
+ * <p>
+ * As consultas de leitura usam o cache de consultas do Hibernate. As inclusões passam pelo
+ * {@code EntityManager}, que invalida as entradas afetadas do cache de segundo nível; alterações e exclusões são
+ * comandos nativos ({@link #productWrite}), e os produtos afetados são descartados do cache um a um após o commit.
+ * <p>
+ * Toda escrita também atualiza, na mesma transação, o resumo do catálogo de cada usuário afetado
+ * ({@link ProductSummaryDAO}), e toda exclusão é registrada em {@link ProductDeletion}, para que
+ * {@link #changedSince} a encontre.
+ * <p>
+ * Com réplicas de leitura configuradas, as leituras do catálogo de um usuário fora do cache de consultas (busca,
+ * projeções e exportação) vão a uma réplica ({@link ReadReplicas#replica}), exceto logo após uma escrita nele, e não
+ * gravam nos caches ({@link ReadReplicas.Route#createEntityManager}). As consultas em cache ({@link #listPageByUser},
+ * {@link #countByUser} etc.) e {@link #findProduct} e {@link #findByIds}, quase sempre atendidos pelo cache de
+ * segundo nível, ficam no banco principal: o que eles guardam no cache compartilhado nunca vem de uma réplica
+ * atrasada. As leituras por marca de alteração ({@link #changedSince} e as que a acompanham, como
+ * {@link #listVersionsByUser}) também, porque a marca depende das transações abertas nele.
  */
 public class ProductDAO {
 
-    /** Instância compartilhada da fábrica de EntityManagers. */
-    private static final EntityManagerFactory emf = JPAUtil.getEntityManagerFactory();
+
+    /**
+     * Espaço de consulta dos comandos de {@link #productWrite}. Não pertence a nenhuma entidade, então o Hibernate
+     * não descarta a região {@code product} inteira do cache ao executá-los, como faz após um comando em massa JPQL
+     * (ou nativo sincronizado com {@link Product}).
+     */
+    private static final String PRODUCT_WRITES = "product_writes";
+
+    /**
+     * Tipo da relevância na busca. Decimal exato, e não o {@code FLOAT} do {@code MATCH}: o cursor da página seguinte
+     * compara a relevância por igualdade no desempate por ID, o que um valor aproximado não garante.
+     */
+    private static final String SEARCH_SCORE_TYPE = "DECIMAL(20, 6)";
+
+    /** Máximo de IDs por comando {@code IN} nas operações em massa. */
+    private static final int BULK_CHUNK_SIZE = 1000;
+
+    /** Linhas trazidas do banco por vez nas leituras em fluxo fora do MySQL ({@link #scrollFetchSize()}). */
+    private static final int EXPORT_FETCH_SIZE = JPAUtil.getIntProperty("export.fetchSize", 1000);
+
+    /**
+     * Ordem das leituras do catálogo de um usuário. Com o usuário fixo equivale a ordenar só pelo ID, mas
+     * repetir a coluna do filtro permite ao otimizador (H2 inclusive) seguir o índice {@code (user_id, id)}
+     * sem ordenar as linhas restantes do catálogo.
+     */
+    private static final String CATALOG_ORDER = " ORDER BY p.user.id, p.id";
+
+    /**
+     * Margem relida antes da marca de {@link #changedSince}. A marca não passa do início das transações abertas,
+     * mas uma transação confirmada durante a leitura anterior (depois das alterações, antes das transações abertas)
+     * pode ter gravado um momento anterior a ela.
+     */
+    private static final long CHANGE_OVERLAP_MILLIS = JPAUtil.getIntProperty("db.changes.overlapMillis", 2000);
+
+    /** Tempo em que as exclusões ficam registradas em {@link ProductDeletion} ({@link #pruneDeletions}). */
+    private static final Duration DELETION_RETENTION = Duration.ofDays(JPAUtil.getIntProperty("db.changes.deletionRetentionDays", 30));
+
+    /** Folga de {@link #coversChangesSince} para diferenças de relógio entre as estações que descartam exclusões. */
+    private static final Duration RETENTION_CLOCK_MARGIN = Duration.ofHours(1);
+
+    // Latência de cada método público (DaoMetrics)
+    private static final DaoMetrics.Operation ADD_PRODUCT = DaoMetrics.operation("ProductDAO.addProduct");
+    private static final DaoMetrics.Operation ADD_PRODUCTS = DaoMetrics.operation("ProductDAO.addProducts");
+    private static final DaoMetrics.Operation FIND_PRODUCT = DaoMetrics.operation("ProductDAO.findProduct");
+    private static final DaoMetrics.Operation UPDATE_PRODUCT = DaoMetrics.operation("ProductDAO.updateProduct");
+    private static final DaoMetrics.Operation DELETE_PRODUCT = DaoMetrics.operation("ProductDAO.deleteProduct");
+    private static final DaoMetrics.Operation DELETE_PRODUCTS = DaoMetrics.operation("ProductDAO.deleteProducts");
+    private static final DaoMetrics.Operation UPDATE_PRODUCTS = DaoMetrics.operation("ProductDAO.updateProducts");
+    private static final DaoMetrics.Operation LIST_BY_USER = DaoMetrics.operation("ProductDAO.listByUser");
+    private static final DaoMetrics.Operation COUNT_BY_USER = DaoMetrics.operation("ProductDAO.countByUser");
+    private static final DaoMetrics.Operation LIST_PAGE_BY_USER = DaoMetrics.operation("ProductDAO.listPageByUser");
+    private static final DaoMetrics.Operation FIND_ID_AT_OFFSET = DaoMetrics.operation("ProductDAO.findIdAtOffset");
+    private static final DaoMetrics.Operation FIND_BY_IDS = DaoMetrics.operation("ProductDAO.findByIds");
+    private static final DaoMetrics.Operation LIST_SEARCH_TEXT_PAGE = DaoMetrics.operation("ProductDAO.listSearchTextPage");
+    private static final DaoMetrics.Operation SCROLL_BY_USER = DaoMetrics.operation("ProductDAO.scrollByUser");
+    private static final DaoMetrics.Operation SEARCH = DaoMetrics.operation("ProductDAO.search");
+    private static final DaoMetrics.Operation COUNT_SEARCH = DaoMetrics.operation("ProductDAO.countSearch");
+    private static final DaoMetrics.Operation FIND_SEARCH_CURSOR_AT = DaoMetrics.operation("ProductDAO.findSearchCursorAt");
+    private static final DaoMetrics.Operation LIST_VERSIONS_BY_USER = DaoMetrics.operation("ProductDAO.listVersionsByUser");
+    private static final DaoMetrics.Operation FIND_CURRENT_BY_IDS = DaoMetrics.operation("ProductDAO.findCurrentByIds");
+    private static final DaoMetrics.Operation APPLY_CHANGES = DaoMetrics.operation("ProductDAO.applyChanges");
+    private static final DaoMetrics.Operation CHANGED_SINCE = DaoMetrics.operation("ProductDAO.changedSince");
+    private static final DaoMetrics.Operation CURRENT_CHANGES = DaoMetrics.operation("ProductDAO.currentChanges");
+    private static final DaoMetrics.Operation PRUNE_DELETIONS = DaoMetrics.operation("ProductDAO.pruneDeletions");
+
+    /**
+     * Fábrica de EntityManager compartilhada, obtida a cada uso e não no carregamento da classe, para que criar
+     * o DAO (ou o {@link AsyncProductDAO}) não espere pela construção da fábrica.
+     */
+    private static EntityManagerFactory emf() {
+        return JPAUtil.getEntityManagerFactory();
+    }
+
+    /**
+     * @return {@code true} se o banco da aplicação é o MySQL; os benchmarks usam H2. No MySQL a busca usa o
+     * índice FULLTEXT; nos demais bancos, {@code LIKE}.
+     */
+    private static boolean mysql() {
+        return emf().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect() instanceof MySQLDialect;
+    }
+
+    /**
+     * Linhas trazidas do banco por vez nas leituras em fluxo ({@link #scrollByUser}). O Connector/J só
+     * lê linha a linha, sem carregar o resultado inteiro na memória, com {@link Integer#MIN_VALUE}.
+     */
+    private static int scrollFetchSize() {
+        return mysql() ? Integer.MIN_VALUE : EXPORT_FETCH_SIZE;
+    }
+
+    /**
+     * Posição de um resultado na ordem da busca (relevância decrescente, depois ID), usada na paginação por chave.
+     * A relevância vem do banco já arredondada ({@link #SEARCH_SCORE_TYPE}), então volta a ele sem perda e a
+     * comparação com o cursor é exata.
+     *
+     * @param score Relevância do resultado
+     * @param id ID do produto
+     */
+    public record SearchCursor(double score, long id) {}
+
+    /**
+     * Resultado de uma busca.
+     *
+     * @param product Produto encontrado
+     * @param score Relevância (maior é melhor)
+     */
+    public record SearchHit(Product product, double score) {
+
+        /**
+         * @return Cursor para buscar a página seguinte a este resultado
+         */
+        public SearchCursor cursor() {
+            return new SearchCursor(score, product.getId());
+        }
+    }
+
+    /**
+     * Alteração feita em uma cópia local do catálogo, enviada ao banco por {@link #applyChanges}.
+     *
+     * @param kind Tipo da alteração
+     * @param id ID do produto (ignorado em {@link Kind#INSERT})
+     * @param baseVersion Versão do produto no banco quando a alteração foi feita (ignorada em {@link Kind#INSERT})
+     * @param name Nome após a alteração
+     * @param price Preço após a alteração
+     * @param description Descrição após a alteração
+     * @param insertKey Chave única da inclusão na cópia local (ID da cópia e ID local do produto), para que uma
+     *                  inclusão reenviada não seja gravada duas vezes; {@code null} fora de {@link Kind#INSERT}
+     */
+    public record Change(Kind kind, Long id, Long baseVersion, String name, Double price, String description,
+                         String insertKey) {
+
+        public enum Kind { INSERT, UPDATE, DELETE }
+    }
+
+    /**
+     * Resultado de uma {@link Change}.
+     *
+     * @param applied {@code false} em caso de conflito: o produto mudou (ou foi excluído) no banco depois da
+     *                versão em que foi alterado, e nada foi gravado
+     * @param id ID do produto no banco (gerado, em {@link Change.Kind#INSERT})
+     * @param version Versão do produto após a alteração ({@code null} em exclusões e conflitos)
+     */
+    public record ChangeResult(boolean applied, Long id, Long version) {}
+
+    /**
+     * ID e versão de todos os produtos de um usuário ({@link #listVersionsByUser}).
+     *
+     * @param rows Linhas {@code [id, version]}, em ordem de ID
+     * @param marker Marca lida na mesma transação, para a próxima leitura de {@link #changedSince}
+     */
+    public record CatalogVersions(List<Object[]> rows, Instant marker) {}
+
+    /**
+     * Alterações do catálogo de um usuário desde uma marca ({@link #changedSince}).
+     *
+     * @param changed Produtos incluídos ou alterados (desanexados, com o usuário informado), em ordem de ID
+     * @param deleted IDs dos produtos excluídos
+     * @param count Quantidade de produtos do usuário no momento da leitura
+     * @param marker Marca para a próxima leitura
+     */
+    public record Delta(List<Product> changed, List<Long> deleted, int count, Instant marker) {
+
+        /**
+         * @return {@code true} se não houve alterações
+         */
+        public boolean isEmpty() {
+            return changed.isEmpty() && deleted.isEmpty();
+        }
+    }
 
     /**
      * Adiciona um novo produto ao banco de dados.
      *
      * @param product Produto a ser persistido
+     * @throws RuntimeException caso a gravação falhe; a transação é desfeita
      */
     public void addProduct(Product product) {
-        EntityManager em = emf.createEntityManager();
+        DaoMetrics.Call call = ADD_PRODUCT.start();
+        EntityManager em = emf().createEntityManager();
         try {
-            em.getTransaction().begin();
+            Tracing.Transaction transaction = Tracing.begin(em);
             em.persist(product);
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            em.getTransaction().rollback();
+            if (product.getUser() != null) {
+                ProductSummaryDAO.Delta delta = new ProductSummaryDAO.Delta();
+                delta.add(product.getPrice());
+                ProductSummaryDAO.apply(em, product.getUser().getId(), delta);
+                ReadReplicas.wrote(product.getUser().getId());
+            }
+            transaction.commit();
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Adiciona vários produtos em uma única transação, usando inserções em lote JDBC.
+     * <p>
+     * O contexto de persistência é descarregado e limpo a cada {@link JPAUtil#getBatchSize()} produtos,
+     * mantendo o consumo de memória constante mesmo para catálogos grandes.
+     *
+     * @param products Produtos a serem persistidos (recebem seus IDs ao final)
+     * @return Quantidade de produtos inseridos
+     * @throws RuntimeException caso a inserção falhe; nesse caso nenhum produto é gravado
+     */
+    public int addProducts(Collection<Product> products) {
+        int batchSize = JPAUtil.getBatchSize();
+        DaoMetrics.Call call = ADD_PRODUCTS.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Tracing.Transaction transaction = Tracing.begin(em);
+            Map<Long, ProductSummaryDAO.Delta> deltas = new TreeMap<>();
+            int count = 0;
+            for (Product product : products) {
+                em.persist(product);
+                if (product.getUser() != null) {
+                    deltas.computeIfAbsent(product.getUser().getId(), id -> new ProductSummaryDAO.Delta())
+                            .add(product.getPrice());
+                }
+                if (++count % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            ProductSummaryDAO.apply(em, deltas);
+            deltas.keySet().forEach(ReadReplicas::wrote);
+            transaction.commit();
+            return count;
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
         } finally {
             em.close();
+            call.finish();
         }
     }
 
@@ -43,61 +312,717 @@ public class ProductDAO {
      * @return Produto encontrado ou {@code null} se não existir
      */
     public Product findProduct(Long id) {
-        EntityManager em = emf.createEntityManager();
+        DaoMetrics.Call call = FIND_PRODUCT.start();
+        EntityManager em = emf().createEntityManager();
         try {
             return em.find(Product.class, id);
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
         } finally {
             em.close();
+            call.finish();
         }
     }
 
     /**
-     * Atualiza os dados de um produto existente.
+     * Atualiza os dados de um produto com um único comando {@code UPDATE}, sem carregá-lo antes.
+     * <p>
+     * A alteração só é aplicada se a versão no banco ainda for a de {@code current}; nesse caso a
+     * versão é incrementada. Se outro usuário alterou ou excluiu o produto nesse meio-tempo, nada é
+     * gravado e o retorno é 0. Após o commit, apenas esse produto é descartado do cache de segundo nível
+     * (as consultas em cache continuam válidas: o produto segue no catálogo). A versão identifica o estado
+     * lido, então o preço e o dono de {@code current} são exatos sempre que o comando tiver efeito: o resumo
+     * do catálogo é atualizado a partir deles, sem ler o produto de novo.
      *
-     * @param id ID do produto a ser modificado
+     * @param current Produto como foi lido (ID, versão, preço e dono)
      * @param newName Novo nome do produto (opcional)
      * @param newPrice Novo preço (opcional)
      * @param newDescription Nova descrição (opcional)
+     * @return Quantidade de linhas alteradas: 1, ou 0 em caso de conflito (versão diferente ou produto excluído)
+     * @throws RuntimeException caso o comando falhe; a transação é desfeita
+     */
+    public int updateProduct(Product current, String newName, Double newPrice, String newDescription) {
+        DaoMetrics.Call call = UPDATE_PRODUCT.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Tracing.Transaction transaction = Tracing.begin(em);
+            Map<String, Object> values = new LinkedHashMap<>();
+            if (newName != null) values.put("name", newName);
+            if (newPrice != null) values.put("price", newPrice);
+            if (newDescription != null) values.put("description", newDescription);
+            NativeQuery<?> query = productWrite(em, "UPDATE product SET " + assignments(values) +
+                    "version = version + 1 WHERE id = :id AND version = :version");
+            values.forEach(query::setParameter);
+            int updated = query.setParameter("id", current.getId())
+                    .setParameter("version", current.getVersion())
+                    .executeUpdate();
+            Long owner = current.getUser() != null ? current.getUser().getId() : null;
+            if (updated == 1 && owner != null) {
+                if (newPrice != null) {
+                    ProductSummaryDAO.Delta delta = new ProductSummaryDAO.Delta();
+                    delta.replace(current.getPrice(), newPrice);
+                    ProductSummaryDAO.apply(em, owner, delta);
+                }
+                ReadReplicas.wrote(owner);
+            }
+            transaction.commit();
+            evictFromCache(List.of(current.getId()), false);
+            return updated;
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Remove um produto com um único comando {@code DELETE}, sem carregá-lo antes.
+     * <p>
+     * O produto só é removido se a versão no banco ainda for a de {@code current}. Como em
+     * {@link #updateProduct}, o preço e o dono de {@code current} atualizam o resumo do catálogo e
+     * registram a exclusão, sem ler o produto de novo.
+     *
+     * @param current Produto como foi lido (ID, versão, preço e dono)
+     * @return Quantidade de linhas removidas: 1, ou 0 em caso de conflito (versão diferente ou produto já excluído)
+     * @throws RuntimeException caso o comando falhe; a transação é desfeita
      */
-    public void updateProduct(Long id, String newName, Double newPrice, String newDescription) {
-        EntityManager em = emf.createEntityManager();
+    public int deleteProduct(Product current) {
+        DaoMetrics.Call call = DELETE_PRODUCT.start();
+        EntityManager em = emf().createEntityManager();
         try {
-            em.getTransaction().begin();
-            Product product = em.find(Product.class, id);
-            if (product != null) {
-                if (newName != null) product.setName(newName);
-                if (newPrice != null) product.setPrice(newPrice);
-                if (newDescription != null) product.setDescription(newDescription);
+            Tracing.Transaction transaction = Tracing.begin(em);
+            int deleted = productWrite(em, "DELETE FROM product WHERE id = :id AND version = :version")
+                    .setParameter("id", current.getId())
+                    .setParameter("version", current.getVersion())
+                    .executeUpdate();
+            Long owner = current.getUser() != null ? current.getUser().getId() : null;
+            if (deleted == 1 && owner != null) {
+                ProductSummaryDAO.Delta delta = new ProductSummaryDAO.Delta();
+                delta.remove(current.getPrice());
+                ProductSummaryDAO.apply(em, owner, delta);
+                em.persist(new ProductDeletion(current.getId(), owner));
+                ReadReplicas.wrote(owner);
             }
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            em.getTransaction().rollback();
+            transaction.commit();
+            evictFromCache(List.of(current.getId()), deleted == 1);
+            return deleted;
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
         } finally {
             em.close();
+            call.finish();
         }
     }
 
     /**
-     * Remove um produto do banco com base no ID.
+     * Remove vários produtos em uma única transação, com comandos {@code DELETE ... WHERE id IN (...)}
+     * de até {@value #BULK_CHUNK_SIZE} IDs cada.
      *
-     * @param id Identificador do produto a ser removido
+     * @param ids IDs dos produtos a serem removidos
+     * @return Quantidade de produtos removidos (IDs já inexistentes não contam)
+     * @throws RuntimeException caso algum comando falhe; nesse caso nenhum produto é removido
      */
-    public void deleteProduct(Long id) {
-        EntityManager em = emf.createEntityManager();
+    public int deleteProducts(Collection<Long> ids) {
+        DaoMetrics.Call call = DELETE_PRODUCTS.start();
+        EntityManager em = emf().createEntityManager();
         try {
-            em.getTransaction().begin();
-            Product product = em.find(Product.class, id);
-            if (product != null) {
-                em.remove(product);
+            Tracing.Transaction transaction = Tracing.begin(em);
+            Map<Long, ProductSummaryDAO.Delta> deltas = new TreeMap<>();
+            List<Long> existing = new ArrayList<>();
+            int deleted = 0;
+            for (List<Long> chunk : chunks(ids)) {
+                for (Object[] row : lockOwnersAndPrices(em, chunk)) {
+                    existing.add((Long) row[0]);
+                    if (row[1] == null) continue;
+                    deltas.computeIfAbsent((Long) row[1], userId -> new ProductSummaryDAO.Delta()).remove((Double) row[2]);
+                    em.persist(new ProductDeletion((Long) row[0], (Long) row[1]));
+                }
+                deleted += productWrite(em, "DELETE FROM product WHERE id IN :ids")
+                        .setParameter("ids", chunk)
+                        .executeUpdate();
             }
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            em.getTransaction().rollback();
+            ProductSummaryDAO.apply(em, deltas);
+            deltas.keySet().forEach(ReadReplicas::wrote);
+            transaction.commit();
+            evictFromCache(existing, deleted > 0);
+            return deleted;
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Altera o preço e/ou a descrição de vários produtos em uma única transação, com comandos
+     * {@code UPDATE ... WHERE id IN (...)} de até {@value #BULK_CHUNK_SIZE} IDs cada.
+     * A versão de cada produto alterado é incrementada.
+     *
+     * @param ids IDs dos produtos a serem alterados
+     * @param newPrice Novo preço (opcional)
+     * @param newDescription Nova descrição (opcional)
+     * @return Quantidade de produtos alterados
+     * @throws RuntimeException caso algum comando falhe; nesse caso nenhum produto é alterado
+     */
+    public int updateProducts(Collection<Long> ids, Double newPrice, String newDescription) {
+        DaoMetrics.Call call = UPDATE_PRODUCTS.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Tracing.Transaction transaction = Tracing.begin(em);
+            Map<Long, ProductSummaryDAO.Delta> deltas = new TreeMap<>();
+            Set<Long> owners = new HashSet<>();
+            Map<String, Object> values = new LinkedHashMap<>();
+            if (newPrice != null) values.put("price", newPrice);
+            if (newDescription != null) values.put("description", newDescription);
+            int updated = 0;
+            for (List<Long> chunk : chunks(ids)) {
+                if (newPrice != null || ReadReplicas.isEnabled()) {
+                    for (Object[] row : lockOwnersAndPrices(em, chunk)) {
+                        if (row[1] == null) continue;
+                        owners.add((Long) row[1]);
+                        if (newPrice == null) continue;
+                        deltas.computeIfAbsent((Long) row[1], userId -> new ProductSummaryDAO.Delta())
+                                .replace((Double) row[2], newPrice);
+                    }
+                }
+                NativeQuery<?> query = productWrite(em, "UPDATE product SET " + assignments(values) +
+                        "version = version + 1 WHERE id IN :ids");
+                values.forEach(query::setParameter);
+                updated += query.setParameter("ids", chunk).executeUpdate();
+            }
+            ProductSummaryDAO.apply(em, deltas);
+            owners.forEach(ReadReplicas::wrote);
+            transaction.commit();
+            evictFromCache(ids, false);
+            return updated;
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * @return {@code [user_id, price]} do produto na versão informada, ou {@code null} se ela não for mais a atual
+     */
+    private static Object[] findOwnerAndPrice(EntityManager em, Long id, Long version) {
+        List<Object[]> rows = em.createQuery(
+                        "SELECT p.user.id, p.price FROM Product p WHERE p.id = :id AND p.version = :version",
+                        Object[].class
+                )
+                .setParameter("id", id)
+                .setParameter("version", version)
+                .getResultList();
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Bloqueia ({@code SELECT ... FOR UPDATE}) os produtos de uma operação em massa e retorna seus donos e
+     * preços, para que o resumo receba exatamente a diferença das linhas que o comando seguinte altera
+     * (e as exclusões sejam registradas apenas para os produtos que existiam).
+     *
+     * @return Linhas {@code [id, user_id, price]} dos produtos existentes entre {@code ids}
+     */
+    private static List<Object[]> lockOwnersAndPrices(EntityManager em, List<Long> ids) {
+        return em.createQuery("SELECT p.id, p.user.id, p.price FROM Product p WHERE p.id IN :ids ORDER BY p.id", Object[].class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    /**
+     * Divide os IDs em blocos de até {@value #BULK_CHUNK_SIZE}.
+     */
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> all = List.copyOf(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + BULK_CHUNK_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Cria um comando nativo de alteração ou exclusão na tabela {@code product}, sincronizado com
+     * {@link #PRODUCT_WRITES}: a região {@code product} do cache é mantida e o chamador descarta apenas os produtos
+     * afetados, após o commit ({@link #evictFromCache}).
+     */
+    private static NativeQuery<?> productWrite(EntityManager em, String sql) {
+        return em.createNativeQuery(sql).unwrap(NativeQuery.class).addSynchronizedQuerySpace(PRODUCT_WRITES);
+    }
+
+    /**
+     * @return {@code coluna = :coluna, } para cada coluna alterada, na ordem de {@code values}
+     */
+    private static String assignments(Map<String, Object> values) {
+        StringBuilder sql = new StringBuilder();
+        values.keySet().forEach(column -> sql.append(column).append(" = :").append(column).append(", "));
+        return sql.toString();
+    }
+
+    /**
+     * Aplica, em uma única transação, alterações feitas em uma cópia local do catálogo do usuário.
+     * <p>
+     * Alterações e exclusões só têm efeito se o produto ainda estiver na versão em que foi alterado
+     * (controle otimista, como em {@link #updateProduct}); caso contrário o resultado é um conflito e as
+     * demais alterações seguem normalmente. Excluir um produto que já não existe não é conflito.
+     * <p>
+     * Cada inclusão com {@link Change#insertKey} é registrada em {@link ProductInsert}. Se a resposta de um envio
+     * se perder e a inclusão for enviada de novo, o produto não é incluído outra vez: o resultado é o produto já
+     * incluído, e os valores reenviados, se diferentes, valem como uma alteração da versão incluída.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @param changes Alterações, em ordem
+     * @return Resultado de cada alteração, na mesma ordem
+     * @throws RuntimeException caso algum comando falhe; nesse caso nada é gravado
+     */
+    public List<ChangeResult> applyChanges(User user, List<Change> changes) {
+        DaoMetrics.Call call = APPLY_CHANGES.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Tracing.Transaction transaction = Tracing.begin(em);
+            ProductSummaryDAO.Delta delta = new ProductSummaryDAO.Delta();
+            List<ChangeResult> results = new ArrayList<>(changes.size());
+            Map<Integer, Product> inserted = new HashMap<>();
+            List<Long> written = new ArrayList<>();
+            boolean removed = false;
+
+            for (Change change : changes) {
+                switch (change.kind()) {
+                    case INSERT -> {
+                        Long existing = change.insertKey() == null ? null : findInserted(em, user, change.insertKey());
+                        if (existing != null) {
+                            results.add(resendInsert(em, user, existing, change, delta, written));
+                        } else {
+                            Product product = new Product(change.name(), change.price(), change.description());
+                            product.setUser(user);
+                            em.persist(product);
+                            if (change.insertKey() != null) {
+                                em.persist(new ProductInsert(change.insertKey(), user.getId(), product.getId()));
+                            }
+                            delta.add(change.price());
+                            inserted.put(results.size(), product);
+                            results.add(null); // preenchido após o commit, com a versão gravada
+                        }
+                    }
+                    case UPDATE -> results.add(applyUpdate(em, user, change.id(), change.baseVersion(), change, delta, written));
+                    case DELETE -> {
+                        Object[] old = findOwnerAndPrice(em, change.id(), change.baseVersion());
+                        int deleted = old == null || !user.getId().equals(old[0]) ? 0 : productWrite(em,
+                                        "DELETE FROM product WHERE id = :id AND version = :version")
+                                .setParameter("id", change.id())
+                                .setParameter("version", change.baseVersion())
+                                .executeUpdate();
+                        if (deleted == 1) {
+                            delta.remove((Double) old[1]);
+                            em.persist(new ProductDeletion(change.id(), user.getId()));
+                            written.add(change.id());
+                            removed = true;
+                        }
+                        boolean gone = deleted == 1 || em.createQuery("SELECT COUNT(p) FROM Product p WHERE p.id = :id", Long.class)
+                                .setParameter("id", change.id())
+                                .getSingleResult() == 0;
+                        results.add(new ChangeResult(gone, change.id(), null));
+                    }
+                }
+            }
+            ProductSummaryDAO.apply(em, user.getId(), delta);
+            ReadReplicas.wrote(user.getId());
+            transaction.commit();
+            evictFromCache(written, removed);
+
+            inserted.forEach((index, product) ->
+                    results.set(index, new ChangeResult(true, product.getId(), product.getVersion())));
+            return results;
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Altera um produto se ele ainda estiver na versão informada ({@link #applyChanges}).
+     *
+     * @return Resultado da alteração; conflito se o produto mudou, foi excluído ou é de outro usuário
+     */
+    private static ChangeResult applyUpdate(EntityManager em, User user, Long id, Long baseVersion, Change change,
+                                            ProductSummaryDAO.Delta delta, List<Long> written) {
+        Object[] old = findOwnerAndPrice(em, id, baseVersion);
+        int updated = old == null || !user.getId().equals(old[0]) ? 0 : productWrite(em,
+                        "UPDATE product SET name = :name, price = :price, description = :description, " +
+                                "version = version + 1 WHERE id = :id AND version = :version")
+                .setParameter("name", change.name())
+                .setParameter("price", change.price())
+                .setParameter("description", change.description())
+                .setParameter("id", id)
+                .setParameter("version", baseVersion)
+                .executeUpdate();
+        if (updated != 1) return new ChangeResult(false, id, null);
+        delta.replace((Double) old[1], change.price());
+        written.add(id);
+        return new ChangeResult(true, id, baseVersion + 1);
+    }
+
+    /**
+     * @return ID do produto gravado por uma inclusão já enviada com a chave, ou {@code null} se ela é nova
+     */
+    private static Long findInserted(EntityManager em, User user, String insertKey) {
+        List<Long> ids = em.createQuery(
+                        "SELECT i.productId FROM ProductInsert i WHERE i.insertKey = :insertKey AND i.userId = :userId",
+                        Long.class
+                )
+                .setParameter("insertKey", insertKey)
+                .setParameter("userId", user.getId())
+                .getResultList();
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * Trata uma inclusão reenviada, já gravada como o produto {@code id}. A cópia local trata a resposta como a
+     * da primeira inclusão e pode ter alterado o produto depois dela: se os valores reenviados forem diferentes,
+     * são gravados como uma alteração da versão incluída (0), com conflito se o produto já mudou no banco.
+     *
+     * @return Resultado da inclusão; conflito se o produto foi excluído ou alterado em outra sessão
+     */
+    private static ChangeResult resendInsert(EntityManager em, User user, Long id, Change change,
+                                             ProductSummaryDAO.Delta delta, List<Long> written) {
+        List<Object[]> rows = em.createQuery(
+                        "SELECT p.name, p.price, p.description, p.version FROM Product p WHERE p.id = :id", Object[].class)
+                .setParameter("id", id)
+                .getResultList();
+        if (rows.isEmpty()) return new ChangeResult(false, id, null);
+        Object[] row = rows.get(0);
+        if (Objects.equals(row[0], change.name()) && Objects.equals(row[1], change.price())
+                && Objects.equals(row[2], change.description())) {
+            return new ChangeResult(true, id, (Long) row[3]);
+        }
+        return applyUpdate(em, user, id, 0L, change, delta, written);
+    }
+
+    /**
+     * Lista ID e versão de todos os produtos do usuário, em ordem de ID, e a marca atual do catálogo, na mesma
+     * transação: o que mudar depois da leitura é recebido por {@link #changedSince} a partir da marca.
+     * <p>
+     * Projeção leve (sem entidades nem cache) usada para descobrir, por comparação com uma cópia local do
+     * catálogo, quais produtos foram incluídos, alterados ou excluídos. Lida no banco principal, como a marca
+     * ({@link #changedSince}): em uma réplica atrasada, a lista poderia não ter alterações anteriores à marca.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @return Linhas {@code [id, version]} e a marca
+     */
+    public CatalogVersions listVersionsByUser(User user) {
+        DaoMetrics.Call call = LIST_VERSIONS_BY_USER.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Tracing.Transaction transaction = Tracing.begin(em);
+            Instant marker = currentMarker(em, user);
+            List<Object[]> rows = em.createQuery(
+                            "SELECT p.id, p.version FROM Product p WHERE p.user = :user" + CATALOG_ORDER, Object[].class)
+                    .setParameter("user", user)
+                    .getResultList();
+            transaction.commit();
+            return new CatalogVersions(rows, marker);
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Busca o estado atual de produtos do usuário direto no banco, sem o cache de segundo nível (que não
+     * enxerga alterações feitas por outras instâncias da aplicação). Lida no banco principal: o resultado
+     * completa uma leitura por marca, e uma réplica atrasada devolveria versões anteriores a ela.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @param ids IDs dos produtos
+     * @return Produtos encontrados (desanexados, com o usuário informado), em ordem de ID
+     */
+    public List<Product> findCurrentByIds(User user, Collection<Long> ids) {
+        DaoMetrics.Call call = FIND_CURRENT_BY_IDS.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            List<Product> products = new ArrayList<>(ids.size());
+            for (List<Long> chunk : chunks(ids)) {
+                List<Object[]> rows = em.createQuery(
+                                "SELECT p.id, p.name, p.price, p.description, p.version FROM Product p " +
+                                        "WHERE p.user = :user AND p.id IN :ids" + CATALOG_ORDER,
+                                Object[].class
+                        )
+                        .setParameter("user", user)
+                        .setParameter("ids", chunk)
+                        .getResultList();
+                for (Object[] row : rows) {
+                    Product product = new Product((String) row[1], (Double) row[2], (String) row[3]);
+                    product.setId((Long) row[0]);
+                    product.setVersion((Long) row[4]);
+                    product.setUser(user);
+                    products.add(product);
+                }
+            }
+            return products;
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Busca os produtos do usuário incluídos, alterados ou excluídos desde uma marca, direto no banco (sem o cache
+     * de segundo nível), percorrendo apenas os índices {@code (user_id, updated_at)} e {@code (user_id, deleted_at)}:
+     * o custo depende da quantidade de alterações, não do tamanho do catálogo.
+     * <p>
+     * O {@code updated_at} é o momento do comando, não do commit: uma transação aberta pode confirmar depois
+     * alterações mais antigas que as já visíveis. Por isso a próxima marca não passa do início da transação mais
+     * antiga ainda aberta no banco principal ({@link #oldestOpenTransaction}), e o intervalo relido antes dela
+     * ({@code db.changes.overlapMillis}) cobre as confirmadas entre as duas leituras desta transação. Uma
+     * alteração pode então ser informada em mais de uma leitura seguida (com a mesma versão).
+     * A quantidade de produtos vem do resumo do catálogo, lido na mesma transação. Como as transações abertas só
+     * aparecem no banco principal, a leitura não usa as réplicas.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @param marker Marca da leitura anterior ({@link #currentChanges}, {@link #listVersionsByUser} ou
+     *               {@code changedSince}); {@code null} para todo o catálogo
+     * @return Alterações e a marca para a próxima leitura
+     */
+    public Delta changedSince(User user, Instant marker) {
+        DaoMetrics.Call call = CHANGED_SINCE.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Tracing.Transaction transaction = Tracing.begin(em);
+            Delta delta = readChanges(em, user, marker);
+            transaction.commit();
+            return delta;
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
         } finally {
             em.close();
+            call.finish();
         }
     }
 
+    /**
+     * Lê a marca atual do catálogo do usuário e, na mesma transação, as alterações na margem dela, como
+     * {@link #changedSince} a partir dessa marca. Usado no início do acompanhamento, quando o catálogo acabou de
+     * ser carregado: as alterações posteriores são recebidas a partir da marca retornada.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @return Alterações na margem da marca atual e a marca para a próxima leitura
+     */
+    public Delta currentChanges(User user) {
+        DaoMetrics.Call call = CURRENT_CHANGES.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Tracing.Transaction transaction = Tracing.begin(em);
+            Delta delta = readChanges(em, user, currentMarker(em, user));
+            transaction.commit();
+            return delta;
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Marca atual do catálogo do usuário: o momento da alteração ou exclusão mais recente, limitado ao início das
+     * transações ainda abertas ({@link #oldestOpenTransaction}).
+     *
+     * @return Marca atual, ou {@code null} se o usuário nunca teve produtos
+     */
+    private static Instant currentMarker(EntityManager em, User user) {
+        // Cada MAX é uma única leitura no fim do índice (user_id, updated_at / deleted_at)
+        Instant updated = em.createQuery("SELECT MAX(p.updatedAt) FROM Product p WHERE p.user = :user", Instant.class)
+                .setParameter("user", user)
+                .getSingleResult();
+        Instant deleted = em.createQuery(
+                        "SELECT MAX(d.deletedAt) FROM ProductDeletion d WHERE d.userId = :userId", Instant.class)
+                .setParameter("userId", user.getId())
+                .getSingleResult();
+        return earliest(latest(updated, deleted), oldestOpenTransaction(em));
+    }
+
+    /**
+     * Lê as alterações desde uma marca ({@link #changedSince}) na transação de {@code em}.
+     */
+    private static Delta readChanges(EntityManager em, User user, Instant marker) {
+        Instant since = marker == null ? Instant.EPOCH : marker.minusMillis(CHANGE_OVERLAP_MILLIS);
+        Instant next = marker;
+
+        List<Object[]> rows = em.createQuery(
+                        "SELECT p.id, p.name, p.price, p.description, p.version, p.updatedAt FROM Product p " +
+                                "WHERE p.user = :user AND p.updatedAt >= :since ORDER BY p.id",
+                        Object[].class
+                )
+                .setParameter("user", user)
+                .setParameter("since", since)
+                .getResultList();
+        List<Product> changed = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Product product = new Product((String) row[1], (Double) row[2], (String) row[3]);
+            product.setId((Long) row[0]);
+            product.setVersion((Long) row[4]);
+            product.setUser(user);
+            changed.add(product);
+            next = latest(next, (Instant) row[5]);
+        }
+
+        List<Object[]> deletions = em.createQuery(
+                        "SELECT d.productId, d.deletedAt FROM ProductDeletion d " +
+                                "WHERE d.userId = :userId AND d.deletedAt >= :since",
+                        Object[].class
+                )
+                .setParameter("userId", user.getId())
+                .setParameter("since", since)
+                .getResultList();
+        List<Long> deleted = new ArrayList<>(deletions.size());
+        for (Object[] row : deletions) {
+            deleted.add((Long) row[0]);
+            next = latest(next, (Instant) row[1]);
+        }
+
+        List<Long> counts = em.createQuery(
+                        "SELECT s.productCount FROM ProductSummary s WHERE s.userId = :userId", Long.class)
+                .setParameter("userId", user.getId())
+                .getResultList();
+        long count = !counts.isEmpty() ? counts.get(0) : em.createQuery(
+                        "SELECT COUNT(p) FROM Product p WHERE p.user = :user", Long.class)
+                .setParameter("user", user)
+                .getSingleResult();
+        next = earliest(next, oldestOpenTransaction(em));
+        return new Delta(changed, deleted, (int) count, next);
+    }
+
+    /**
+     * Retorna o início da transação mais antiga ainda aberta no banco principal, além da atual
+     * ({@code information_schema.innodb_trx}, que exige o privilégio {@code PROCESS}). As alterações que ela
+     * confirmar terão {@code updated_at} (ou {@code deleted_at}) a partir desse momento. O MySQL informa o início
+     * em segundos; a conversão para o fuso da sessão fica com o próprio banco.
+     * <p>
+     * Fora do MySQL (benchmarks em H2), não há essa informação e a marca não é limitada.
+     *
+     * @param em EntityManager da leitura, no banco principal
+     * @return Início da transação aberta mais antiga, ou {@code null} se não há outras abertas
+     */
+    private static Instant oldestOpenTransaction(EntityManager em) {
+        if (!mysql()) return null;
+        Object started = em.createNativeQuery(
+                        "SELECT UNIX_TIMESTAMP(MIN(trx_started)) FROM information_schema.innodb_trx " +
+                                "WHERE trx_mysql_thread_id <> CONNECTION_ID()")
+                .getSingleResult();
+        return started == null ? null : Instant.ofEpochSecond(((Number) started).longValue());
+    }
+
+    /**
+     * Indica se {@link #changedSince} ainda informa todas as exclusões desde a marca. As exclusões mais antigas que
+     * {@code db.changes.deletionRetentionDays} são descartadas ({@link #pruneDeletions}): uma cópia do catálogo
+     * com marca anterior precisa comparar o catálogo inteiro.
+     *
+     * @param marker Marca da última leitura
+     * @return {@code true} se a marca é recente o bastante para uma leitura por marca
+     */
+    public boolean coversChangesSince(Instant marker) {
+        return marker.isAfter(Instant.now().minus(DELETION_RETENTION).plus(RETENTION_CLOCK_MARGIN));
+    }
+
+    /**
+     * Descarta os registros de exclusão do usuário mais antigos que {@code db.changes.deletionRetentionDays},
+     * percorrendo apenas o índice {@code (user_id, deleted_at)}. Chamado por quem acompanha as alterações do
+     * catálogo, no início da sessão e uma vez por dia.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @return Quantidade de registros descartados
+     * @throws RuntimeException caso o comando falhe; a transação é desfeita
+     */
+    public int pruneDeletions(User user) {
+        DaoMetrics.Call call = PRUNE_DELETIONS.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Tracing.Transaction transaction = Tracing.begin(em);
+            int pruned = em.createQuery("DELETE FROM ProductDeletion d WHERE d.userId = :userId AND d.deletedAt < :horizon")
+                    .setParameter("userId", user.getId())
+                    .setParameter("horizon", Instant.now().minus(DELETION_RETENTION))
+                    .executeUpdate();
+            transaction.commit();
+            return pruned;
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Descarta do cache de segundo nível os produtos alterados pelos comandos nativos deste DAO ou por outra
+     * instância da aplicação, que esta instância não teria como invalidar, para que as próximas leituras os
+     * busquem no banco.
+     * <p>
+     * As consultas em cache guardam apenas os IDs dos produtos, então continuam válidas quando produtos apenas
+     * mudaram. Se produtos foram incluídos ou excluídos, as consultas sobre a tabela {@code product} (páginas e
+     * contagens do catálogo) são invalidadas, como após uma escrita desta instância; as demais são mantidas.
+     *
+     * @param ids IDs dos produtos incluídos, alterados ou excluídos
+     * @param catalogChanged {@code true} se houve inclusões ou exclusões
+     */
+    public void evictFromCache(Collection<Long> ids, boolean catalogChanged) {
+        ids.forEach(id -> emf().getCache().evict(Product.class, id));
+        if (!catalogChanged) return;
+
+        EntityManager em = emf().createEntityManager();
+        try {
+            SharedSessionContractImplementor session = em.unwrap(SharedSessionContractImplementor.class);
+            Serializable[] spaces = session.getFactory().getMappingMetamodel()
+                    .getEntityDescriptor(Product.class).getQuerySpaces();
+            session.getFactory().getCache().getTimestampsCache()
+                    .invalidate(Arrays.copyOf(spaces, spaces.length, String[].class), session);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Limita uma marca a um momento; {@code null} na marca (usuário sem produtos) ou no limite (sem limite) não
+     * altera a marca.
+     */
+    private static Instant earliest(Instant marker, Instant limit) {
+        return marker == null || limit == null || marker.isBefore(limit) ? marker : limit;
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) return b;
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
     /**
      * Lista todos os produtos cadastrados por um determinado usuário.
      *
@@ -105,16 +1030,406 @@ public class ProductDAO {
      * @return Lista de produtos associados ao usuário
      */
     public List<Product> listByUser(User user) {
-        EntityManager em = emf.createEntityManager();
+        DaoMetrics.Call call = LIST_BY_USER.start();
+        EntityManager em = emf().createEntityManager();
         try {
             TypedQuery<Product> query = em.createQuery(
                     "SELECT p FROM Product p WHERE p.user = :user",
                     Product.class
             );
             query.setParameter("user", user);
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
             return query.getResultList();
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Conta os produtos cadastrados por um usuário.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @return Quantidade de produtos do usuário
+     */
+    public int countByUser(User user) {
+        DaoMetrics.Call call = COUNT_BY_USER.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            return em.createQuery("SELECT COUNT(p) FROM Product p WHERE p.user = :user", Long.class)
+                    .setParameter("user", user)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .getSingleResult()
+                    .intValue();
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Lista uma página de produtos do usuário em ordem de ID, usando paginação por chave (keyset):
+     * a busca parte do último ID da página anterior, evitando o custo crescente do {@code OFFSET}.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @param afterId Último ID da página anterior, ou {@code null} para a primeira página
+     * @param limit Quantidade máxima de produtos na página
+     * @return Produtos com ID maior que {@code afterId}, em ordem crescente
+     */
+    public List<Product> listPageByUser(User user, Long afterId, int limit) {
+        DaoMetrics.Call call = LIST_PAGE_BY_USER.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT p FROM Product p WHERE p.user = :user AND p.id > :afterId" + CATALOG_ORDER,
+                            Product.class
+                    )
+                    .setParameter("user", user)
+                    .setParameter("afterId", afterId == null ? 0L : afterId)
+                    .setMaxResults(limit)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .getResultList();
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Retorna o ID do produto na posição informada do catálogo do usuário (ordenado por ID).
+     * <p>
+     * Usado para localizar o início de uma página distante sem carregar as anteriores;
+     * a consulta percorre apenas o índice {@code (user_id, id)}.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @param offset Posição (base zero) no catálogo
+     * @return ID encontrado ou {@code null} se a posição estiver além do fim
+     */
+    public Long findIdAtOffset(User user, int offset) {
+        DaoMetrics.Call call = FIND_ID_AT_OFFSET.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            List<Long> ids = em.createQuery(
+                            "SELECT p.id FROM Product p WHERE p.user = :user" + CATALOG_ORDER,
+                            Long.class
+                    )
+                    .setParameter("user", user)
+                    .setFirstResult(offset)
+                    .setMaxResults(1)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .getResultList();
+            return ids.isEmpty() ? null : ids.get(0);
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Busca vários produtos pelos IDs, na mesma ordem da lista informada.
+     * <p>
+     * Produtos já presentes no cache de segundo nível não vão ao banco; os demais são buscados
+     * em lotes com {@code IN}.
+     *
+     * @param ids IDs dos produtos
+     * @return Produtos encontrados, na ordem dos IDs (IDs inexistentes são ignorados)
+     */
+    public List<Product> findByIds(List<Long> ids) {
+        DaoMetrics.Call call = FIND_BY_IDS.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            return em.unwrap(Session.class)
+                    .byMultipleIds(Product.class)
+                    .multiLoad(ids)
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .toList();
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Lista ID, nome e descrição de uma página de produtos do usuário, em ordem de ID (keyset).
+     * <p>
+     * Projeção leve para montar índices de busca: não cria entidades nem ocupa o cache de segundo nível.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @param afterId Último ID da página anterior, ou {@code null} para a primeira página
+     * @param limit Quantidade máxima de linhas
+     * @return Linhas {@code [id, name, description]} com ID maior que {@code afterId}
+     */
+    public List<Object[]> listSearchTextPage(User user, Long afterId, int limit) {
+        DaoMetrics.Call call = LIST_SEARCH_TEXT_PAGE.start();
+        ReadReplicas.Route route = ReadReplicas.replica(user.getId());
+        EntityManager em = route.createEntityManager(emf());
+        try {
+            return em.createQuery(
+                            "SELECT p.id, p.name, p.description FROM Product p " +
+                                    "WHERE p.user = :user AND p.id > :afterId" + CATALOG_ORDER,
+                            Object[].class
+                    )
+                    .setParameter("user", user)
+                    .setParameter("afterId", afterId == null ? 0L : afterId)
+                    .setMaxResults(limit)
+                    .getResultList();
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
+        } finally {
+            em.close();
+            route.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Percorre todos os produtos do usuário em ordem de ID, sem carregá-los de uma vez.
+     * <p>
+     * A leitura usa uma {@link StatelessSession} (sem contexto de persistência nem cache) e um cursor
+     * somente para frente; cada linha é uma projeção {@code [id, name, price, description]}, então nenhuma
+     * entidade é criada ou mantida e a memória usada não depende do tamanho do catálogo.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @param handler Recebe cada linha; devolve {@code false} para interromper a leitura
+     * @return Quantidade de linhas entregues ao {@code handler}
+     */
+    public long scrollByUser(User user, Predicate<Object[]> handler) {
+        DaoMetrics.Call call = SCROLL_BY_USER.start();
+        ReadReplicas.Route route = ReadReplicas.replica(user.getId());
+        try (StatelessSession session = emf().unwrap(SessionFactory.class).openStatelessSession();
+             ScrollableResults<Object[]> rows = session.createQuery(
+                             "SELECT p.id, p.name, p.price, p.description FROM Product p " +
+                                     "WHERE p.user = :user" + CATALOG_ORDER,
+                             Object[].class
+                     )
+                     .setParameter("user", user)
+                     .setFetchSize(scrollFetchSize())
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            long count = 0;
+            while (rows.next()) {
+                count++;
+                if (!handler.test(rows.get())) break;
+            }
+            return count;
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
+        } finally {
+            route.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Busca produtos do usuário por palavras do nome ou da descrição, direto no banco.
+     * <p>
+     * Todas as palavras precisam aparecer, cada uma como início de uma palavra do nome ou da descrição. Os
+     * resultados vêm em ordem de relevância e são paginados por chave: a página seguinte parte do cursor do
+     * último resultado, estritamente depois dele na ordem {@code (relevância decrescente, ID)}, sem {@code OFFSET}.
+     * No MySQL a consulta usa o índice FULLTEXT {@code ft_product_name_description}.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @param term Termo digitado
+     * @param after Cursor do último resultado da página anterior, ou {@code null} para a primeira página
+     * @param limit Quantidade máxima de resultados
+     * @return Resultados em ordem de relevância decrescente e, no empate, de ID
+     */
+    public List<SearchHit> search(User user, String term, SearchCursor after, int limit) {
+        List<String> words = searchWords(term);
+        if (words.isEmpty()) return List.of();
+
+        DaoMetrics.Call call = SEARCH.start();
+        ReadReplicas.Route route = ReadReplicas.replica(user.getId());
+        EntityManager em = route.createEntityManager(emf());
+        try {
+            List<Object> params = new ArrayList<>();
+            StringBuilder sql = new StringBuilder("SELECT s.id, s.score FROM (")
+                    .append(scoredSearchSql(user, words, params))
+                    .append(") s");
+            if (after != null) {
+                // Depois do cursor: relevância menor ou, no empate, ID maior
+                BigDecimal score = BigDecimal.valueOf(after.score());
+                sql.append(" WHERE s.score < ? OR (s.score = ? AND s.id > ?)");
+                params.addAll(List.of(score, score, after.id()));
+            }
+            sql.append(" ORDER BY s.score DESC, s.id");
+
+            Query query = em.createNativeQuery(sql.toString()).setMaxResults(limit);
+            bind(query, params);
+            return toHits(em, query.getResultList());
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
         } finally {
             em.close();
+            route.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Conta os resultados de uma {@link #search busca}.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @param term Termo digitado
+     * @return Quantidade de produtos encontrados
+     */
+    public int countSearch(User user, String term) {
+        List<String> words = searchWords(term);
+        if (words.isEmpty()) return 0;
+
+        DaoMetrics.Call call = COUNT_SEARCH.start();
+        ReadReplicas.Route route = ReadReplicas.replica(user.getId());
+        EntityManager em = route.createEntityManager(emf());
+        try {
+            List<Object> params = new ArrayList<>();
+            Query query = em.createNativeQuery("SELECT COUNT(*) FROM (" + scoredSearchSql(user, words, params) + ") s");
+            bind(query, params);
+            return ((Number) query.getSingleResult()).intValue();
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
+        } finally {
+            em.close();
+            route.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Retorna o cursor do resultado na posição informada de uma {@link #search busca}.
+     * Usado para localizar o início de uma página distante sem carregar as anteriores.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @param term Termo digitado
+     * @param offset Posição (base zero) nos resultados
+     * @return Cursor encontrado ou {@code null} se a posição estiver além do fim
+     */
+    public SearchCursor findSearchCursorAt(User user, String term, int offset) {
+        List<String> words = searchWords(term);
+        if (words.isEmpty()) return null;
+
+        DaoMetrics.Call call = FIND_SEARCH_CURSOR_AT.start();
+        ReadReplicas.Route route = ReadReplicas.replica(user.getId());
+        EntityManager em = route.createEntityManager(emf());
+        try {
+            List<Object> params = new ArrayList<>();
+            Query query = em.createNativeQuery("SELECT s.id, s.score FROM (" + scoredSearchSql(user, words, params) + ") s" +
+                            " ORDER BY s.score DESC, s.id")
+                    .setFirstResult(offset)
+                    .setMaxResults(1);
+            bind(query, params);
+            List<?> rows = query.getResultList();
+            if (rows.isEmpty()) return null;
+            Object[] row = (Object[]) rows.get(0);
+            return new SearchCursor(((Number) row[1]).doubleValue(), ((Number) row[0]).longValue());
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
+        } finally {
+            em.close();
+            route.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Monta a subconsulta {@code (id, score)} com os produtos do usuário que contêm todas as palavras, cada uma
+     * como prefixo de uma palavra do nome ou da descrição.
+     * <p>
+     * MySQL: {@code MATCH ... AGAINST} em modo booleano, com cada palavra obrigatória e como prefixo.
+     * Outros bancos (H2 nos benchmarks): {@code LIKE} no início do texto ou após um espaço, valendo 2 pontos no nome
+     * e 1 na descrição. As relevâncias diferem das do MySQL, e o FULLTEXT ainda separa palavras também na
+     * pontuação e ignora palavras vazias ({@code stopwords}) e menores que {@code innodb_ft_min_token_size}.
+     */
+    private static String scoredSearchSql(User user, List<String> words, List<Object> params) {
+        if (mysql()) {
+            StringBuilder against = new StringBuilder();
+            for (String word : words) against.append('+').append(word).append("* ");
+            String match = "MATCH(p.name, p.description) AGAINST (? IN BOOLEAN MODE)";
+            params.addAll(List.of(against.toString().trim(), user.getId(), against.toString().trim()));
+            return "SELECT p.id AS id, CAST(" + match + " AS " + SEARCH_SCORE_TYPE + ") AS score" +
+                    " FROM product p WHERE p.user_id = ? AND " + match;
+        }
+
+        StringBuilder score = new StringBuilder();
+        StringBuilder filter = new StringBuilder();
+        List<Object> scoreParams = new ArrayList<>();
+        List<Object> filterParams = new ArrayList<>();
+        for (String word : words) {
+            List<String> patterns = List.of(word + "%", "% " + word + "%");
+            String name = "(LOWER(p.name) LIKE ? OR LOWER(p.name) LIKE ?)";
+            String description = "(LOWER(p.description) LIKE ? OR LOWER(p.description) LIKE ?)";
+            if (!score.isEmpty()) score.append(" + ");
+            score.append("CASE WHEN ").append(name).append(" THEN 2 ELSE 0 END + CASE WHEN ")
+                    .append(description).append(" THEN 1 ELSE 0 END");
+            scoreParams.addAll(patterns);
+            scoreParams.addAll(patterns);
+            filter.append(" AND (").append(name).append(" OR ").append(description).append(')');
+            filterParams.addAll(patterns);
+            filterParams.addAll(patterns);
+        }
+        params.addAll(scoreParams);
+        params.add(user.getId());
+        params.addAll(filterParams);
+        return "SELECT p.id AS id, CAST(" + score + " AS " + SEARCH_SCORE_TYPE + ") AS score" +
+                " FROM product p WHERE p.user_id = ?" + filter;
+    }
+
+    /**
+     * Separa o termo em palavras, mantendo apenas letras e dígitos (descarta operadores de busca e curingas).
+     */
+    private static List<String> searchWords(String term) {
+        if (term == null) return List.of();
+        return Arrays.stream(term.toLowerCase(Locale.ROOT).split("\\s+"))
+                .map(word -> word.codePoints()
+                        .filter(Character::isLetterOrDigit)
+                        .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                        .toString())
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    private static void bind(Query query, List<Object> params) {
+        for (int i = 0; i < params.size(); i++) {
+            query.setParameter(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * Converte as linhas {@code (id, score)} em resultados, carregando os produtos pelo cache de segundo nível.
+     */
+    private static List<SearchHit> toHits(EntityManager em, List<?> rows) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        Map<Long, Double> scores = new HashMap<>();
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            Long id = ((Number) columns[0]).longValue();
+            ids.add(id);
+            scores.put(id, ((Number) columns[1]).doubleValue());
+        }
+
+        List<SearchHit> hits = new ArrayList<>(ids.size());
+        for (Product product : em.unwrap(Session.class).byMultipleIds(Product.class).multiLoad(ids)) {
+            if (product != null) hits.add(new SearchHit(product, scores.get(product.getId())));
         }
+        return hits;
     }
-}
\ No newline at end of file
+}
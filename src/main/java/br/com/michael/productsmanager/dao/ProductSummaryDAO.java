@@ -0,0 +1,278 @@
+package br.com.michael.productsmanager.dao;
+
+import br.com.michael.productsmanager.model.ProductSummary;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DaoMetrics;
+import br.com.michael.productsmanager.util.JPAUtil;
+import br.com.michael.productsmanager.util.ReadReplicas;
+import br.com.michael.productsmanager.util.Tracing;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Map;
+
+/**
+ * DAO do resumo do catálogo ({@link ProductSummary}).
+ * <p>
+ * A leitura é uma busca pela chave primária. A manutenção é feita pelo {@link ProductDAO}, que acumula a
+ * diferença de cada escrita em um {@link Delta} e a aplica com {@link #apply} na mesma transação, com um
+ * único {@code UPDATE} por usuário: contagem e total são somados; mínimo e máximo são comparados aos preços
+ * incluídos e só são lidos de novo, do índice {@code (user_id, price)}, quando o preço removido era o limite.
+ * O {@code UPDATE} bloqueia a linha do resumo até o fim da transação, serializando as escritas de um mesmo usuário.
+ */
+public class ProductSummaryDAO {
+
+    // Latência de cada método público (DaoMetrics)
+    private static final DaoMetrics.Operation FIND_BY_USER = DaoMetrics.operation("ProductSummaryDAO.findByUser");
+    private static final DaoMetrics.Operation VERIFY = DaoMetrics.operation("ProductSummaryDAO.verify");
+
+    /** Fábrica de EntityManager compartilhada, obtida a cada uso e não no carregamento da classe. */
+    private static EntityManagerFactory emf() {
+        return JPAUtil.getEntityManagerFactory();
+    }
+
+    /**
+     * Resultado de uma verificação de consistência.
+     *
+     * @param stored Resumo que estava gravado ({@code null} se ainda não existia)
+     * @param rebuilt Resumo recalculado a partir da tabela {@code product}, agora gravado
+     */
+    public record Verification(ProductSummary stored, ProductSummary rebuilt) {
+
+        /**
+         * @return {@code true} se o resumo gravado estava correto
+         */
+        public boolean consistent() {
+            return stored != null && stored.matches(rebuilt);
+        }
+    }
+
+    /**
+     * Diferença que uma transação aplica ao resumo de um usuário.
+     */
+    static final class Delta {
+        private long count;
+        private double total;
+        private double addedMin = Double.POSITIVE_INFINITY;
+        private double addedMax = Double.NEGATIVE_INFINITY;
+        private double removedMin = Double.POSITIVE_INFINITY;
+        private double removedMax = Double.NEGATIVE_INFINITY;
+
+        /**
+         * Acumula a diferença de um produto que entrou no catálogo (ou recebeu um novo preço).
+         */
+        void add(Double price) {
+            count++;
+            if (price == null) return;
+            total += price;
+            addedMin = Math.min(addedMin, price);
+            addedMax = Math.max(addedMax, price);
+        }
+
+        /**
+         * Acumula a diferença de um produto que saiu do catálogo (ou deixou de ter o preço antigo).
+         */
+        void remove(Double price) {
+            count--;
+            if (price == null) return;
+            total -= price;
+            removedMin = Math.min(removedMin, price);
+            removedMax = Math.max(removedMax, price);
+        }
+
+        /**
+         * Registra a troca de preço de um produto que continua no catálogo.
+         */
+        void replace(Double oldPrice, Double newPrice) {
+            remove(oldPrice);
+            add(newPrice);
+        }
+    }
+
+    /**
+     * Retorna o resumo do catálogo do usuário.
+     * <p>
+     * Se o resumo ainda não existir (usuário sem escritas desde a criação da tabela), ele é calculado e gravado.
+     * Com réplicas de leitura, a leitura vai a uma réplica, exceto logo após uma escrita no catálogo do usuário.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @return Resumo atual do catálogo
+     */
+    public ProductSummary findByUser(User user) {
+        DaoMetrics.Call call = FIND_BY_USER.start();
+        ReadReplicas.Route route = ReadReplicas.replica(user.getId());
+        EntityManager em = route.createEntityManager(emf());
+        ProductSummary summary;
+        try {
+            summary = em.find(ProductSummary.class, user.getId());
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
+        } finally {
+            em.close();
+            route.close();
+            call.finish();
+        }
+        // Gravação: fora do roteamento para a réplica
+        return summary != null ? summary : verify(user).rebuilt();
+    }
+
+    /**
+     * Recalcula o resumo do usuário do zero, a partir da tabela {@code product}, e o grava.
+     * <p>
+     * A linha do resumo é bloqueada antes do recálculo: escritas concorrentes esperam e aplicam sua
+     * diferença sobre o valor recalculado. Se o resumo ainda não existir, ele é criado já recalculado
+     * ({@link #insertIfAbsent}), sem o bloqueio: no MySQL, a leitura com bloqueio de uma linha inexistente
+     * bloqueia o intervalo da chave, e duas verificações simultâneas entrariam em deadlock ao criá-la.
+     *
+     * @param user Usuário proprietário dos produtos
+     * @return Resumo gravado antes da verificação e o resumo recalculado
+     * @throws RuntimeException caso a gravação falhe; a transação é desfeita
+     */
+    public Verification verify(User user) {
+        DaoMetrics.Call call = VERIFY.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Tracing.Transaction transaction = Tracing.begin(em);
+            boolean created = !exists(em, user.getId()) && insertIfAbsent(em, user.getId());
+            ProductSummary stored = created ? null
+                    : em.find(ProductSummary.class, user.getId(), LockModeType.PESSIMISTIC_WRITE);
+            ProductSummary snapshot = stored == null ? null : new ProductSummary(stored.getUserId(),
+                    stored.getProductCount(), stored.getTotalValue(), stored.getMinPrice(), stored.getMaxPrice());
+
+            ProductSummary rebuilt = compute(em, user.getId());
+            if (stored != null) em.merge(rebuilt);
+            ReadReplicas.wrote(user.getId());
+            transaction.commit();
+            return new Verification(snapshot, rebuilt);
+        } catch (RuntimeException e) {
+            call.fail();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Aplica as diferenças acumuladas na transação corrente, em ordem de ID do usuário
+     * (evitando que duas transações bloqueiem os mesmos resumos em ordens diferentes).
+     *
+     * @param em EntityManager com a transação ativa, após os comandos sobre {@code product}
+     * @param deltas Diferença por ID de usuário, ordenada pelo ID
+     */
+    static void apply(EntityManager em, Map<Long, Delta> deltas) {
+        deltas.forEach((userId, delta) -> apply(em, userId, delta));
+    }
+
+    /**
+     * Aplica a diferença de um usuário com um único {@code UPDATE}. Se o resumo ainda não existir,
+     * ele é criado a partir da tabela {@code product}, que já inclui as alterações da transação
+     * ({@link #insertIfAbsent}); se outra transação o criar nesse meio-tempo, a diferença é aplicada sobre ele.
+     *
+     * @param em EntityManager com a transação ativa, após os comandos sobre {@code product}
+     * @param userId ID do usuário
+     * @param delta Diferença acumulada
+     */
+    static void apply(EntityManager em, Long userId, Delta delta) {
+        boolean added = delta.addedMin <= delta.addedMax;
+        boolean removed = delta.removedMin <= delta.removedMax;
+        if (delta.count == 0 && !added && !removed) return;
+
+        // Pendências do contexto (produtos persistidos) precisam estar no banco para os MIN/MAX e o recálculo
+        em.flush();
+
+        // SQL nativo: o HQL gera um CAST do parâmetro double que o H2 dos benchmarks não aceita. Sincronizado
+        // só com o resumo, o comando não invalida a região "product" do cache de segundo nível
+        StringBuilder update = new StringBuilder("UPDATE product_summary SET ")
+                .append("product_count = product_count + :count, total_value = total_value + :total");
+        if (added || removed) {
+            update.append(", min_price = ").append(boundary("min_price", "<", added, removed, "ASC"))
+                    .append(", max_price = ").append(boundary("max_price", ">", added, removed, "DESC"));
+        }
+        NativeQuery<?> query = em.createNativeQuery(update.append(" WHERE user_id = :userId").toString())
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ProductSummary.class);
+        query.setParameter("count", delta.count)
+                .setParameter("total", delta.total)
+                .setParameter("userId", userId);
+        if (added) {
+            query.setParameter("added_min_price", delta.addedMin).setParameter("added_max_price", delta.addedMax);
+        }
+        if (removed) {
+            query.setParameter("removed_min_price", delta.removedMin).setParameter("removed_max_price", delta.removedMax);
+        }
+
+        if (query.executeUpdate() == 0 && !insertIfAbsent(em, userId)) {
+            // Criado por outra transação, que não enxergava as alterações desta
+            query.executeUpdate();
+        }
+    }
+
+    /**
+     * Cria o resumo do usuário a partir da tabela {@code product}, se ainda não existir.
+     * <p>
+     * Com {@code INSERT IGNORE} (aceito também pelo H2 em modo MySQL), uma criação simultânea não falha
+     * por chave duplicada: o comando espera a outra transação e, confirmada a linha dela, não insere nada.
+     *
+     * @return {@code true} se o resumo foi criado por este comando
+     */
+    private static boolean insertIfAbsent(EntityManager em, Long userId) {
+        return em.createNativeQuery("INSERT IGNORE INTO product_summary " +
+                        "(user_id, product_count, total_value, min_price, max_price) " +
+                        "SELECT u.id, COUNT(p.id), COALESCE(SUM(p.price), 0), MIN(p.price), MAX(p.price) " +
+                        "FROM user u LEFT JOIN product p ON p.user_id = u.id WHERE u.id = :userId GROUP BY u.id")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ProductSummary.class)
+                .setParameter("userId", userId)
+                .executeUpdate() == 1;
+    }
+
+    private static boolean exists(EntityManager em, Long userId) {
+        return !em.createQuery("SELECT s.userId FROM ProductSummary s WHERE s.userId = :userId", Long.class)
+                .setParameter("userId", userId)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Expressão do novo mínimo (ou máximo). Se um preço removido era o limite atual, o limite é lido de novo
+     * do índice {@code (user_id, price)}, já com as alterações da transação; senão, basta compará-lo aos
+     * preços incluídos.
+     *
+     * @param column {@code min_price} ou {@code max_price}
+     * @param better {@code <} para o mínimo, {@code >} para o máximo
+     * @param order Ordem do índice em que o limite é o primeiro registro
+     */
+    private static String boundary(String column, String better, boolean added, boolean removed, String order) {
+        String kept = added
+                ? "CASE WHEN " + column + " IS NULL OR :added_" + column + " " + better + " " + column +
+                " THEN :added_" + column + " ELSE " + column + " END"
+                : column;
+        if (!removed) return kept;
+        String worse = better.equals("<") ? ">" : "<";
+        // ORDER BY inclui user_id para que o otimizador (o H2 inclusive) siga o índice sem ordenar
+        return "CASE WHEN " + column + " IS NULL OR NOT (:removed_" + column + " " + worse + " " + column + ")" +
+                " THEN (SELECT p.price FROM product p WHERE p.user_id = :userId AND p.price IS NOT NULL" +
+                " ORDER BY p.user_id " + order + ", p.price " + order + " LIMIT 1)" +
+                " ELSE " + kept + " END";
+    }
+
+    /**
+     * Calcula o resumo do usuário com uma consulta de agregação sobre a tabela {@code product}.
+     */
+    private static ProductSummary compute(EntityManager em, Long userId) {
+        Object[] row = em.createQuery(
+                        "SELECT COUNT(p), COALESCE(SUM(p.price), 0), MIN(p.price), MAX(p.price) " +
+                                "FROM Product p WHERE p.user.id = :userId",
+                        Object[].class
+                )
+                .setParameter("userId", userId)
+                .getSingleResult();
+        return new ProductSummary(userId, ((Number) row[0]).longValue(), ((Number) row[1]).doubleValue(),
+                (Double) row[2], (Double) row[3]);
+    }
+}
@@ -1,10 +1,14 @@
 package br.com.michael.productsmanager.dao;
 
 import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DaoMetrics;
 import br.com.michael.productsmanager.util.JPAUtil;
+import br.com.michael.productsmanager.util.ReadReplicas;
+import br.com.michael.productsmanager.util.Tracing;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import java.util.List;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
 
 /**
  * DAO responsável pelas operações de persistência da entidade {@link User}.
@@ -12,8 +16,24 @@ import java.util.List;
  */
 public class UserDAO {
 
-    /** Fábrica de EntityManager compartilhada por toda a aplicação. */
-    private static final EntityManagerFactory emf = JPAUtil.getEntityManagerFactory();
+    // Latência de cada método público (DaoMetrics)
+    private static final DaoMetrics.Operation SAVE = DaoMetrics.operation("UserDAO.save");
+    private static final DaoMetrics.Operation REGISTER = DaoMetrics.operation("UserDAO.register");
+    private static final DaoMetrics.Operation FIND_BY_USERNAME = DaoMetrics.operation("UserDAO.findByUsername");
+    private static final DaoMetrics.Operation UPDATE_PASSWORD = DaoMetrics.operation("UserDAO.updatePassword");
+
+    /**
+     * Fábrica de EntityManager compartilhada por toda a aplicação.
+     * <p>
+     * Obtida a cada uso, e não no carregamento da classe: o {@code AuthService} cria este DAO quando a tela
+     * de login é carregada, e a thread de interface não deve esperar pela construção da fábrica.
+     */
+    private static EntityManagerFactory emf() {
+        return JPAUtil.getEntityManagerFactory();
+    }
+
+    /** Resultado de um {@link #register(User) registro}. */
+    public enum RegisterResult { CREATED, USERNAME_TAKEN, FAILED }
 
     /**
      * Persiste um novo usuário no banco de dados.
@@ -22,39 +42,125 @@ public class UserDAO {
      * @return {@code true} se salvo com sucesso, {@code false} se houver erro
      */
     public boolean save(User user) {
-        EntityManager em = emf.createEntityManager();
+        DaoMetrics.Call call = SAVE.start();
+        EntityManager em = emf().createEntityManager();
         try {
-            em.getTransaction().begin();
+            Tracing.Transaction transaction = Tracing.begin(em);
             em.persist(user);
-            em.getTransaction().commit();
+            ReadReplicas.wrote(user.getUsername());
+            transaction.commit();
             return true;
         } catch (Exception e) {
+            call.fail();
             em.getTransaction().rollback();
             return false;
         } finally {
             em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Registra um novo usuário com uma única ida ao banco.
+     * <p>
+     * Não consulta o username antes: insere direto e deixa o índice único {@code uk_user_username}
+     * decidir, o que também é correto com cadastros simultâneos do mesmo nome.
+     *
+     * @param user Usuário a ser registrado (senha já criptografada)
+     * @return {@code CREATED}, {@code USERNAME_TAKEN} se o nome já existir ou {@code FAILED} em outros erros
+     */
+    public RegisterResult register(User user) {
+        DaoMetrics.Call call = REGISTER.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Tracing.Transaction transaction = Tracing.begin(em);
+            em.persist(user);
+            em.flush();
+            ReadReplicas.wrote(user.getUsername());
+            transaction.commit();
+            return RegisterResult.CREATED;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            if (isConstraintViolation(e)) {
+                return RegisterResult.USERNAME_TAKEN;
+            }
+            call.fail();
+            e.printStackTrace();
+            return RegisterResult.FAILED;
+        } finally {
+            em.close();
+            call.finish();
         }
     }
 
     /**
      * Busca um usuário pelo nome de login (username).
+     * <p>
+     * O username é o identificador natural da entidade: a busca usa o índice único e,
+     * depois da primeira vez, é resolvida pelo cache de segundo nível sem ir ao banco. Com réplicas de leitura,
+     * vai a uma réplica, exceto logo após o cadastro do mesmo username.
      *
      * @param username Nome de usuário a ser buscado
      * @return {@code User} correspondente ou {@code null} se não encontrado
      */
     public User findByUsername(String username) {
-        EntityManager em = emf.createEntityManager();
+        DaoMetrics.Call call = FIND_BY_USERNAME.start();
+        ReadReplicas.Route route = ReadReplicas.replica(username);
+        EntityManager em = route.createEntityManager(emf());
         try {
-            List<User> results = em.createQuery(
-                            "SELECT u FROM User u WHERE u.username = :username",
-                            User.class
-                    )
-                    .setParameter("username", username)
-                    .getResultList();
-
-            return results.isEmpty() ? null : results.get(0);
+            return em.unwrap(Session.class)
+                    .bySimpleNaturalId(User.class)
+                    .load(username);
+        } catch (RuntimeException e) {
+            call.fail();
+            throw e;
         } finally {
             em.close();
+            route.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Substitui o hash de senha de um usuário (ex: ao recriptografar com um custo maior).
+     *
+     * @param id ID do usuário
+     * @param passwordHash Novo hash BCrypt da senha
+     * @return {@code true} se atualizado com sucesso, {@code false} se houver erro ou o usuário não existir
+     */
+    public boolean updatePassword(Long id, String passwordHash) {
+        DaoMetrics.Call call = UPDATE_PASSWORD.start();
+        EntityManager em = emf().createEntityManager();
+        try {
+            Tracing.Transaction transaction = Tracing.begin(em);
+            User user = em.find(User.class, id);
+            if (user != null) {
+                user.setPassword(passwordHash);
+            }
+            transaction.commit();
+            return user != null;
+        } catch (Exception e) {
+            call.fail();
+            em.getTransaction().rollback();
+            return false;
+        } finally {
+            em.close();
+            call.finish();
+        }
+    }
+
+    /**
+     * Verifica se a causa de um erro é a violação de uma restrição do banco.
+     * A única restrição da tabela {@code user} é o índice único do username.
+     */
+    private static boolean isConstraintViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
         }
+        return false;
     }
-}
\ No newline at end of file
+}
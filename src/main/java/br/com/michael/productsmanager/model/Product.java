@@ -1,20 +1,42 @@
 package br.com.michael.productsmanager.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
 
 /**
  * Entidade que representa um produto no sistema.
  * <p>
  * Cada produto contém informações básicas e está associado a um usuário responsável.
+ * Mantido no cache de segundo nível (região {@code product}).
+ * <p>
+ * O índice {@code (user_id, price)} permite recalcular o menor e o maior preço do catálogo de um
+ * usuário ({@link ProductSummary}) sem percorrer os produtos. O índice {@code (user_id, updated_at)} permite
+ * buscar apenas os produtos alterados desde uma leitura anterior.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_user_price", columnList = "user_id, price"),
+        @Index(name = "idx_product_user_updated", columnList = "user_id, updated_at")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 public class Product {
 
     /**
      * Identificador único do produto.
+     * <p>
+     * Alocado em blocos pela tabela {@code id_generator}, o que permite ao Hibernate
+     * agrupar inserções em lotes JDBC (impossível com {@code IDENTITY}).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_id")
+    @TableGenerator(name = "product_id", table = "id_generator",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "product", allocationSize = 50)
     private Long id;
 
     /**
@@ -39,6 +61,26 @@ public class Product {
     @JoinColumn(name = "user_id")
     private User user;
 
+    /**
+     * Versão do registro, incrementada a cada alteração.
+     * <p>
+     * Usada no controle de concorrência otimista: uma alteração só é gravada se a versão
+     * no banco ainda for a mesma que foi lida.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Momento da última inclusão ou alteração, gravado pelo próprio banco em qualquer escrita.
+     * <p>
+     * Não é relido após as escritas da aplicação: serve apenas às consultas de alterações recentes.
+     */
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "timestamp(6) default current_timestamp(6) on update current_timestamp(6)")
+    private Instant updatedAt;
+
     /**
      * Construtor padrão exigido pelo JPA.
      */
@@ -97,6 +139,18 @@ public class Product {
         this.user = user;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
     /**
      * Retorna uma representação simplificada do produto.
      *
@@ -0,0 +1,65 @@
+package br.com.michael.productsmanager.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Registro da exclusão de um produto.
+ * <p>
+ * Gravado pelo {@code ProductDAO} na mesma transação que remove o produto, para que quem acompanha as
+ * alterações do catálogo ({@code ProductDAO.changedSince}) também descubra as exclusões. Os registros são
+ * mantidos por {@code db.changes.deletionRetentionDays} ({@code ProductDAO.pruneDeletions}); cópias do catálogo
+ * desatualizadas há mais tempo comparam o catálogo inteiro.
+ */
+@Entity
+@Table(name = "product_deletion",
+        indexes = @Index(name = "idx_product_deletion_user_deleted", columnList = "user_id, deleted_at"))
+public class ProductDeletion {
+
+    /**
+     * ID do produto excluído (IDs de produtos não são reutilizados).
+     */
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    /**
+     * ID do usuário dono do produto.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Momento da exclusão, gravado pelo próprio banco.
+     */
+    @Column(name = "deleted_at", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "timestamp(6) default current_timestamp(6)")
+    private Instant deletedAt;
+
+    /**
+     * Construtor padrão exigido pelo JPA.
+     */
+    public ProductDeletion() {}
+
+    /**
+     * @param productId ID do produto excluído
+     * @param userId ID do dono do produto
+     */
+    public ProductDeletion(Long productId, Long userId) {
+        this.productId = productId;
+        this.userId = userId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
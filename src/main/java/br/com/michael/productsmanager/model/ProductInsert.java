@@ -0,0 +1,63 @@
+package br.com.michael.productsmanager.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Registro de uma inclusão enviada por uma cópia local do catálogo.
+ * <p>
+ * Gravado pelo {@code ProductDAO.applyChanges} na mesma transação que inclui o produto. Se a resposta do envio se
+ * perder, a cópia envia a inclusão de novo com a mesma chave, e o produto já incluído é devolvido em vez de
+ * duplicado. Os registros não são descartados: uma cópia pode reenviar a inclusão depois de muito tempo sem acesso
+ * ao banco central.
+ */
+@Entity
+@Table(name = "product_insert")
+public class ProductInsert {
+
+    /**
+     * Chave da inclusão: ID da cópia local e ID local do produto ({@code ProductDAO.Change.insertKey}).
+     */
+    @Id
+    @Column(name = "insert_key", length = 64)
+    private String insertKey;
+
+    /**
+     * ID do usuário dono do produto.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * ID do produto incluído.
+     */
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    /**
+     * Construtor padrão exigido pelo JPA.
+     */
+    public ProductInsert() {}
+
+    /**
+     * @param insertKey Chave da inclusão
+     * @param userId ID do dono do produto
+     * @param productId ID do produto incluído
+     */
+    public ProductInsert(String insertKey, Long userId, Long productId) {
+        this.insertKey = insertKey;
+        this.userId = userId;
+        this.productId = productId;
+    }
+
+    public String getInsertKey() {
+        return insertKey;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.michael.productsmanager.model;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * Resumo do catálogo de um usuário: quantidade de produtos, valor total e preços mínimo e máximo.
+ * <p>
+ * Mantido incrementalmente pelo {@code ProductDAO} na mesma transação de cada inclusão, alteração e
+ * exclusão de produtos, para que a leitura seja uma única linha, qualquer que seja o tamanho do catálogo.
+ * O {@code ProductSummaryDAO} pode recalculá-lo a partir da tabela {@code product} a qualquer momento.
+ */
+@Entity
+@Table(name = "product_summary")
+public class ProductSummary {
+
+    /**
+     * ID do usuário dono do catálogo.
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * Quantidade de produtos do usuário.
+     */
+    @Column(name = "product_count", nullable = false)
+    private long productCount;
+
+    /**
+     * Soma dos preços dos produtos.
+     */
+    @Column(name = "total_value", nullable = false)
+    private double totalValue;
+
+    /**
+     * Menor preço do catálogo ({@code null} se o catálogo estiver vazio).
+     */
+    @Column(name = "min_price")
+    private Double minPrice;
+
+    /**
+     * Maior preço do catálogo ({@code null} se o catálogo estiver vazio).
+     */
+    @Column(name = "max_price")
+    private Double maxPrice;
+
+    /**
+     * Construtor padrão exigido pelo JPA.
+     */
+    public ProductSummary() {}
+
+    /**
+     * @param userId ID do usuário
+     * @param productCount Quantidade de produtos
+     * @param totalValue Soma dos preços
+     * @param minPrice Menor preço, ou {@code null}
+     * @param maxPrice Maior preço, ou {@code null}
+     */
+    public ProductSummary(Long userId, long productCount, double totalValue, Double minPrice, Double maxPrice) {
+        this.userId = userId;
+        this.productCount = productCount;
+        this.totalValue = totalValue;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public double getTotalValue() {
+        return totalValue;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * @return Preço médio, ou {@code null} se o catálogo estiver vazio
+     */
+    public Double getAveragePrice() {
+        return productCount == 0 ? null : totalValue / productCount;
+    }
+
+    /**
+     * Compara com outro resumo, tolerando as diferenças de arredondamento acumuladas no valor total.
+     *
+     * @param other Resumo a comparar
+     * @return {@code true} se os dois resumos descrevem o mesmo catálogo
+     */
+    public boolean matches(ProductSummary other) {
+        return productCount == other.productCount
+                && Math.abs(totalValue - other.totalValue) < 0.005
+                && Objects.equals(minPrice, other.minPrice)
+                && Objects.equals(maxPrice, other.maxPrice);
+    }
+
+    @Override
+    public String toString() {
+        return "ProductSummary{userId=" + userId + ", productCount=" + productCount + ", totalValue=" + totalValue
+                + ", minPrice=" + minPrice + ", maxPrice=" + maxPrice + "}";
+    }
+}
@@ -1,29 +1,51 @@
 package br.com.michael.productsmanager.model;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * Entidade que representa um usuário do sistema ProductsManager.
  * <p>
  * Usado para autenticação via senha (criptografada com BCrypt)
  * e para associação de produtos registrados.
+ * Mantido no cache de segundo nível (região {@code user}); a resolução username → ID
+ * fica na região {@code user-naturalid}.
  */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_user_username", columnNames = "username"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-naturalid")
 public class User {
 
     /**
-     * Identificador único do usuário, gerado automaticamente.
+     * Identificador único do usuário, gerado automaticamente em blocos pela tabela {@code id_generator}.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id")
+    @TableGenerator(name = "user_id", table = "id_generator",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "user", allocationSize = 50)
     private Long id;
 
     /**
      * Nome de login do usuário.
+     * <p>
+     * Identificador natural: único no banco ({@code uk_user_username}) e imutável após o cadastro.
      */
+    @NaturalId
+    @Column(nullable = false)
     private String username;
 
     /**
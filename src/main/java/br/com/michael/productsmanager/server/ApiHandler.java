@@ -0,0 +1,423 @@
+package br.com.michael.productsmanager.server;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.service.ProductRecordReader;
+import br.com.michael.productsmanager.service.ProductValidator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rotas da API de produtos. Cada requisição roda em uma virtual thread própria e chama os DAOs
+ * diretamente (de forma síncrona); o número de requisições atendidas ao mesmo tempo é limitado por
+ * um {@link Semaphore}, e as que esperarem além de {@code api.queueTimeoutMs} recebem {@code 503}.
+ * <p>
+ * Rotas (todas exigem autenticação HTTP Basic com o usuário e a senha da aplicação):
+ * <ul>
+ *     <li>{@code GET /api/products?afterId=&limit=} — página do catálogo (paginação por chave)</li>
+ *     <li>{@code GET /api/products/search?q=&after=&limit=} — busca por nome ou descrição</li>
+ *     <li>{@code GET /api/products/{id}} — produto, com a versão no cabeçalho {@code ETag}</li>
+ *     <li>{@code POST /api/products} — cria um produto ({@code {"name", "price", "description"}})</li>
+ *     <li>{@code PUT /api/products/{id}} — altera um produto; exige {@code If-Match} com a versão</li>
+ *     <li>{@code DELETE /api/products/{id}} — exclui um produto; exige {@code If-Match} com a versão</li>
+ *     <li>{@code GET /api/metrics} — latência por rota e requisições recusadas; apenas para os usuários de
+ *     {@code api.metrics.users} ({@code 403} para os demais)</li>
+ * </ul>
+ */
+class ApiHandler implements HttpHandler {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final ProductDAO productDAO;
+    private final CredentialCache credentials;
+    private final RequestMetrics metrics;
+    private final Set<String> metricsUsers;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long queueTimeoutMs;
+
+    /**
+     * @param productDAO DAO dos produtos
+     * @param credentials Verificação das credenciais
+     * @param metrics Métricas de latência
+     * @param metricsUsers Usuários que podem ler as métricas
+     * @param maxConcurrent Requisições atendidas ao mesmo tempo
+     * @param queueTimeoutMs Espera máxima por uma vaga antes de responder {@code 503}
+     */
+    ApiHandler(ProductDAO productDAO, CredentialCache credentials, RequestMetrics metrics, Set<String> metricsUsers,
+               int maxConcurrent, long queueTimeoutMs) {
+        this.productDAO = productDAO;
+        this.credentials = credentials;
+        this.metrics = metrics;
+        this.metricsUsers = Set.copyOf(metricsUsers);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
+
+    /**
+     * Resposta de uma rota.
+     */
+    private record Response(int status, String body, Map<String, String> headers) {
+
+        static Response json(int status, String body) {
+            return new Response(status, body, Map.of());
+        }
+
+        static Response error(int status, String message) {
+            return json(status, Json.error(message));
+        }
+    }
+
+    /**
+     * Erro com código HTTP próprio.
+     */
+    private static class ApiException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String route = method + " " + routeOf(path);
+        Response response;
+
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                metrics.recordRejected();
+                response = new Response(503, Json.error("Servidor ocupado, tente novamente."), Map.of("Retry-After", "1"));
+            } else {
+                response = dispatch(exchange, method, path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = Response.error(503, "Servidor encerrando.");
+        } catch (RuntimeException e) {
+            response = toResponse(e);
+        } finally {
+            if (acquired) permits.release();
+        }
+
+        try {
+            send(exchange, response);
+        } finally {
+            metrics.record(route, response.status(), System.nanoTime() - start);
+        }
+    }
+
+    private Response dispatch(HttpExchange exchange, String method, String path) throws InterruptedException {
+        User user = authenticate(exchange);
+        if (user == null) {
+            return new Response(401, Json.error("Usuário ou senha inválidos."),
+                    Map.of("WWW-Authenticate", "Basic realm=\"products-manager\", charset=\"UTF-8\""));
+        }
+
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        if (path.equals("/api/metrics")) {
+            requireMethod(method, "GET");
+            // Métricas do servidor inteiro, não do usuário: apenas para os usuários configurados
+            if (!metricsUsers.contains(user.getUsername())) throw new ApiException(403, "Acesso negado.");
+            return Response.json(200, Json.metrics(metrics.snapshot(), metrics.rejected(), maxConcurrent - permits.availablePermits()));
+        }
+        if (path.equals("/api/products")) {
+            return switch (method) {
+                case "GET" -> listProducts(user, query);
+                case "POST" -> createProduct(user, readBody(exchange));
+                default -> throw new ApiException(405, "Método não permitido.");
+            };
+        }
+        if (path.equals("/api/products/search")) {
+            requireMethod(method, "GET");
+            return searchProducts(user, query);
+        }
+
+        Long id = productId(path);
+        if (id == null) throw new ApiException(404, "Rota não encontrada.");
+        return switch (method) {
+            case "GET" -> {
+                Product product = ownedProduct(user, id);
+                yield new Response(200, Json.product(product), Map.of("ETag", etag(product.getVersion())));
+            }
+            case "PUT" -> updateProduct(user, id, ifMatch(exchange), readBody(exchange));
+            case "DELETE" -> deleteProduct(user, id, ifMatch(exchange));
+            default -> throw new ApiException(405, "Método não permitido.");
+        };
+    }
+
+    private Response listProducts(User user, Map<String, String> query) {
+        int limit = limit(query);
+        Long afterId = longParam(query, "afterId");
+        List<Product> page = productDAO.listPageByUser(user, afterId, limit);
+
+        StringBuilder json = new StringBuilder(page.size() * 128 + 32).append("{\"items\":[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) json.append(',');
+            Json.appendProduct(json, page.get(i), null);
+        }
+        json.append("],\"nextAfterId\":")
+                .append(page.size() == limit ? page.get(page.size() - 1).getId() : null)
+                .append('}');
+        return Response.json(200, json.toString());
+    }
+
+    private Response searchProducts(User user, Map<String, String> query) {
+        String term = query.getOrDefault("q", "").trim();
+        if (term.isEmpty()) throw new ApiException(400, "Informe o termo de busca (q).");
+        int limit = limit(query);
+        List<ProductDAO.SearchHit> hits = productDAO.search(user, term, cursor(query.get("after")), limit);
+
+        StringBuilder json = new StringBuilder(hits.size() * 140 + 32).append("{\"items\":[");
+        for (int i = 0; i < hits.size(); i++) {
+            if (i > 0) json.append(',');
+            Json.appendProduct(json, hits.get(i).product(), hits.get(i).score());
+        }
+        json.append("],\"next\":");
+        if (hits.size() == limit) {
+            ProductDAO.SearchCursor next = hits.get(hits.size() - 1).cursor();
+            json.append(Json.string(Json.number(next.score()) + ":" + next.id()));
+        } else {
+            json.append("null");
+        }
+        return Response.json(200, json.append('}').toString());
+    }
+
+    private Response createProduct(User user, String body) {
+        ProductRecordReader.Row row = parse(body);
+        Product product = ProductValidator.validate(row.name(), row.price(), row.description());
+        product.setUser(user);
+        productDAO.addProducts(List.of(product));
+        return new Response(201, Json.product(product), Map.of(
+                "Location", "/api/products/" + product.getId(),
+                "ETag", etag(product.getVersion())));
+    }
+
+    private Response updateProduct(User user, Long id, long version, String body) {
+        Product current = ownedProduct(user, id, version);
+        ProductRecordReader.Row row = parse(body);
+        Product product = ProductValidator.validate(row.name(), row.price(), row.description());
+        if (productDAO.updateProduct(current, product.getName(), product.getPrice(), product.getDescription()) == 0) {
+            throw new ApiException(412, "O produto foi alterado ou excluído desde a versão informada.");
+        }
+        product.setId(id);
+        product.setVersion(version + 1);
+        return new Response(200, Json.product(product), Map.of("ETag", etag(product.getVersion())));
+    }
+
+    private Response deleteProduct(User user, Long id, long version) {
+        Product current = ownedProduct(user, id, version);
+        if (productDAO.deleteProduct(current) == 0) {
+            throw new ApiException(412, "O produto foi alterado ou excluído desde a versão informada.");
+        }
+        return new Response(204, null, Map.of());
+    }
+
+    /**
+     * @return Produto na versão informada, se existir e pertencer ao usuário
+     * @throws ApiException 404 se não existir ou for de outro usuário; 412 se estiver em outra versão
+     */
+    private Product ownedProduct(User user, Long id, long version) {
+        Product product = ownedProduct(user, id);
+        if (product.getVersion() != version) {
+            // O cache de segundo nível não enxerga as escritas de outras instâncias: confere no banco antes de recusar
+            productDAO.evictFromCache(List.of(id), false);
+            product = ownedProduct(user, id);
+            if (product.getVersion() != version) {
+                throw new ApiException(412, "O produto foi alterado ou excluído desde a versão informada.");
+            }
+        }
+        return product;
+    }
+
+    /**
+     * @return Produto, se existir e pertencer ao usuário
+     * @throws ApiException 404, caso contrário (sem revelar se o ID existe para outro usuário)
+     */
+    private Product ownedProduct(User user, Long id) {
+        Product product = productDAO.findProduct(id);
+        if (product == null || product.getUser() == null || !user.getId().equals(product.getUser().getId())) {
+            throw new ApiException(404, "Produto não encontrado.");
+        }
+        return product;
+    }
+
+    private User authenticate(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Basic ", 0, 6)) return null;
+
+        String decoded;
+        try {
+            decoded = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int separator = decoded.indexOf(':');
+        if (separator <= 0) return null;
+        return credentials.authenticate(decoded.substring(0, separator), decoded.substring(separator + 1)).join();
+    }
+
+    private static Response toResponse(RuntimeException e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof ApiException api) {
+            return Response.error(api.status, api.getMessage());
+        }
+        if (cause instanceof ProductValidator.InvalidProductException invalid) {
+            return Response.error(400, invalid.getMessage());
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return new Response(503, Json.error("Servidor ocupado, tente novamente."), Map.of("Retry-After", "1"));
+        }
+        cause.printStackTrace();
+        return Response.error(500, "Erro interno.");
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        try (exchange) {
+            response.headers().forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+            if (response.body() == null) {
+                exchange.sendResponseHeaders(response.status(), -1);
+                return;
+            }
+            byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) {
+        try {
+            byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) throw new ApiException(413, "Corpo da requisição muito grande.");
+            return new String(body, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ApiException(400, "Não foi possível ler o corpo da requisição.");
+        }
+    }
+
+    private static ProductRecordReader.Row parse(String body) {
+        try {
+            return ProductRecordReader.parseJson(body);
+        } catch (IOException e) {
+            throw new ApiException(400, e.getMessage());
+        }
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) throw new ApiException(405, "Método não permitido.");
+    }
+
+    /**
+     * @return Versão informada no cabeçalho {@code If-Match} (ex: {@code "3"})
+     */
+    private static long ifMatch(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("If-Match");
+        if (header == null) throw new ApiException(428, "Informe a versão do produto no cabeçalho If-Match.");
+        String version = header.trim();
+        if (version.startsWith("W/")) version = version.substring(2);
+        version = version.replace("\"", "");
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Versão inválida no cabeçalho If-Match.");
+        }
+    }
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static ProductDAO.SearchCursor cursor(String value) {
+        if (value == null || value.isBlank()) return null;
+        int separator = value.lastIndexOf(':');
+        try {
+            return new ProductDAO.SearchCursor(Double.parseDouble(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ApiException(400, "Cursor de busca inválido.");
+        }
+    }
+
+    private static int limit(Map<String, String> query) {
+        Long limit = longParam(query, "limit");
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ApiException(400, "O limite deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+        return limit.intValue();
+    }
+
+    private static Long longParam(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Parâmetro inválido: " + name + ".");
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(key, value);
+        }
+        return params;
+    }
+
+    /**
+     * @return ID do caminho {@code /api/products/{id}}, ou {@code null} se o caminho for outro
+     */
+    private static Long productId(String path) {
+        if (!path.startsWith("/api/products/")) return null;
+        try {
+            return Long.parseLong(path.substring("/api/products/".length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Rota usada nas métricas, com o ID trocado por {@code {id}}
+     */
+    private static String routeOf(String path) {
+        return productId(path) != null ? "/api/products/{id}" : switch (path) {
+            case "/api/products", "/api/products/search", "/api/metrics" -> path;
+            default -> "(desconhecida)";
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.michael.productsmanager.server;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.service.AuthService;
+import br.com.michael.productsmanager.util.JPAUtil;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Modo servidor da aplicação, sem interface gráfica: expõe o catálogo de produtos por HTTP
+ * (veja as rotas em {@link ApiHandler}) com o servidor HTTP do próprio JDK.
+ * <p>
+ * Cada requisição roda em uma virtual thread, usa os mesmos DAOs e as mesmas credenciais BCrypt da
+ * aplicação desktop. Configuração em {@code database.properties} (ou propriedades de sistema):
+ * {@code api.port}, {@code api.maxConcurrent}, {@code api.queueTimeoutMs}, {@code api.backlog},
+ * {@code api.auth.cacheSeconds} e {@code api.metrics.users}.
+ * <pre>
+ * java -cp products-manager.jar br.com.michael.productsmanager.server.ApiServer
+ * </pre>
+ */
+public class ApiServer {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final RequestMetrics metrics = new RequestMetrics();
+
+    /**
+     * Cria o servidor com a configuração do {@code database.properties}.
+     *
+     * @param port Porta HTTP (0 escolhe uma porta livre)
+     * @throws IOException se a porta não puder ser aberta
+     */
+    public ApiServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), JPAUtil.getIntProperty("api.backlog", 1024));
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("api-", 0).factory());
+        server.setExecutor(executor);
+
+        CredentialCache credentials = new CredentialCache(AuthService.getInstance(),
+                JPAUtil.getIntProperty("api.auth.cacheSeconds", 300));
+        server.createContext("/api/", new ApiHandler(new ProductDAO(), credentials, metrics, metricsUsers(),
+                Math.max(1, JPAUtil.getIntProperty("api.maxConcurrent", 256)),
+                JPAUtil.getIntProperty("api.queueTimeoutMs", 1000)));
+    }
+
+    /**
+     * @return Usuários de {@code api.metrics.users}, separados por espaço
+     */
+    private static Set<String> metricsUsers() {
+        String users = JPAUtil.getProperty("api.metrics.users");
+        return users == null || users.isBlank() ? Set.of() : Set.copyOf(List.of(users.trim().split("\\s+")));
+    }
+
+    /**
+     * Inicia o atendimento das requisições.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Encerra o servidor, aguardando até {@code delaySeconds} pelas requisições em andamento.
+     *
+     * @param delaySeconds Espera máxima, em segundos
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * @return Porta em que o servidor atende
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return Métricas de latência das requisições
+     */
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Inicia o servidor na porta {@code api.port} e o mantém ativo até a JVM ser encerrada.
+     *
+     * @param args Ignorados
+     * @throws IOException se a porta não puder ser aberta
+     */
+    public static void main(String[] args) throws IOException {
+        // Abre o pool de conexões antes da primeira requisição
+        JPAUtil.getEntityManagerFactory();
+
+        ApiServer api = new ApiServer(JPAUtil.getIntProperty("api.port", 8080));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.stop(5);
+            JPAUtil.shutdown();
+        }, "api-shutdown"));
+        api.start();
+        System.out.println("API disponível em http://localhost:" + api.getPort() + "/api/products");
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.michael.productsmanager.server;
+
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.service.AuthService;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache das credenciais já verificadas pela API.
+ * <p>
+ * Clientes HTTP enviam usuário e senha em toda requisição; verificar o BCrypt a cada uma limitaria a API
+ * a algumas dezenas de requisições por segundo. Depois da primeira verificação pelo {@link AuthService},
+ * o cache guarda apenas um SHA-256 da senha com um sal aleatório do processo, por {@code ttlSeconds}.
+ * Verificações simultâneas das mesmas credenciais compartilham um único BCrypt; credenciais inválidas
+ * não são guardadas. Uma troca de senha feita em outro lugar vale para a API após o fim do prazo.
+ */
+class CredentialCache {
+
+    private final AuthService authService;
+    private final long ttlNanos;
+    private final byte[] salt = new byte[16];
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(byte[] digest, CompletableFuture<User> user, long expiresAt) {}
+
+    /**
+     * @param authService Serviço usado na verificação das senhas
+     * @param ttlSeconds Tempo de validade de uma verificação
+     */
+    CredentialCache(AuthService authService, int ttlSeconds) {
+        this.authService = authService;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        new SecureRandom().nextBytes(salt);
+    }
+
+    /**
+     * Autentica as credenciais, verificando o BCrypt apenas se não houver verificação válida no cache.
+     *
+     * @param username Nome de login
+     * @param password Senha informada
+     * @return Future com o usuário autenticado, ou {@code null} se as credenciais forem inválidas
+     */
+    CompletableFuture<User> authenticate(String username, String password) {
+        byte[] digest = digest(password);
+        long now = System.nanoTime();
+
+        Entry entry = entries.compute(username, (key, current) ->
+                current != null && current.expiresAt() - now > 0 ? current
+                        : new Entry(digest, authService.authenticate(username, password), now + ttlNanos));
+
+        if (MessageDigest.isEqual(entry.digest(), digest)) {
+            // Falhas (senha errada, pool de hash cheio) não ficam no cache
+            entry.user().whenComplete((user, error) -> {
+                if (user == null) entries.remove(username, entry);
+            });
+            return entry.user();
+        }
+
+        // Outra senha para um usuário no cache: verifica sem descartar a entrada atual, para que
+        // tentativas erradas não obriguem o cliente legítimo a um novo BCrypt
+        return authService.authenticate(username, password).thenApply(user -> {
+            if (user != null) {
+                entries.put(username, new Entry(digest, CompletableFuture.completedFuture(user), System.nanoTime() + ttlNanos));
+            }
+            return user;
+        });
+    }
+
+    private byte[] digest(String password) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(salt);
+            return sha.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.michael.productsmanager.server;
+
+import br.com.michael.productsmanager.model.Product;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Serialização JSON das respostas da API.
+ */
+final class Json {
+
+    private Json() {}
+
+    /**
+     * @param product Produto
+     * @return Objeto JSON com ID, nome, preço, descrição e versão
+     */
+    static String product(Product product) {
+        StringBuilder json = new StringBuilder(128);
+        appendProduct(json, product, null);
+        return json.toString();
+    }
+
+    /**
+     * @param json Destino
+     * @param product Produto
+     * @param score Relevância na busca, ou {@code null}
+     */
+    static void appendProduct(StringBuilder json, Product product, Double score) {
+        json.append("{\"id\":").append(product.getId())
+                .append(",\"name\":").append(string(product.getName()))
+                .append(",\"price\":").append(number(product.getPrice()))
+                .append(",\"description\":").append(string(product.getDescription()))
+                .append(",\"version\":").append(product.getVersion());
+        if (score != null) json.append(",\"score\":").append(number(score));
+        json.append('}');
+    }
+
+    /**
+     * @param message Mensagem de erro
+     * @return Objeto JSON {@code {"error": message}}
+     */
+    static String error(String message) {
+        return "{\"error\":" + string(message) + "}";
+    }
+
+    /**
+     * @param metrics Resumo das métricas por rota
+     * @param rejected Requisições recusadas pelo limite de concorrência
+     * @param inFlight Requisições em andamento
+     * @return Objeto JSON com as métricas
+     */
+    static String metrics(Map<String, RequestMetrics.Summary> metrics, long rejected, int inFlight) {
+        StringBuilder json = new StringBuilder("{\"inFlight\":").append(inFlight)
+                .append(",\"rejected\":").append(rejected).append(",\"routes\":{");
+        boolean first = true;
+        for (Map.Entry<String, RequestMetrics.Summary> route : metrics.entrySet()) {
+            RequestMetrics.Summary summary = route.getValue();
+            if (!first) json.append(',');
+            first = false;
+            json.append(string(route.getKey()))
+                    .append(":{\"count\":").append(summary.count())
+                    .append(",\"errors\":").append(summary.errors())
+                    .append(String.format(Locale.ROOT, ",\"p50Ms\":%.3f,\"p99Ms\":%.3f,\"maxMs\":%.3f}",
+                            summary.p50(), summary.p99(), summary.max()));
+        }
+        return json.append("}}").toString();
+    }
+
+    static String number(Double value) {
+        return value == null || !Double.isFinite(value) ? "null" : BigDecimal.valueOf(value).toPlainString();
+    }
+
+    static String string(String value) {
+        if (value == null) return "null";
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.michael.productsmanager.server;
+
+import br.com.michael.productsmanager.util.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latência das requisições da API, por rota ({@code "GET /api/products/{id}"}).
+ * <p>
+ * Cada rota guarda um {@link LatencyHistogram}: registrar uma requisição não aloca nem bloqueia, e os
+ * percentis são calculados só quando as métricas são consultadas. Respostas 5xx contam como erros.
+ */
+public class RequestMetrics {
+
+    private final Map<String, LatencyHistogram> routes = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Registra uma requisição atendida.
+     *
+     * @param route Rota da requisição
+     * @param status Código HTTP da resposta
+     * @param nanos Duração, em nanossegundos
+     */
+    public void record(String route, int status, long nanos) {
+        LatencyHistogram histogram = routes.computeIfAbsent(route, key -> new LatencyHistogram());
+        histogram.record(nanos);
+        if (status >= 500) histogram.recordError();
+    }
+
+    /**
+     * Conta uma requisição recusada pelo limite de concorrência.
+     */
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    /**
+     * @return Resumo por rota: quantidade, erros e percentis em milissegundos
+     */
+    public Map<String, Summary> snapshot() {
+        Map<String, Summary> result = new TreeMap<>();
+        routes.forEach((route, histogram) -> {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            result.put(route, new Summary(snapshot.count(), snapshot.errors(), snapshot.p50(), snapshot.p99(), snapshot.max()));
+        });
+        return result;
+    }
+
+    /**
+     * @return Requisições recusadas pelo limite de concorrência
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Resumo da latência de uma rota.
+     *
+     * @param count Requisições atendidas
+     * @param errors Respostas com código 5xx
+     * @param p50 Mediana, em ms
+     * @param p99 Percentil 99, em ms
+     * @param max Maior latência, em ms
+     */
+    public record Summary(long count, long errors, double p50, double p99, double max) {}
+}
@@ -0,0 +1,186 @@
+package br.com.michael.productsmanager.service;
+
+import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DbExecutor;
+import br.com.michael.productsmanager.util.JPAUtil;
+import br.com.michael.productsmanager.util.StartupTimeline;
+import br.com.michael.productsmanager.util.Tracing;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serviço de autenticação com BCrypt.
+ * <p>
+ * O BCrypt consome CPU de propósito, por isso roda em um pool de threads próprio e limitado
+ * (chaves {@code auth.pool.*}): nunca na thread de interface e sem disputar as virtual threads do banco.
+ * <ul>
+ *     <li>Na inicialização, mede a máquina e escolhe o maior custo (work factor) cujo hash leva até
+ *     {@code auth.bcrypt.targetMs}. O valor pode ser fixado com {@code auth.bcrypt.cost}.</li>
+ *     <li>Após um login bem-sucedido, hashes com custo abaixo do calibrado são recriptografados
+ *     em segundo plano.</li>
+ *     <li>Usuários inexistentes também passam por uma verificação BCrypt no custo calibrado, com um hash de
+ *     referência gerado logo após a calibração, para que o tempo de resposta não revele quais nomes estão
+ *     cadastrados. Usuários com hash em um custo anterior respondem em outro tempo até o primeiro login
+ *     após a calibração, que o recriptografa.</li>
+ * </ul>
+ */
+public class AuthService {
+
+    /** Menor custo aceito, mesmo em máquinas lentas. */
+    public static final int MIN_COST = 10;
+
+    /** Maior custo aceito, mesmo em máquinas muito rápidas. */
+    public static final int MAX_COST = 16;
+
+    private static final AuthService instance = new AuthService(new UserDAO());
+
+    private final UserDAO userDAO;
+    private final Executor hashingPool;
+    private final CompletableFuture<Integer> workFactor;
+    /** Hash de referência, no custo calibrado, verificado no lugar do hash de usuários inexistentes. */
+    private final CompletableFuture<String> dummyHash;
+
+    /**
+     * @param userDAO DAO usado na busca de usuários e na atualização de hashes
+     */
+    AuthService(UserDAO userDAO) {
+        this.userDAO = userDAO;
+
+        int threads = JPAUtil.getIntProperty("auth.pool.size", Runtime.getRuntime().availableProcessors());
+        int queue = JPAUtil.getIntProperty("auth.pool.queue", 64);
+        this.hashingPool = Tracing.propagating(new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue), daemonThreads(), new ThreadPoolExecutor.AbortPolicy()));
+
+        int fixedCost = JPAUtil.getIntProperty("auth.bcrypt.cost", 0);
+        this.workFactor = fixedCost > 0
+                ? CompletableFuture.completedFuture(fixedCost)
+                : CompletableFuture.supplyAsync(() -> calibrate(JPAUtil.getIntProperty("auth.bcrypt.targetMs", 250)), hashingPool);
+        // Enfileirado logo após a calibração, antes de qualquer verificação que espere por ele
+        this.dummyHash = CompletableFuture.supplyAsync(() -> {
+            int cost = getWorkFactor();
+            return Tracing.passwordHash(cost, false, () -> BCrypt.hashpw("dummy-password", BCrypt.gensalt(cost)));
+        }, hashingPool);
+    }
+
+    /**
+     * @return Instância única do serviço; a calibração começa no primeiro acesso
+     */
+    public static AuthService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Autentica um usuário: busca no banco e verifica a senha fora da thread de interface.
+     *
+     * @param username Nome de login
+     * @param password Senha informada
+     * @return Future com o usuário autenticado, ou {@code null} se as credenciais forem inválidas
+     */
+    public CompletableFuture<User> authenticate(String username, String password) {
+        return DbExecutor.supply(() -> {
+                    User user = userDAO.findByUsername(username);
+                    StartupTimeline.mark("Primeira consulta (login)");
+                    return user;
+                })
+                .thenApplyAsync(user -> verify(user, password), hashingPool);
+    }
+
+    /**
+     * Gera o hash BCrypt de uma senha com o custo calibrado.
+     *
+     * @param password Senha em texto puro
+     * @return Future com o hash gerado; falha com {@link RejectedExecutionException} se a fila do pool estiver cheia
+     */
+    public CompletableFuture<String> hash(String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                int cost = getWorkFactor();
+                return Tracing.passwordHash(cost, false, () -> BCrypt.hashpw(password, BCrypt.gensalt(cost)));
+            }, hashingPool);
+        } catch (RejectedExecutionException e) {
+            // Entregue pelo future, como as demais falhas, e não a quem chamou (ex: a thread de interface)
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * @return Custo BCrypt usado em novos hashes (aguarda a calibração, se ainda estiver em andamento)
+     */
+    public int getWorkFactor() {
+        return workFactor.join();
+    }
+
+    /**
+     * Verifica a senha e agenda a recriptografia quando o hash estiver com custo desatualizado.
+     */
+    private User verify(User user, String password) {
+        if (user == null) {
+            String hash = dummyHash.join();
+            Tracing.passwordHash(costOf(hash), true, () -> BCrypt.checkpw(password, hash));
+            return null;
+        }
+        if (!Tracing.passwordHash(costOf(user.getPassword()), true, () -> BCrypt.checkpw(password, user.getPassword()))) {
+            return null;
+        }
+
+        if (costOf(user.getPassword()) < getWorkFactor()) {
+            // Melhor esforço: com a fila cheia, o future falha sem afetar o login e o hash fica para o próximo
+            Long id = user.getId();
+            hash(password).thenAcceptAsync(newHash -> userDAO.updatePassword(id, newHash), DbExecutor.executor());
+        }
+        return user;
+    }
+
+    /**
+     * Escolhe o maior custo cujo hash leva até {@code targetMs} nesta máquina.
+     * Cada incremento do custo dobra o tempo, então basta medir um custo de referência.
+     *
+     * @param targetMs Latência desejada para um hash, em milissegundos
+     * @return Custo entre {@link #MIN_COST} e {@link #MAX_COST}
+     */
+    static int calibrate(long targetMs) {
+        BCrypt.hashpw("calibration", BCrypt.gensalt(MIN_COST)); // aquecimento do JIT
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", BCrypt.gensalt(MIN_COST));
+        double elapsedMs = Math.max((System.nanoTime() - start) / 1_000_000.0, 0.001);
+
+        int cost = MIN_COST;
+        while (cost < MAX_COST && elapsedMs * 2 <= targetMs) {
+            elapsedMs *= 2;
+            cost++;
+        }
+        return cost;
+    }
+
+    /**
+     * Lê o custo gravado em um hash BCrypt (ex: {@code $2a$12$...} → 12).
+     *
+     * @param hash Hash BCrypt
+     * @return Custo do hash, ou 0 se o formato for desconhecido
+     */
+    static int costOf(String hash) {
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "auth-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
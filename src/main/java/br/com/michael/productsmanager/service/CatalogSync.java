@@ -0,0 +1,303 @@
+package br.com.michael.productsmanager.service;
+
+import br.com.michael.productsmanager.dao.LocalProductDAO;
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.ProductSummary;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DbExecutor;
+import br.com.michael.productsmanager.util.JPAUtil;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Mantém a cópia local do catálogo ({@link LocalProductDAO}) sincronizada com o banco central.
+ * <p>
+ * A tela lê e grava apenas na cópia local, então abre o catálogo sem esperar pelo banco central e continua
+ * funcionando se ele ficar inacessível. Uma thread própria executa ciclos de sincronização a cada
+ * {@code local.sync.intervalSeconds} e logo após cada alteração local:
+ * <ol>
+ *     <li>envia a fila de alterações locais em lotes de até {@code local.sync.batchSize}
+ *     ({@link ProductDAO#applyChanges}), cada lote em uma transação; alterações em conflito com o banco
+ *     central (produto alterado ou excluído em outra sessão) são descartadas e contadas;</li>
+ *     <li>traz os produtos incluídos, alterados ou excluídos desde a leitura anterior
+ *     ({@link ProductDAO#changedSince}), além dos produtos cujas alterações locais foram descartadas.</li>
+ * </ol>
+ * Na primeira sincronização (cópia vazia ou criada antes das marcas de alteração), ou se a marca da cópia for
+ * mais antiga que os registros de exclusão mantidos ({@link ProductDAO#coversChangesSince}), o ID e a versão de
+ * cada produto do banco central são comparados com a cópia e apenas os produtos diferentes são trazidos. No
+ * início e uma vez por dia, os registros de exclusão vencidos do usuário são descartados
+ * ({@link ProductDAO#pruneDeletions}).
+ * Uma falha (ex: banco central fora do ar) encerra o ciclo; a fila continua na cópia local e é enviada no
+ * próximo ciclo, inclusive em uma nova sessão. Se o envio de uma inclusão for gravado no banco central mas
+ * a confirmação se perder, ela é enviada de novo e recebe o produto já incluído ({@link ProductDAO.Change#insertKey}).
+ */
+public class CatalogSync implements AutoCloseable {
+
+    /** Espera após uma alteração local antes de sincronizar, para agrupar alterações seguidas. */
+    private static final long CHANGE_DELAY_MILLIS = 300;
+
+    /** Intervalo entre os descartes de registros de exclusão vencidos. */
+    private static final Duration PRUNE_INTERVAL = Duration.ofDays(1);
+
+    /**
+     * Situação do último ciclo: concluído, ou interrompido por uma falha (ex: banco central fora do ar).
+     */
+    public enum State { SYNCED, OFFLINE }
+
+    /**
+     * Resultado de um ciclo, entregue ao ouvinte.
+     *
+     * @param state Situação após o ciclo
+     * @param pending Alterações locais ainda não enviadas
+     * @param changes Efeito do ciclo na cópia local
+     * @param count Quantidade de produtos na cópia local após o ciclo
+     */
+    public record Status(State state, int pending, LocalProductDAO.Changes changes, int count) {}
+
+    private final User user;
+    private final ProductDAO remote;
+    private final Consumer<Status> listener;
+    private final int batchSize;
+    private final CompletableFuture<LocalProductDAO> store;
+    private final CompletableFuture<Void> populated = new CompletableFuture<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "catalog-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean requested = new AtomicBoolean();
+    private Instant nextPrune = Instant.MIN; // acessado apenas pela thread de sincronização
+
+    private CatalogSync(User user, ProductDAO remote, Consumer<Status> listener) {
+        this.user = user;
+        this.remote = remote;
+        this.listener = listener;
+        this.batchSize = JPAUtil.getIntProperty("local.sync.batchSize", 200);
+        this.store = CompletableFuture.supplyAsync(() -> {
+            LocalProductDAO local = LocalProductDAO.open(user);
+            if (local.isPopulated()) populated.complete(null);
+            return local;
+        }, scheduler);
+        store.exceptionally(error -> {
+            populated.completeExceptionally(error);
+            return null;
+        });
+    }
+
+    /**
+     * @return {@code true} se a cópia local está habilitada ({@code local.mirror.enabled})
+     */
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(JPAUtil.getProperty("local.mirror.enabled"));
+    }
+
+    /**
+     * Abre a cópia local do catálogo em segundo plano e inicia os ciclos de sincronização.
+     *
+     * @param user Usuário logado
+     * @param remote DAO do banco central
+     * @param listener Recebe o resultado de cada ciclo (na thread de sincronização)
+     * @return Sincronização iniciada; deve ser encerrada com {@link #close()}
+     */
+    public static CatalogSync start(User user, ProductDAO remote, Consumer<Status> listener) {
+        CatalogSync sync = new CatalogSync(user, remote, listener);
+        long interval = JPAUtil.getIntProperty("local.sync.intervalSeconds", 30);
+        sync.scheduler.scheduleWithFixedDelay(sync::cycle, 0, interval, TimeUnit.SECONDS);
+        return sync;
+    }
+
+    /**
+     * @return Future com a cópia local, concluído quando ela estiver aberta
+     */
+    public CompletableFuture<LocalProductDAO> store() {
+        return store;
+    }
+
+    /**
+     * @return Future concluído quando a cópia local tiver o catálogo completo (de imediato, se ele já
+     *         foi sincronizado em uma sessão anterior)
+     */
+    public CompletableFuture<Void> populated() {
+        return populated;
+    }
+
+    /**
+     * @return {@code true} se a cópia local já tem o catálogo completo
+     */
+    public boolean isPopulated() {
+        return populated.isDone() && !populated.isCompletedExceptionally();
+    }
+
+    /**
+     * Calcula o resumo do catálogo na cópia local.
+     *
+     * @return Future com o resumo, ou com {@code null} se a cópia ainda não tiver o catálogo completo
+     */
+    public CompletableFuture<ProductSummary> summary() {
+        return store.thenApplyAsync(local -> isPopulated() ? local.summary() : null, DbExecutor.executor());
+    }
+
+    /** @see LocalProductDAO#addProduct(Product) */
+    public CompletableFuture<Void> addProduct(Product product) {
+        return write(local -> {
+            local.addProduct(product);
+            return null;
+        });
+    }
+
+    /** @see LocalProductDAO#updateProduct(Long, Long, String, Double, String) */
+    public CompletableFuture<Integer> updateProduct(Long id, Long expectedVersion, String newName, Double newPrice, String newDescription) {
+        return write(local -> local.updateProduct(id, expectedVersion, newName, newPrice, newDescription));
+    }
+
+    /** @see LocalProductDAO#deleteProduct(Long, Long) */
+    public CompletableFuture<Integer> deleteProduct(Long id, Long expectedVersion) {
+        return write(local -> local.deleteProduct(id, expectedVersion));
+    }
+
+    /** @see LocalProductDAO#updateProducts(Collection, Double, String) */
+    public CompletableFuture<Integer> updateProducts(Collection<Long> ids, Double newPrice, String newDescription) {
+        return write(local -> local.updateProducts(ids, newPrice, newDescription));
+    }
+
+    /** @see LocalProductDAO#deleteProducts(Collection) */
+    public CompletableFuture<Integer> deleteProducts(Collection<Long> ids) {
+        return write(local -> local.deleteProducts(ids));
+    }
+
+    /**
+     * Agenda um ciclo de sincronização em breve (ex: após uma importação direta no banco central).
+     * Pedidos seguidos resultam em um único ciclo.
+     */
+    public void requestSync() {
+        if (requested.compareAndSet(false, true) && !scheduler.isShutdown()) {
+            try {
+                scheduler.schedule(this::cycle, CHANGE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Encerrada: a alteração fica na fila para a próxima sessão
+            }
+        }
+    }
+
+    /**
+     * Encerra a sincronização e fecha a cópia local. Alterações não enviadas ficam na fila para a próxima sessão.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        store.thenAccept(LocalProductDAO::close);
+    }
+
+    private <T> CompletableFuture<T> write(Function<LocalProductDAO, T> operation) {
+        return store.thenApplyAsync(local -> {
+            T result = operation.apply(local);
+            requestSync();
+            return result;
+        }, DbExecutor.executor());
+    }
+
+    /**
+     * Envia a fila e traz as alterações do banco central. Roda apenas na thread de sincronização.
+     */
+    private void cycle() {
+        requested.set(false);
+        if (!store.isDone() || store.isCompletedExceptionally()) return;
+        LocalProductDAO local = store.join();
+
+        List<Product> upserted = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        int conflicts = 0;
+        State state = State.SYNCED;
+        try {
+            List<LocalProductDAO.PendingChange> batch;
+            while (!(batch = local.pendingChanges(batchSize)).isEmpty()) {
+                List<ProductDAO.ChangeResult> results = remote.applyChanges(user,
+                        batch.stream().map(LocalProductDAO.PendingChange::change).toList());
+                LocalProductDAO.Changes pushed = local.completeChanges(batch, results);
+                upserted.addAll(pushed.upserted());
+                removed.addAll(pushed.removed());
+                conflicts += pushed.conflicts();
+            }
+
+            LocalProductDAO.Changes pulled = pull(local);
+            upserted.addAll(pulled.upserted());
+            removed.addAll(pulled.removed());
+            populated.complete(null);
+
+            if (Instant.now().isAfter(nextPrune)) {
+                remote.pruneDeletions(user);
+                nextPrune = Instant.now().plus(PRUNE_INTERVAL);
+            }
+        } catch (RuntimeException e) {
+            state = State.OFFLINE;
+            e.printStackTrace();
+        }
+
+        LocalProductDAO.Changes changes = new LocalProductDAO.Changes(upserted, removed, conflicts);
+        try {
+            listener.accept(new Status(state, local.pendingCount(), changes, local.count()));
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Traz as alterações do banco central desde a marca da cópia, e os produtos a reler após um conflito.
+     */
+    private LocalProductDAO.Changes pull(LocalProductDAO local) {
+        Instant marker = local.changeMarker();
+        if (marker == null || !remote.coversChangesSince(marker)) return pullAll(local);
+
+        ProductDAO.Delta delta = remote.changedSince(user, marker);
+        List<Product> upserts = new ArrayList<>(delta.changed());
+        List<Long> deleted = new ArrayList<>(delta.deleted());
+        Set<Long> refetch = new HashSet<>(local.refetchIds());
+        upserts.forEach(product -> refetch.remove(product.getId()));
+        refetch.removeAll(deleted);
+        if (!refetch.isEmpty()) {
+            List<Product> current = remote.findCurrentByIds(user, refetch);
+            upserts.addAll(current);
+            current.forEach(product -> refetch.remove(product.getId()));
+            deleted.addAll(refetch); // não existem mais no banco central
+        }
+        return local.applyRemote(upserts, deleted, delta.marker());
+    }
+
+    /**
+     * Compara as versões de todo o catálogo do banco central com as da cópia e aplica apenas as diferenças.
+     */
+    private LocalProductDAO.Changes pullAll(LocalProductDAO local) {
+        // Marca lida com as versões: o que mudar depois chega na próxima leitura por marca
+        ProductDAO.CatalogVersions versions = remote.listVersionsByUser(user);
+        Map<Long, Long> known = new HashMap<>(local.serverVersions());
+        Set<Long> pending = local.pendingIds();
+        List<Long> changed = new ArrayList<>();
+        for (Object[] row : versions.rows()) {
+            Long id = (Long) row[0];
+            Long localVersion = known.remove(id);
+            if (!row[1].equals(localVersion) && !pending.contains(id)) changed.add(id);
+        }
+        // O que sobrou não existe mais no banco central
+        known.keySet().removeAll(pending);
+
+        List<Product> fetched = changed.isEmpty() ? List.of() : remote.findCurrentByIds(user, changed);
+        return local.applyRemote(fetched, known.keySet(), versions.marker());
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.michael.productsmanager.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lê produtos de um arquivo CSV com cabeçalho.
+ * <p>
+ * O separador ({@code ;} ou {@code ,}) é detectado no cabeçalho, que deve conter as colunas de nome,
+ * preço e descrição em qualquer ordem (ex: {@code nome;preco;descricao}). Campos entre aspas podem
+ * conter o separador, quebras de linha e aspas duplicadas ({@code ""}).
+ */
+final class CsvProductReader implements ProductRecordReader {
+
+    private final BufferedReader in;
+    private final char delimiter;
+    private final int[] columns = {-1, -1, -1};
+    private long line = 1;
+
+    CsvProductReader(Reader in) throws IOException {
+        this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in);
+
+        String header = this.in.readLine();
+        if (header == null) throw new IOException("Arquivo vazio.");
+        if (header.startsWith("\uFEFF")) header = header.substring(1);
+        line++;
+
+        delimiter = count(header, ';') >= count(header, ',') && header.indexOf(';') >= 0 ? ';' : ',';
+        List<String> names = readFields(new StringReader(header), new long[1]);
+        for (int i = 0; names != null && i < names.size(); i++) {
+            int field = ProductRecordReader.fieldIndex(names.get(i));
+            if (field >= 0 && columns[field] < 0) columns[field] = i;
+        }
+        if (Arrays.stream(columns).anyMatch(column -> column < 0)) {
+            throw new IOException("O cabeçalho deve conter as colunas nome, preco e descricao.");
+        }
+    }
+
+    @Override
+    public Row next() throws IOException {
+        while (true) {
+            long start = line;
+            long[] lines = new long[1];
+            List<String> fields = readFields(in, lines);
+            line += lines[0];
+            if (fields == null) return null;
+            if (fields.size() == 1 && fields.get(0).isEmpty()) continue;
+
+            if (fields.size() <= Arrays.stream(columns).max().getAsInt()) {
+                return Row.malformed(start, "Número de colunas inválido (" + fields.size() + ").");
+            }
+            return new Row(start, fields.get(columns[0]), fields.get(columns[1]), fields.get(columns[2]), null);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Lê um registro (que pode ocupar várias linhas, se houver quebras entre aspas).
+     *
+     * @param reader Origem dos caracteres
+     * @param lines Recebe a quantidade de quebras de linha consumidas
+     * @return Campos do registro, ou {@code null} no fim do arquivo
+     */
+    private List<String> readFields(Reader reader, long[] lines) throws IOException {
+        int c = reader.read();
+        if (c == -1) return null;
+
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    // Aspas sem fechamento: o restante do arquivo vira um único campo (truncado)
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                if (c == '\n') lines[0]++;
+                append(field, c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') lines[0]++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                append(field, c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private static void append(StringBuilder field, int c) {
+        if (field.length() < MAX_FIELD_LENGTH) field.append((char) c);
+    }
+
+    private static int count(String text, char c) {
+        return (int) text.chars().filter(ch -> ch == c).count();
+    }
+}
@@ -0,0 +1,198 @@
+package br.com.michael.productsmanager.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lê produtos de um arquivo JSON no formato {@code [{"nome": "...", "preco": 10.5, "descricao": "..."}, ...]}.
+ * <p>
+ * O arquivo é lido objeto a objeto, sem montar a árvore do documento. O preço pode ser um número ou
+ * um texto (ex: {@code "10,50"}); chaves desconhecidas são ignoradas. Um erro de sintaxe interrompe a
+ * leitura, pois não há como saber onde começa o próximo objeto.
+ */
+final class JsonProductReader implements ProductRecordReader {
+
+    private final Reader in;
+    private int peeked = -2;
+    private long line = 1;
+    private boolean started;
+    private boolean finished;
+
+    JsonProductReader(Reader in) {
+        this.in = in instanceof BufferedReader ? in : new BufferedReader(in);
+    }
+
+    @Override
+    public Row next() throws IOException {
+        if (finished) return null;
+
+        int c = skipWhitespace();
+        if (!started) {
+            if (c == '\uFEFF') c = skipWhitespace();
+            expect(c, '[');
+            started = true;
+            if (peekNonWhitespace() == ']') {
+                read();
+                finished = true;
+                return null;
+            }
+            c = skipWhitespace();
+        } else if (c == ']') {
+            finished = true;
+            return null;
+        } else {
+            expect(c, ',');
+            c = skipWhitespace();
+        }
+
+        long start = line;
+        expect(c, '{');
+        String[] fields = new String[3];
+        if (peekNonWhitespace() == '}') {
+            read();
+        } else {
+            do {
+                expect(skipWhitespace(), '"');
+                int field = ProductRecordReader.fieldIndex(readString());
+                expect(skipWhitespace(), ':');
+                String value = readValue();
+                if (field >= 0) fields[field] = value;
+                c = skipWhitespace();
+            } while (c == ',');
+            expect(c, '}');
+        }
+        return new Row(start, fields[0], fields[1], fields[2], null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * @return Texto de strings, números e booleanos; {@code null} para {@code null}, objetos e listas
+     */
+    private String readValue() throws IOException {
+        int c = skipWhitespace();
+        if (c == -1) throw syntaxError("fim inesperado do arquivo");
+        if (c == '"') return readString();
+        if (c == '{' || c == '[') {
+            skipNested();
+            return null;
+        }
+
+        StringBuilder literal = new StringBuilder();
+        literal.append((char) c);
+        while (isLiteralChar(peek())) {
+            append(literal, read());
+        }
+        String value = literal.toString();
+        if (value.equals("null")) return null;
+        if (!value.equals("true") && !value.equals("false") && !value.matches("-?[0-9][0-9.eE+-]*")) {
+            throw syntaxError("valor inválido '" + value + "'");
+        }
+        return value;
+    }
+
+    /**
+     * Lê o restante de uma string, já consumida a aspa de abertura.
+     */
+    private String readString() throws IOException {
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1) throw syntaxError("texto sem aspas de fechamento");
+            if (c == '"') return value.toString();
+            if (c == '\\') {
+                int escaped = read();
+                c = switch (escaped) {
+                    case '"', '\\', '/' -> escaped;
+                    case 'b' -> '\b';
+                    case 'f' -> '\f';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    case 't' -> '\t';
+                    case 'u' -> unicodeEscape();
+                    default -> throw syntaxError("escape inválido");
+                };
+            }
+            append(value, c);
+        }
+    }
+
+    private int unicodeEscape() throws IOException {
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) throw syntaxError("escape \\u inválido");
+            code = code * 16 + digit;
+        }
+        return code;
+    }
+
+    /**
+     * Descarta um objeto ou lista, já consumido o caractere de abertura.
+     */
+    private void skipNested() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            if (c == -1) throw syntaxError("fim inesperado do arquivo");
+            if (c == '"') {
+                readString();
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+    }
+
+    private void expect(int c, char expected) throws IOException {
+        if (c != expected) {
+            throw syntaxError(c == -1 ? "fim inesperado do arquivo" : "esperado '" + expected + "', encontrado '" + (char) c + "'");
+        }
+    }
+
+    private IOException syntaxError(String detail) {
+        return new IOException("JSON inválido na linha " + line + ": " + detail + ".");
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\t' || c == '\r' || c == '\n');
+        return c;
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) peeked = in.read();
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        if (c == '\n') line++;
+        return c;
+    }
+
+    private static boolean isLiteralChar(int c) {
+        return Character.isLetterOrDigit(c) || c == '.' || c == '-' || c == '+';
+    }
+
+    private static void append(StringBuilder value, int c) {
+        if (value.length() < MAX_FIELD_LENGTH) value.append((char) c);
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.michael.productsmanager.service;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.JPAUtil;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Acompanha as alterações do catálogo do usuário feitas em outras estações, quando a tela lê direto do banco
+ * central (com a cópia local, o {@link CatalogSync} faz esse papel).
+ * <p>
+ * Uma thread própria busca, a cada {@code catalog.refresh.intervalSeconds}, apenas os produtos incluídos,
+ * alterados e excluídos desde a leitura anterior ({@link ProductDAO#changedSince}) e os entrega ao ouvinte:
+ * o custo depende da quantidade de alterações, não do tamanho do catálogo. Alterações lidas de novo na margem
+ * da marca (mesmo produto e versão da leitura anterior) não são entregues outra vez, e as entregues são
+ * descartadas dos caches do Hibernate, que não enxergam escritas de outras instâncias. No início e uma vez
+ * por dia, também descarta os registros de exclusão vencidos do usuário ({@link ProductDAO#pruneDeletions}).
+ */
+public class ProductChangePoller implements AutoCloseable {
+
+    private final User user;
+    private final ProductDAO dao;
+    private final Consumer<ProductDAO.Delta> listener;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "catalog-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Intervalo entre os descartes de registros de exclusão vencidos. */
+    private static final Duration PRUNE_INTERVAL = Duration.ofDays(1);
+
+    // Acessados apenas pela thread do scheduler
+    private boolean started;
+    private Instant nextPrune = Instant.MIN;
+    private Instant marker;
+    private int count;
+    private Map<Long, Long> lastChanged = Map.of();
+    private Set<Long> lastDeleted = Set.of();
+
+    private ProductChangePoller(User user, ProductDAO dao, Consumer<ProductDAO.Delta> listener) {
+        this.user = user;
+        this.dao = dao;
+        this.listener = listener;
+    }
+
+    /**
+     * Lê a marca atual do catálogo e inicia as leituras periódicas.
+     *
+     * @param user Usuário logado
+     * @param dao DAO do banco central
+     * @param listener Recebe as alterações de cada leitura que encontrar alguma (na thread de leitura)
+     * @return Leitura iniciada; deve ser encerrada com {@link #close()}
+     */
+    public static ProductChangePoller start(User user, ProductDAO dao, Consumer<ProductDAO.Delta> listener) {
+        ProductChangePoller poller = new ProductChangePoller(user, dao, listener);
+        long interval = JPAUtil.getIntProperty("catalog.refresh.intervalSeconds", 10);
+        poller.scheduler.scheduleWithFixedDelay(poller::poll, 0, interval, TimeUnit.SECONDS);
+        return poller;
+    }
+
+    /**
+     * Encerra as leituras.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void poll() {
+        try {
+            if (Instant.now().isAfter(nextPrune)) {
+                dao.pruneDeletions(user);
+                nextPrune = Instant.now().plus(PRUNE_INTERVAL);
+            }
+            if (!started) {
+                // Primeira execução, junto com a carga inicial da tabela: registra a marca e o que está na
+                // margem dela, que a tabela já mostra
+                ProductDAO.Delta current = dao.currentChanges(user);
+                remember(current);
+                started = true;
+                return;
+            }
+            ProductDAO.Delta delta = dao.changedSince(user, marker);
+
+            // Uma alteração só volta na leitura seguinte (margem da marca): basta comparar com a anterior
+            List<Product> changed = new ArrayList<>();
+            for (Product product : delta.changed()) {
+                if (!product.getVersion().equals(lastChanged.get(product.getId()))) changed.add(product);
+            }
+            List<Long> deleted = delta.deleted().stream().filter(id -> !lastDeleted.contains(id)).toList();
+            boolean catalogChanged = !deleted.isEmpty() || delta.count() != count;
+            remember(delta);
+
+            ProductDAO.Delta fresh = new ProductDAO.Delta(changed, deleted, delta.count(), marker);
+            if (fresh.isEmpty()) return;
+            List<Long> ids = new ArrayList<>(deleted);
+            changed.forEach(product -> ids.add(product.getId()));
+            dao.evictFromCache(ids, catalogChanged);
+            listener.accept(fresh);
+        } catch (RuntimeException e) {
+            // Banco inacessível: a mesma marca é lida de novo na próxima execução
+            e.printStackTrace();
+        }
+    }
+
+    private void remember(ProductDAO.Delta delta) {
+        Map<Long, Long> versions = new HashMap<>();
+        delta.changed().forEach(product -> versions.put(product.getId(), product.getVersion()));
+        marker = delta.marker();
+        count = delta.count();
+        lastChanged = versions;
+        lastDeleted = new HashSet<>(delta.deleted());
+    }
+}
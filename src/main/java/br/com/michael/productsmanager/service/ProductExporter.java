@@ -0,0 +1,244 @@
+package br.com.michael.productsmanager.service;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DbExecutor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Exporta o catálogo de um usuário para CSV ou JSON, no mesmo formato aceito pelo {@link ProductImporter}.
+ * <p>
+ * Os produtos são lidos em fluxo ({@link ProductDAO#scrollByUser}) e escritos direto em um
+ * {@link FileChannel} com buffer, linha a linha: a memória usada é a mesma para mil ou cinco milhões
+ * de produtos. O arquivo é montado em um temporário na mesma pasta e só substitui o destino ao final,
+ * de forma que uma exportação cancelada ou com erro não deixa um arquivo pela metade.
+ */
+public class ProductExporter {
+
+    /** Tamanho dos buffers de escrita, em caracteres e em bytes. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Intervalo mínimo entre dois avisos de progresso. */
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final ProductDAO productDAO;
+
+    public ProductExporter() {
+        this(new ProductDAO());
+    }
+
+    /**
+     * @param productDAO DAO usado na leitura do catálogo
+     */
+    public ProductExporter(ProductDAO productDAO) {
+        this.productDAO = productDAO;
+    }
+
+    /**
+     * Situação final de uma exportação.
+     */
+    public enum Status { COMPLETED, CANCELLED, FAILED }
+
+    /**
+     * Progresso de uma exportação.
+     *
+     * @param rows Produtos escritos
+     * @param totalRows Produtos do catálogo
+     */
+    public record Progress(long rows, long totalRows) {}
+
+    /**
+     * Resultado de uma exportação.
+     *
+     * @param status Situação final
+     * @param rows Produtos escritos
+     * @param bytes Tamanho do arquivo gerado
+     * @param seconds Duração da exportação
+     * @param failure Motivo da falha, se {@code status} for {@link Status#FAILED}
+     */
+    public record Result(Status status, long rows, long bytes, double seconds, String failure) {
+
+        /**
+         * @return Vazão da exportação, em MB por segundo
+         */
+        public double megabytesPerSecond() {
+            return seconds > 0 ? bytes / 1_048_576.0 / seconds : 0;
+        }
+    }
+
+    /**
+     * Inicia a exportação em segundo plano.
+     *
+     * @param target Arquivo de destino; a extensão {@code .json} gera JSON, as demais CSV
+     * @param user Usuário proprietário dos produtos
+     * @param onProgress Recebe o progresso periodicamente (em thread de fundo)
+     * @return Future com o resultado; cancelá-lo interrompe a exportação sem alterar o destino
+     */
+    public CompletableFuture<Result> start(Path target, User user, Consumer<Progress> onProgress) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        result.whenComplete((r, error) -> {
+            if (result.isCancelled()) cancelled.set(true);
+        });
+        DbExecutor.run(() -> result.complete(export(target, user, onProgress, cancelled::get)));
+        return result;
+    }
+
+    /**
+     * Exporta na thread atual.
+     *
+     * @param target Arquivo de destino; a extensão {@code .json} gera JSON, as demais CSV
+     * @param user Usuário proprietário dos produtos
+     * @param onProgress Recebe o progresso periodicamente
+     * @param cancelled Consultado a cada produto; quando {@code true}, a exportação é abandonada
+     * @return Resultado da exportação
+     */
+    public Result export(Path target, User user, Consumer<Progress> onProgress, BooleanSupplier cancelled) {
+        long startedAt = System.nanoTime();
+        boolean json = target.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = null;
+        long[] rows = new long[1];
+        try {
+            temp = Files.createTempFile(directory, target.getFileName().toString(), ".part");
+            long totalRows = productDAO.countByUser(user);
+            long bytes;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE), BUFFER_SIZE)) {
+                out.write(json ? "[" : "nome;preco;descricao\n");
+                long[] lastProgress = {startedAt};
+                productDAO.scrollByUser(user, row -> {
+                    if (cancelled.getAsBoolean()) return false;
+                    try {
+                        if (json) {
+                            writeJson(out, row, rows[0] == 0);
+                        } else {
+                            writeCsv(out, row);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+
+                    long now = System.nanoTime();
+                    if (now - lastProgress[0] >= PROGRESS_INTERVAL_NANOS) {
+                        lastProgress[0] = now;
+                        onProgress.accept(new Progress(rows[0], totalRows));
+                    }
+                    return true;
+                });
+                if (json) out.write(rows[0] == 0 ? "]\n" : "\n]\n");
+                out.flush();
+                bytes = channel.size();
+            }
+
+            if (cancelled.getAsBoolean()) {
+                return new Result(Status.CANCELLED, rows[0], 0, elapsed(startedAt), null);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+            onProgress.accept(new Progress(rows[0], totalRows));
+            return new Result(Status.COMPLETED, rows[0], bytes, elapsed(startedAt), null);
+        } catch (IOException | RuntimeException e) {
+            Throwable cause = e instanceof UncheckedIOException unchecked ? unchecked.getCause() : e;
+            cause.printStackTrace();
+            return new Result(Status.FAILED, rows[0], 0, elapsed(startedAt),
+                    cause.getMessage() != null ? cause.getMessage() : cause.toString());
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static void writeCsv(Writer out, Object[] row) throws IOException {
+        writeCsvField(out, (String) row[1]);
+        out.write(';');
+        out.write(price((Double) row[2]));
+        out.write(';');
+        writeCsvField(out, (String) row[3]);
+        out.write('\n');
+    }
+
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = value.indexOf(';') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static void writeJson(Writer out, Object[] row, boolean first) throws IOException {
+        out.write(first ? "\n{\"nome\": " : ",\n{\"nome\": ");
+        writeJsonString(out, (String) row[1]);
+        out.write(", \"preco\": ");
+        out.write(row[2] == null ? "null" : BigDecimal.valueOf((Double) row[2]).toPlainString());
+        out.write(", \"descricao\": ");
+        writeJsonString(out, (String) row[3]);
+        out.write('}');
+    }
+
+    private static void writeJsonString(Writer out, String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * Preço com vírgula decimal e sem separador de milhar (ex: {@code 1234,5}), como a importação espera.
+     */
+    private static String price(Double price) {
+        return price == null ? "" : BigDecimal.valueOf(price).toPlainString().replace('.', ',');
+    }
+
+    private static double elapsed(long startedAt) {
+        return (System.nanoTime() - startedAt) / 1e9;
+    }
+}
@@ -0,0 +1,312 @@
+package br.com.michael.productsmanager.service;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DbExecutor;
+import br.com.michael.productsmanager.util.JPAUtil;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Importa produtos de arquivos CSV ou JSON de qualquer tamanho.
+ * <p>
+ * A importação roda em duas etapas ligadas por uma fila limitada ({@code import.queueBatches} lotes):
+ * a leitura percorre o arquivo aos poucos, valida cada registro com o {@link ProductValidator} e monta
+ * lotes de {@code import.batchSize} produtos; a gravação insere cada lote em uma transação própria
+ * ({@link ProductDAO#addProducts}). Quando o banco é mais lento que a leitura, a fila enche e a leitura
+ * espera, mantendo a memória constante.
+ * <p>
+ * Cancelar o future devolvido por {@link #start} interrompe a importação entre dois lotes: os lotes já
+ * gravados permanecem e nenhum lote fica gravado pela metade.
+ */
+public class ProductImporter {
+
+    /** Quantidade máxima de rejeições guardadas com o motivo; as demais são apenas contadas. */
+    public static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    /** Intervalo mínimo entre dois avisos de progresso. */
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private static final List<Product> END_OF_FILE = Collections.emptyList();
+
+    private final ProductDAO productDAO;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    public ProductImporter() {
+        this(new ProductDAO());
+    }
+
+    /**
+     * @param productDAO DAO usado na gravação dos lotes
+     */
+    public ProductImporter(ProductDAO productDAO) {
+        this.productDAO = productDAO;
+        this.batchSize = Math.max(1, JPAUtil.getIntProperty("import.batchSize", 1000));
+        this.queueCapacity = Math.max(1, JPAUtil.getIntProperty("import.queueBatches", 4));
+    }
+
+    /**
+     * Situação de uma importação.
+     */
+    public enum Status { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    /**
+     * Progresso de uma importação.
+     *
+     * @param status Situação da importação
+     * @param records Registros lidos do arquivo
+     * @param imported Produtos gravados
+     * @param rejected Registros rejeitados
+     * @param fraction Fração do arquivo já lida (0 a 1)
+     * @param rowsPerSecond Produtos gravados por segundo desde o início
+     */
+    public record Progress(Status status, long records, long imported, long rejected, double fraction, double rowsPerSecond) {}
+
+    /**
+     * Registro rejeitado.
+     *
+     * @param line Linha do arquivo onde o registro começa
+     * @param reason Motivo da rejeição
+     */
+    public record Rejection(long line, String reason) {}
+
+    /**
+     * Resultado de uma importação.
+     *
+     * @param summary Contadores finais
+     * @param rejections Primeiras {@link #MAX_REPORTED_REJECTIONS} rejeições, em ordem de linha
+     * @param failure Motivo da falha, se {@code summary.status()} for {@link Status#FAILED}
+     */
+    public record Result(Progress summary, List<Rejection> rejections, String failure) {}
+
+    /**
+     * Inicia a importação de um arquivo em segundo plano.
+     *
+     * @param file Arquivo {@code .csv} ou {@code .json}, em UTF-8
+     * @param user Usuário proprietário dos produtos importados
+     * @param onProgress Recebe o progresso periodicamente e o resumo final (em threads de fundo)
+     * @param onCommitted Recebe cada lote logo após ser gravado, já com IDs (em thread de fundo)
+     * @return Future com o resultado; cancelá-lo interrompe a importação
+     */
+    public CompletableFuture<Result> start(Path file, User user, Consumer<Progress> onProgress,
+                                           Consumer<List<Product>> onCommitted) {
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        Run run = new Run(file, user, onProgress, onCommitted);
+        result.whenComplete((r, error) -> {
+            if (result.isCancelled()) run.cancelled.set(true);
+        });
+
+        CompletableFuture<Void> reading = DbExecutor.run(run::read);
+        CompletableFuture<Void> writing = DbExecutor.run(run::write);
+        CompletableFuture.allOf(reading, writing).whenComplete((done, error) -> {
+            if (error != null) run.fail(error);
+            result.complete(run.finish());
+        });
+        return result;
+    }
+
+    /**
+     * Estado de uma importação em andamento, compartilhado entre a leitura e a gravação.
+     */
+    private class Run {
+
+        private final Path file;
+        private final User user;
+        private final Consumer<Progress> onProgress;
+        private final Consumer<List<Product>> onCommitted;
+
+        private final BlockingQueue<List<Product>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        private final AtomicReference<String> failure = new AtomicReference<>();
+        private final AtomicLong records = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong lastProgress = new AtomicLong();
+        private final List<Rejection> rejections = new ArrayList<>();
+        private final long startedAt = System.nanoTime();
+        private volatile long fileSize;
+
+        Run(Path file, User user, Consumer<Progress> onProgress, Consumer<List<Product>> onCommitted) {
+            this.file = file;
+            this.user = user;
+            this.onProgress = onProgress;
+            this.onCommitted = onCommitted;
+        }
+
+        /**
+         * Etapa de leitura: lê, valida e enfileira os lotes.
+         */
+        void read() {
+            try (InputStream counting = new CountingInputStream(Files.newInputStream(file), bytesRead);
+                 ProductRecordReader reader = ProductRecordReader.open(file.getFileName().toString(),
+                         new InputStreamReader(counting, StandardCharsets.UTF_8))) {
+                fileSize = Files.size(file);
+
+                List<Product> batch = new ArrayList<>(batchSize);
+                ProductRecordReader.Row row;
+                while (!isStopping() && (row = reader.next()) != null) {
+                    records.incrementAndGet();
+                    Product product = toProduct(row);
+                    if (product != null) {
+                        batch.add(product);
+                        if (batch.size() == batchSize) {
+                            enqueue(batch);
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                    report();
+                }
+                if (!batch.isEmpty()) enqueue(batch);
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            } finally {
+                enqueue(END_OF_FILE);
+            }
+        }
+
+        /**
+         * Etapa de gravação: grava cada lote em uma transação.
+         */
+        void write() {
+            try {
+                while (true) {
+                    List<Product> batch = queue.take();
+                    if (batch == END_OF_FILE || isStopping()) return;
+
+                    imported.addAndGet(productDAO.addProducts(batch));
+                    onCommitted.accept(batch);
+                    report();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            } catch (RuntimeException e) {
+                fail(e);
+            } finally {
+                // Libera a leitura, caso esteja esperando espaço na fila
+                stopped.set(true);
+                queue.clear();
+            }
+        }
+
+        private Product toProduct(ProductRecordReader.Row row) {
+            if (row.error() != null) {
+                reject(row.line(), row.error());
+                return null;
+            }
+            try {
+                Product product = ProductValidator.validate(row.name(), row.price(), row.description());
+                product.setUser(user);
+                return product;
+            } catch (ProductValidator.InvalidProductException e) {
+                reject(row.line(), e.getMessage());
+                return null;
+            }
+        }
+
+        private void reject(long line, String reason) {
+            if (rejected.incrementAndGet() <= MAX_REPORTED_REJECTIONS) {
+                rejections.add(new Rejection(line, reason));
+            }
+        }
+
+        /**
+         * Enfileira um lote, esperando espaço enquanto a gravação estiver ativa.
+         */
+        private void enqueue(List<Product> batch) {
+            try {
+                while (!stopped.get()) {
+                    if (queue.offer(batch, 100, TimeUnit.MILLISECONDS)) return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+
+        private boolean isStopping() {
+            return cancelled.get() || stopped.get() || failure.get() != null;
+        }
+
+        void fail(Throwable error) {
+            if (failure.compareAndSet(null, error.getMessage() != null ? error.getMessage() : error.toString())) {
+                error.printStackTrace();
+            }
+        }
+
+        Result finish() {
+            Status status = failure.get() != null ? Status.FAILED
+                    : cancelled.get() ? Status.CANCELLED : Status.COMPLETED;
+            Progress summary = progress(status);
+            onProgress.accept(summary);
+            return new Result(summary, List.copyOf(rejections), failure.get());
+        }
+
+        /**
+         * Avisa o progresso, no máximo a cada {@link #PROGRESS_INTERVAL_NANOS}.
+         */
+        private void report() {
+            long now = System.nanoTime();
+            long last = lastProgress.get();
+            if (now - last >= PROGRESS_INTERVAL_NANOS && lastProgress.compareAndSet(last, now)) {
+                onProgress.accept(progress(Status.RUNNING));
+            }
+        }
+
+        private Progress progress(Status status) {
+            double seconds = (System.nanoTime() - startedAt) / 1e9;
+            double fraction = status == Status.COMPLETED ? 1
+                    : fileSize > 0 ? Math.min(1, bytesRead.get() / (double) fileSize) : 0;
+            return new Progress(status, records.get(), imported.get(), rejected.get(), fraction,
+                    seconds > 0 ? imported.get() / seconds : 0);
+        }
+    }
+
+    /**
+     * Conta os bytes lidos do arquivo, para estimar o progresso.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count.incrementAndGet();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count.addAndGet(n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.michael.productsmanager.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Leitor sequencial dos registros de um arquivo de importação de produtos.
+ * <p>
+ * Os leitores consomem o arquivo aos poucos e limitam o tamanho de cada campo, de forma que a
+ * memória usada não depende do tamanho do arquivo.
+ * <p>
+ * Usado pela importação de arquivos ({@link ProductImporter}) e, via {@link #parseJson}, pela API HTTP.
+ */
+public interface ProductRecordReader extends Closeable {
+
+    /** Campos lidos além deste tamanho são descartados; o validador rejeita o registro pelo tamanho. */
+    int MAX_FIELD_LENGTH = ProductValidator.MAX_TEXT_LENGTH + 1;
+
+    /**
+     * @return Próximo registro, ou {@code null} no fim do arquivo
+     * @throws IOException se o arquivo não puder ser lido ou estiver corrompido a ponto de não ser
+     *         possível continuar
+     */
+    Row next() throws IOException;
+
+    /**
+     * Registro lido do arquivo, ainda sem validação.
+     *
+     * @param line Linha do arquivo onde o registro começa
+     * @param name Nome informado
+     * @param price Preço informado, como texto
+     * @param description Descrição informada
+     * @param error Erro de estrutura do registro (ex: colunas faltando), ou {@code null}
+     */
+    record Row(long line, String name, String price, String description, String error) {
+
+        static Row malformed(long line, String error) {
+            return new Row(line, null, null, null, error);
+        }
+    }
+
+    /**
+     * Cria o leitor adequado à extensão do arquivo ({@code .json} ou {@code .csv}).
+     *
+     * @param fileName Nome do arquivo
+     * @param in Conteúdo do arquivo
+     * @return Leitor de registros
+     * @throws IOException se o cabeçalho não puder ser lido
+     */
+    static ProductRecordReader open(String fileName, Reader in) throws IOException {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".json") ? new JsonProductReader(in) : new CsvProductReader(in);
+    }
+
+    /**
+     * Lê um único objeto JSON com os campos de um produto (ex: o corpo de uma requisição).
+     *
+     * @param json Objeto JSON
+     * @return Registro lido, ainda sem validação
+     * @throws IOException se o texto não for exatamente um objeto JSON válido
+     */
+    static Row parseJson(String json) throws IOException {
+        try (JsonProductReader reader = new JsonProductReader(new StringReader("[" + json + "]"))) {
+            Row row = reader.next();
+            if (row == null || reader.next() != null) {
+                throw new IOException("Esperado um único objeto JSON.");
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Identifica o campo do produto pelo nome da coluna ou da chave, em português ou inglês,
+     * sem diferenciar maiúsculas nem acentos.
+     *
+     * @param key Nome da coluna ou chave
+     * @return 0 para nome, 1 para preço, 2 para descrição, ou -1 se não for um campo do produto
+     */
+    static int fieldIndex(String key) {
+        String normalized = Normalizer.normalize(key.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        return switch (normalized) {
+            case "nome", "name" -> 0;
+            case "preco", "price" -> 1;
+            case "descricao", "description" -> 2;
+            default -> -1;
+        };
+    }
+}
@@ -0,0 +1,334 @@
+package br.com.michael.productsmanager.service;
+
+import br.com.michael.productsmanager.dao.LocalProductDAO;
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.model.Product;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DbExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * Índice invertido de trigramas para a busca de produtos por trecho do nome ou da descrição.
+ * <p>
+ * Cada produto ocupa uma posição (slot) e guarda seu texto já em minúsculas; cada trigrama do texto
+ * aponta para um {@link BitSet} com as posições que o contêm. Uma busca intersecta os conjuntos dos
+ * trigramas do termo e confirma com {@code contains} apenas os candidatos, sem percorrer o catálogo
+ * nem criar strings por produto. Termos com menos de 3 caracteres percorrem os textos guardados.
+ * <p>
+ * O índice é incremental ({@link #add}, {@link #remove}) e seguro entre threads: buscas rodam em
+ * paralelo entre si e esperam apenas pelas alterações. Durante a carga do catálogo, os IDs removidos ficam
+ * registrados até o fim dela, para que uma página lida antes da exclusão não devolva o produto ao índice.
+ */
+public class ProductSearchIndex {
+
+    /** Produtos lidos do banco por consulta ao montar o índice. */
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    /** A cada quantos candidatos a busca verifica se foi cancelada. */
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, BitSet> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final BitSet freeSlots = new BitSet();
+    private String[] texts = new String[1024];
+    private long[] ids = new long[1024];
+    private int slotCount;
+
+    // Cargas em andamento e IDs removidos durante elas, ignorados pelas páginas ainda não indexadas
+    private int loads;
+    private final Set<Long> removedDuringLoad = new HashSet<>();
+
+    private volatile CompletableFuture<Void> ready = CompletableFuture.completedFuture(null);
+
+    /**
+     * Monta o índice com o catálogo do usuário, página a página, na thread atual.
+     * Produtos incluídos ou alterados durante a carga (via {@link #add}) mantêm o texto mais recente, e os
+     * removidos (via {@link #remove}) não voltam ao índice, mesmo que uma página lida antes da remoção os traga.
+     *
+     * @param dao DAO usado na leitura do catálogo
+     * @param user Usuário proprietário dos produtos
+     */
+    public void indexCatalog(ProductDAO dao, User user) {
+        index((afterId, limit) -> dao.listSearchTextPage(user, afterId, limit));
+    }
+
+    /**
+     * Páginas {@code [id, name, description]} do catálogo, em ordem de ID.
+     */
+    @FunctionalInterface
+    private interface TextPages {
+        List<Object[]> read(Long afterId, int limit);
+    }
+
+    private void index(TextPages pages) {
+        lock.writeLock().lock();
+        try {
+            loads++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Long afterId = null;
+            List<Object[]> rows;
+            do {
+                rows = pages.read(afterId, LOAD_PAGE_SIZE);
+                lock.writeLock().lock();
+                try {
+                    for (Object[] row : rows) {
+                        Long id = (Long) row[0];
+                        if (!slotsById.containsKey(id) && !removedDuringLoad.contains(id)) {
+                            insert(id, (String) row[1], (String) row[2]);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!rows.isEmpty()) {
+                    afterId = (Long) rows.get(rows.size() - 1)[0];
+                }
+            } while (rows.size() == LOAD_PAGE_SIZE);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (--loads == 0) removedDuringLoad.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Monta o índice em segundo plano, se o catálogo couber no limite informado.
+     * Buscas feitas antes do fim aguardam a carga.
+     *
+     * @param dao DAO usado na leitura do catálogo
+     * @param user Usuário proprietário dos produtos
+     * @param maxProducts Tamanho máximo de catálogo indexado em memória
+     * @return Future com {@code true} quando o índice estiver completo, ou {@code false} se o catálogo
+     *         for maior que o limite (o índice fica vazio e a busca deve ser feita no banco)
+     */
+    public CompletableFuture<Boolean> indexCatalogAsync(ProductDAO dao, User user, int maxProducts) {
+        return indexAsync(() -> dao.countByUser(user), (afterId, limit) -> dao.listSearchTextPage(user, afterId, limit),
+                maxProducts);
+    }
+
+    /**
+     * Monta o índice em segundo plano a partir da cópia local do catálogo, se ele couber no limite informado.
+     *
+     * @param store Cópia local do catálogo
+     * @param maxProducts Tamanho máximo de catálogo indexado em memória
+     * @return Future com {@code true} quando o índice estiver completo, ou {@code false} se o catálogo
+     *         for maior que o limite
+     * @see #indexCatalogAsync(ProductDAO, User, int)
+     */
+    public CompletableFuture<Boolean> indexCatalogAsync(LocalProductDAO store, int maxProducts) {
+        return indexAsync(store::count, store::listSearchTextPage, maxProducts);
+    }
+
+    private CompletableFuture<Boolean> indexAsync(IntSupplier count, TextPages pages, int maxProducts) {
+        CompletableFuture<Boolean> load = DbExecutor.supply(() -> {
+            if (count.getAsInt() > maxProducts) return false;
+            index(pages);
+            return true;
+        });
+        ready = load.thenRun(() -> {});
+        return load;
+    }
+
+    /**
+     * Indexa um produto novo ou reindexa um produto alterado.
+     *
+     * @param product Produto com ID
+     */
+    public void add(Product product) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.get(product.getId());
+            if (slot != null) {
+                release(slot);
+            }
+            removedDuringLoad.remove(product.getId());
+            insert(product.getId(), product.getName(), product.getDescription());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um produto do índice.
+     *
+     * @param id ID do produto
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.get(id);
+            if (slot != null) {
+                release(slot);
+            }
+            if (loads > 0) removedDuringLoad.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Quantidade de produtos indexados
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca em segundo plano, depois que o índice estiver pronto.
+     * Cancelar o future interrompe a busca na próxima verificação.
+     *
+     * @param term Trecho procurado no nome ou na descrição (sem diferenciar maiúsculas)
+     * @return Future com os IDs encontrados, em ordem crescente
+     */
+    public CompletableFuture<List<Long>> searchAsync(String term) {
+        CompletableFuture<List<Long>> result = new CompletableFuture<>();
+        // Se a carga falhar, a busca ainda usa o que já foi indexado
+        ready.whenCompleteAsync((loaded, loadError) -> {
+            try {
+                List<Long> found = search(term, result::isDone);
+                if (found != null) result.complete(found);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Busca na thread atual.
+     *
+     * @param term Trecho procurado no nome ou na descrição (sem diferenciar maiúsculas)
+     * @return IDs encontrados, em ordem crescente
+     */
+    public List<Long> search(String term) {
+        return search(term, () -> false);
+    }
+
+    /**
+     * @param term Trecho procurado
+     * @param cancelled Consultado periodicamente; quando {@code true}, a busca é abandonada
+     * @return IDs encontrados, em ordem crescente, ou {@code null} se a busca foi cancelada
+     */
+    private List<Long> search(String term, BooleanSupplier cancelled) {
+        String needle = normalize(term);
+        lock.readLock().lock();
+        try {
+            BitSet candidates = candidates(needle, cancelled);
+            if (candidates == null) return null;
+
+            long[] found = new long[Math.min(candidates.cardinality(), slotsById.size())];
+            int count = 0;
+            int checked = 0;
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                if (++checked % CANCEL_CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) return null;
+                if (texts[slot] != null && texts[slot].contains(needle)) {
+                    found[count++] = ids[slot];
+                }
+            }
+
+            Arrays.sort(found, 0, count);
+            List<Long> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) result.add(found[i]);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posições que contêm todos os trigramas do termo (ou todas, para termos curtos).
+     */
+    private BitSet candidates(String needle, BooleanSupplier cancelled) {
+        if (needle.length() < 3) {
+            BitSet all = new BitSet(slotCount);
+            all.set(0, slotCount);
+            all.andNot(freeSlots);
+            return all;
+        }
+
+        List<BitSet> sets = new ArrayList<>();
+        for (long trigram : trigrams(needle)) {
+            BitSet set = postings.get(trigram);
+            if (set == null) return new BitSet();
+            sets.add(set);
+        }
+        sets.sort(Comparator.comparingInt(BitSet::cardinality));
+
+        BitSet result = (BitSet) sets.get(0).clone();
+        for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+            if (cancelled.getAsBoolean()) return null;
+            result.and(sets.get(i));
+        }
+        return result;
+    }
+
+    private void insert(Long id, String name, String description) {
+        int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.nextSetBit(0);
+        freeSlots.clear(slot);
+        if (slot >= texts.length) {
+            texts = Arrays.copyOf(texts, texts.length * 2);
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+
+        String text = normalize(name) + '\n' + normalize(description);
+        texts[slot] = text;
+        ids[slot] = id;
+        slotsById.put(id, slot);
+        for (long trigram : trigrams(text)) {
+            postings.computeIfAbsent(trigram, k -> new BitSet()).set(slot);
+        }
+    }
+
+    private void release(int slot) {
+        for (long trigram : trigrams(texts[slot])) {
+            BitSet set = postings.get(trigram);
+            set.clear(slot);
+            if (set.isEmpty()) postings.remove(trigram);
+        }
+        slotsById.remove(ids[slot]);
+        texts[slot] = null;
+        freeSlots.set(slot);
+    }
+
+    /**
+     * Trigramas distintos de um texto, cada um com seus três caracteres agrupados em um {@code long}.
+     */
+    private static Set<Long> trigrams(String text) {
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return result;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
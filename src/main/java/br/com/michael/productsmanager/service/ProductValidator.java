@@ -0,0 +1,99 @@
+package br.com.michael.productsmanager.service;
+
+import br.com.michael.productsmanager.model.Product;
+
+/**
+ * Regras de validação dos dados de um produto, compartilhadas pelo formulário da tela principal
+ * e pela importação de arquivos ({@link ProductImporter}).
+ */
+public final class ProductValidator {
+
+    /** Tamanho máximo do nome e da descrição (colunas {@code varchar(255)}). */
+    public static final int MAX_TEXT_LENGTH = 255;
+
+    private ProductValidator() {}
+
+    /**
+     * Valida os campos informados e monta o produto correspondente.
+     *
+     * @param name Nome do produto
+     * @param priceText Preço digitado, com vírgula ou ponto como separador decimal
+     * @param description Descrição do produto
+     * @return Produto com os campos sem espaços nas pontas (ainda sem usuário)
+     * @throws InvalidProductException se algum campo for inválido
+     */
+    public static Product validate(String name, String priceText, String description) {
+        if (isBlank(name) || isBlank(priceText) || isBlank(description)) {
+            throw new InvalidProductException("Campos obrigatórios", "Preencha todos os campos.");
+        }
+        double price = parsePrice(priceText);
+        return new Product(checkLength("nome", name.trim()), price, checkLength("descrição", description.trim()));
+    }
+
+    /**
+     * Converte o preço digitado, aceitando vírgula como separador decimal (ex: {@code 10,50}).
+     *
+     * @param priceText Preço digitado
+     * @return Preço maior que zero
+     * @throws InvalidProductException se o texto não for um número positivo
+     */
+    public static double parsePrice(String priceText) {
+        double price;
+        try {
+            price = Double.parseDouble(priceText.trim().replace(",", "."));
+        } catch (NumberFormatException e) {
+            throw new InvalidProductException("Erro de formato", "Digite um número válido para o preço.");
+        }
+        if (!Double.isFinite(price)) {
+            throw new InvalidProductException("Erro de formato", "Digite um número válido para o preço.");
+        }
+        if (price <= 0) {
+            throw new InvalidProductException("Preço inválido", "O preço deve ser maior que zero.");
+        }
+        return price;
+    }
+
+    /**
+     * @param field Nome do campo, usado na mensagem
+     * @param value Texto informado
+     * @return O próprio texto, se couber na coluna
+     * @throws InvalidProductException se o texto tiver mais de {@link #MAX_TEXT_LENGTH} caracteres
+     */
+    public static String checkLength(String field, String value) {
+        if (value.length() > MAX_TEXT_LENGTH) {
+            throw new InvalidProductException("Texto muito longo",
+                    "O campo " + field + " deve ter no máximo " + MAX_TEXT_LENGTH + " caracteres.");
+        }
+        return value;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Dados de produto inválidos. O título e a mensagem são exibidos ao usuário.
+     */
+    public static class InvalidProductException extends IllegalArgumentException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String title;
+
+        /**
+         * @param title Título do alerta
+         * @param message Motivo da rejeição
+         */
+        public InvalidProductException(String title, String message) {
+            super(message);
+            this.title = title;
+        }
+
+        /**
+         * @return Título do alerta
+         */
+        public String getTitle() {
+            return title;
+        }
+    }
+}
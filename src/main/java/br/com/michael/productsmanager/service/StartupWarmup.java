@@ -0,0 +1,55 @@
+package br.com.michael.productsmanager.service;
+
+import br.com.michael.productsmanager.dao.ProductDAO;
+import br.com.michael.productsmanager.dao.UserDAO;
+import br.com.michael.productsmanager.model.User;
+import br.com.michael.productsmanager.util.DbExecutor;
+import br.com.michael.productsmanager.util.JPAUtil;
+import br.com.michael.productsmanager.util.StartupTimeline;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Aquecimento da camada de persistência enquanto a tela de login é exibida.
+ * <p>
+ * Constrói a {@code EntityManagerFactory} em segundo plano ({@link JPAUtil#warmUp()}) e, com ela pronta,
+ * executa uma vez as consultas do login e da primeira página do catálogo com valores que não existem.
+ * Assim a conexão já está aberta e o Hibernate já compilou essas consultas quando o usuário clicar em
+ * "Entrar". Falhas são apenas registradas: o login tenta de novo e mostra o erro ao usuário.
+ */
+public final class StartupWarmup {
+
+    private StartupWarmup() {}
+
+    /**
+     * Inicia o aquecimento sem bloquear a thread chamadora.
+     *
+     * @return Future concluído ao fim do aquecimento (nunca com erro)
+     */
+    public static CompletableFuture<Void> start() {
+        return JPAUtil.warmUp()
+                .thenRunAsync(StartupWarmup::warmQueries, DbExecutor.executor())
+                .exceptionally(error -> {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    System.err.println("Aquecimento do banco de dados não concluído: " + cause);
+                    return null;
+                });
+    }
+
+    /**
+     * Executa as consultas do login e da abertura da tela principal.
+     */
+    private static void warmQueries() {
+        new UserDAO().findByUsername(""); // nenhum usuário tem o nome vazio
+
+        // Nenhum produto pertence a um ID negativo: as consultas só percorrem o índice
+        User nobody = new User();
+        nobody.setId(-1L);
+        ProductDAO productDAO = new ProductDAO();
+        productDAO.countByUser(nobody);
+        productDAO.listPageByUser(nobody, null, 1);
+        productDAO.findProduct(-1L);
+
+        StartupTimeline.mark("Consultas aquecidas");
+    }
+}
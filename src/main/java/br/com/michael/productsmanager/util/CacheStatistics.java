@@ -0,0 +1,99 @@
+package br.com.michael.productsmanager.util;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Estatísticas do cache de segundo nível e do cache de consultas.
+ * <p>
+ * Acertos, falhas e inserções vêm das estatísticas do Hibernate; as remoções por tamanho ou
+ * expiração vêm dos MBeans JCache publicados pelo Ehcache ({@code javax.cache:type=CacheStatistics}).
+ */
+public final class CacheStatistics {
+
+    /**
+     * Contadores de uma região do cache.
+     *
+     * @param region Nome da região (ex: {@code product})
+     * @param hits Leituras atendidas pelo cache
+     * @param misses Leituras que precisaram ir ao banco
+     * @param puts Entradas gravadas no cache
+     * @param evictions Entradas descartadas por limite de tamanho ou expiração
+     */
+    public record RegionStats(String region, long hits, long misses, long puts, long evictions) {
+
+        /**
+         * @return Fração das leituras atendidas pelo cache (0 a 1)
+         */
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : hits / (double) total;
+        }
+    }
+
+    private CacheStatistics() {}
+
+    /**
+     * Lê os contadores atuais de todas as regiões de entidade e do cache de consultas.
+     *
+     * @return Contadores por região
+     */
+    public static List<RegionStats> snapshot() {
+        Statistics stats = JPAUtil.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        List<RegionStats> result = new ArrayList<>();
+        String queryRegion = "default-query-results-region";
+
+        for (String region : stats.getSecondLevelCacheRegionNames()) {
+            if (region.equals(queryRegion)) continue;
+            CacheRegionStatistics regionStats = stats.getDomainDataRegionStatistics(region);
+            result.add(new RegionStats(region, regionStats.getHitCount(), regionStats.getMissCount(),
+                    regionStats.getPutCount(), evictions(region)));
+        }
+
+        result.add(new RegionStats(queryRegion, stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount(),
+                stats.getQueryCachePutCount(), evictions(queryRegion)));
+        return result;
+    }
+
+    /**
+     * Monta um relatório legível das estatísticas, uma região por linha.
+     *
+     * @return Relatório formatado
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder("Cache de segundo nível:");
+        for (RegionStats stats : snapshot()) {
+            sb.append(String.format(Locale.US, "%n  %-32s hits=%d misses=%d puts=%d evictions=%d hitRatio=%.1f%%",
+                    stats.region(), stats.hits(), stats.misses(), stats.puts(), stats.evictions(), stats.hitRatio() * 100));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Lê a quantidade de remoções de uma região no MBean de estatísticas JCache.
+     *
+     * @param region Nome da região
+     * @return Remoções acumuladas, ou 0 se o MBean não estiver disponível
+     */
+    private static long evictions(String region) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            for (ObjectName name : server.queryNames(new ObjectName("javax.cache:type=CacheStatistics,*"), null)) {
+                if (region.equals(name.getKeyProperty("Cache"))) {
+                    return ((Number) server.getAttribute(name, "CacheEvictions")).longValue();
+                }
+            }
+        } catch (Exception e) {
+            // Estatísticas JCache desativadas: apenas não há contagem de remoções
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,230 @@
+package br.com.michael.productsmanager.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de latência dos métodos dos DAOs.
+ * <p>
+ * Cada método instrumentado tem uma {@link Operation} (ex: {@code ProductDAO.findProduct}) com chamadas,
+ * erros (exceções lançadas ou falhas tratadas pelo DAO) e latências p50/p95/p99/máxima em um
+ * {@link LatencyHistogram}.
+ * <p>
+ * Chamadas e erros são contados sempre; a latência é medida em uma amostra de 1 a cada
+ * {@code db.metrics.sampleRate} chamadas (padrão 16). Ler o relógio custa dezenas de nanossegundos em
+ * algumas máquinas virtuais, duas leituras por chamada passariam de 1% de uma leitura atendida pelo cache
+ * de segundo nível, e os percentis de uma amostra aleatória são os mesmos. A máxima é a da amostra.
+ * No caminho do DAO não há bloqueio.
+ * <p>
+ * Cada chamada ({@link Call}) também é um evento JFR {@code DaoCall}, com o id da ação do usuário
+ * ({@link Tracing}).
+ * <p>
+ * As operações são publicadas via JMX ({@code br.com.michael.productsmanager:type=DaoMetrics,name=<operação>})
+ * e exibidas no painel de diagnóstico. {@code db.metrics.enabled=false} desliga a coleta.
+ */
+public final class DaoMetrics {
+
+    /** Atributos de uma operação publicados via JMX. */
+    public interface OperationMXBean {
+        long getCount();
+        long getErrorCount();
+        double getP50Millis();
+        double getP95Millis();
+        double getP99Millis();
+        double getMaxMillis();
+    }
+
+    /**
+     * Uma chamada em andamento: iniciada por {@link Operation#start()} e concluída por {@link #finish()}.
+     */
+    @Name(Tracing.EVENT_PREFIX + "DaoCall")
+    @Label("Chamada de DAO")
+    @Category(Tracing.CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public static final class Call extends Event {
+
+        @Label("Id da ação") long actionId;
+        @Label("Operação") String operation;
+        @Label("Falhou") boolean failed;
+
+        private final transient Operation metrics;
+        private final transient long start;
+
+        private Call(Operation metrics) {
+            this.metrics = metrics;
+            this.start = sampleStart();
+        }
+
+        /**
+         * Marca a chamada como terminada em erro.
+         */
+        public void fail() {
+            failed = true;
+            if (ENABLED) metrics.histogram.recordError();
+        }
+
+        /**
+         * Conclui a chamada (com ou sem erro). Deve ser chamado uma vez, no {@code finally} do método.
+         */
+        public void finish() {
+            if (ENABLED) {
+                metrics.calls.increment();
+                if (start != NOT_SAMPLED) metrics.histogram.record(System.nanoTime() - start);
+            }
+            end();
+            if (shouldCommit()) {
+                actionId = Tracing.currentActionId();
+                operation = metrics.name;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Métricas de um método de DAO.
+     */
+    public static final class Operation implements OperationMXBean {
+
+        private final String name;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder calls = new LongAdder();
+
+        private Operation(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Inicia uma chamada.
+         *
+         * @return Chamada em andamento
+         */
+        public Call start() {
+            Call call = new Call(this);
+            call.begin();
+            return call;
+        }
+
+        /**
+         * @return Contagens até o momento e percentis das chamadas amostradas
+         */
+        public LatencyHistogram.Snapshot snapshot() {
+            LatencyHistogram.Snapshot sampled = histogram.snapshot();
+            return new LatencyHistogram.Snapshot(calls.sum(), sampled.errors(),
+                    sampled.p50(), sampled.p95(), sampled.p99(), sampled.max());
+        }
+
+        @Override public long getCount() { return snapshot().count(); }
+        @Override public long getErrorCount() { return snapshot().errors(); }
+        @Override public double getP50Millis() { return snapshot().p50(); }
+        @Override public double getP95Millis() { return snapshot().p95(); }
+        @Override public double getP99Millis() { return snapshot().p99(); }
+        @Override public double getMaxMillis() { return snapshot().max(); }
+    }
+
+    /** Coleta ativa ({@code db.metrics.enabled}, padrão {@code true}). */
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(JPAUtil.getProperty("db.metrics.enabled"));
+
+    /** Sorteio da amostra ({@code db.metrics.sampleRate} arredondado para potência de dois): mede quando os bits da máscara são zero. */
+    private static final int SAMPLE_MASK =
+            Integer.highestOneBit(Math.max(1, JPAUtil.getIntProperty("db.metrics.sampleRate", 16)) * 2 - 1) - 1;
+
+    /** Início das chamadas fora da amostra. */
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private static final Map<String, Operation> operations = new ConcurrentSkipListMap<>();
+    private static volatile boolean published;
+
+    private DaoMetrics() {}
+
+    /**
+     * Retorna (criando na primeira vez) as métricas de uma operação.
+     * Deve ser chamado uma vez por método, em um campo estático do DAO.
+     *
+     * @param name Nome da operação, no formato {@code Classe.metodo}
+     * @return Métricas da operação
+     */
+    public static Operation operation(String name) {
+        return operations.computeIfAbsent(name, key -> {
+            Operation operation = new Operation(key);
+            if (published) register(key, operation);
+            return operation;
+        });
+    }
+
+    /**
+     * Publica via JMX as operações já criadas e as criadas daqui em diante.
+     * <p>
+     * Chamado na construção da {@code EntityManagerFactory}, fora da thread de interface: o {@code UserDAO}
+     * é carregado junto com a tela de login, e a criação do servidor de MBeans não deve atrasá-la.
+     */
+    static synchronized void publish() {
+        if (published) return;
+        published = true;
+        operations.forEach(DaoMetrics::register);
+    }
+
+    private static void register(String name, Operation operation) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(operation,
+                    new ObjectName("br.com.michael.productsmanager:type=DaoMetrics,name=" + name));
+        } catch (JMException e) {
+            System.err.println("Métricas de " + name + " não publicadas via JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return Instante atual em nanossegundos, ou um marcador se a chamada estiver fora da amostra
+     *         (ou a coleta desligada)
+     */
+    private static long sampleStart() {
+        if (!ENABLED || (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) != 0) return NOT_SAMPLED;
+        return System.nanoTime();
+    }
+
+    /**
+     * @return {@code true} se a coleta estiver ativa
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @return Resumo de cada operação já chamada, em ordem de nome
+     */
+    public static Map<String, LatencyHistogram.Snapshot> snapshot() {
+        Map<String, LatencyHistogram.Snapshot> result = new LinkedHashMap<>();
+        operations.forEach((name, operation) -> {
+            LatencyHistogram.Snapshot snapshot = operation.snapshot();
+            if (snapshot.count() > 0) result.put(name, snapshot);
+        });
+        return result;
+    }
+
+    /**
+     * Monta um relatório das operações já chamadas.
+     *
+     * @return Texto pronto para o log
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder("Latência dos DAOs (ms):");
+        snapshot().forEach((name, s) -> report.append(String.format(Locale.US,
+                "%n  %-34s chamadas=%d erros=%d p50=%.3f p95=%.3f p99=%.3f max=%.3f",
+                name, s.count(), s.errors(), s.p50(), s.p95(), s.p99(), s.max())));
+        return report.toString();
+    }
+}
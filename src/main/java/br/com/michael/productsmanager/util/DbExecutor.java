@@ -0,0 +1,49 @@
+package br.com.michael.productsmanager.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Executor das operações de banco de dados fora da JavaFX Application Thread.
+ * <p>
+ * Cada tarefa roda em uma virtual thread própria: bloquear esperando o banco é barato, e o limite
+ * real de concorrência continua sendo o tamanho do pool de conexões ({@code db.pool.maxSize}).
+ * As tarefas rodam como parte da ação do usuário que as agendou ({@link Tracing#propagating}).
+ */
+public final class DbExecutor {
+
+    private static final Executor executor = Tracing.propagating(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("db-", 0).factory()));
+
+    private DbExecutor() {}
+
+    /**
+     * Executa uma tarefa com retorno em uma virtual thread.
+     *
+     * @param task Tarefa a executar
+     * @param <T> Tipo do resultado
+     * @return Future concluído com o resultado da tarefa
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Executa uma tarefa sem retorno em uma virtual thread.
+     *
+     * @param task Tarefa a executar
+     * @return Future concluído ao fim da tarefa
+     */
+    public static CompletableFuture<Void> run(Runnable task) {
+        return CompletableFuture.runAsync(task, executor);
+    }
+
+    /**
+     * @return Executor subjacente, para compor etapas adicionais fora da thread de interface
+     */
+    public static Executor executor() {
+        return executor;
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.michael.productsmanager.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Estatísticas gerais do Hibernate ({@code hibernate.generate_statistics}): consultas executadas, entidades
+ * carregadas e gravadas, flushes, conexões e acertos dos caches.
+ * <p>
+ * O Hibernate 6 não publica mais as estatísticas via JMX; {@link #register} as publica em
+ * {@code br.com.michael.productsmanager:type=HibernateStatistics}. O detalhamento por região do cache
+ * fica em {@link CacheStatistics}.
+ */
+public final class HibernateStatistics {
+
+    /** Atributos publicados via JMX. */
+    public interface StatisticsMXBean {
+        long getQueryExecutionCount();
+        long getQueryExecutionMaxTime();
+        String getQueryExecutionMaxTimeQueryString();
+        long getEntityLoadCount();
+        long getEntityFetchCount();
+        long getEntityInsertCount();
+        long getEntityUpdateCount();
+        long getEntityDeleteCount();
+        long getFlushCount();
+        long getSessionOpenCount();
+        long getTransactionCount();
+        long getConnectCount();
+        long getPrepareStatementCount();
+        long getSecondLevelCacheHitCount();
+        long getSecondLevelCacheMissCount();
+        long getQueryCacheHitCount();
+        long getQueryCacheMissCount();
+        long getNaturalIdCacheHitCount();
+        long getNaturalIdCacheMissCount();
+
+        /** Zera os contadores. */
+        void clear();
+    }
+
+    private HibernateStatistics() {}
+
+    /**
+     * Publica as estatísticas da fábrica via JMX.
+     *
+     * @param emf Fábrica de EntityManager da aplicação
+     */
+    static void register(EntityManagerFactory emf) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Published(statistics(emf)),
+                    new ObjectName("br.com.michael.productsmanager:type=HibernateStatistics"));
+        } catch (JMException e) {
+            System.err.println("Estatísticas do Hibernate não publicadas via JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lê os contadores atuais, com nomes para exibição.
+     *
+     * @return Valores em ordem de exibição
+     */
+    public static Map<String, Object> snapshot() {
+        Statistics stats = statistics(JPAUtil.getEntityManagerFactory());
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("Consultas executadas", stats.getQueryExecutionCount());
+        result.put("Consulta mais lenta (ms)", stats.getQueryExecutionMaxTime());
+        result.put("Consulta mais lenta", stats.getQueryExecutionMaxTimeQueryString());
+        result.put("Entidades carregadas", stats.getEntityLoadCount());
+        result.put("Entidades buscadas no banco", stats.getEntityFetchCount());
+        result.put("Entidades inseridas", stats.getEntityInsertCount());
+        result.put("Entidades atualizadas", stats.getEntityUpdateCount());
+        result.put("Entidades removidas", stats.getEntityDeleteCount());
+        result.put("Flushes", stats.getFlushCount());
+        result.put("Sessões abertas", stats.getSessionOpenCount());
+        result.put("Transações", stats.getTransactionCount());
+        result.put("Conexões obtidas", stats.getConnectCount());
+        result.put("Comandos preparados", stats.getPrepareStatementCount());
+        result.put("Cache de entidades: acertos", stats.getSecondLevelCacheHitCount());
+        result.put("Cache de entidades: falhas", stats.getSecondLevelCacheMissCount());
+        result.put("Cache de consultas: acertos", stats.getQueryCacheHitCount());
+        result.put("Cache de consultas: falhas", stats.getQueryCacheMissCount());
+        result.put("Cache de natural id: acertos", stats.getNaturalIdCacheHitCount());
+        result.put("Cache de natural id: falhas", stats.getNaturalIdCacheMissCount());
+        return result;
+    }
+
+    private static Statistics statistics(EntityManagerFactory emf) {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Estatísticas publicadas via JMX, lidas direto do Hibernate a cada consulta.
+     */
+    private record Published(Statistics stats) implements StatisticsMXBean {
+        @Override public long getQueryExecutionCount() { return stats.getQueryExecutionCount(); }
+        @Override public long getQueryExecutionMaxTime() { return stats.getQueryExecutionMaxTime(); }
+        @Override public String getQueryExecutionMaxTimeQueryString() { return stats.getQueryExecutionMaxTimeQueryString(); }
+        @Override public long getEntityLoadCount() { return stats.getEntityLoadCount(); }
+        @Override public long getEntityFetchCount() { return stats.getEntityFetchCount(); }
+        @Override public long getEntityInsertCount() { return stats.getEntityInsertCount(); }
+        @Override public long getEntityUpdateCount() { return stats.getEntityUpdateCount(); }
+        @Override public long getEntityDeleteCount() { return stats.getEntityDeleteCount(); }
+        @Override public long getFlushCount() { return stats.getFlushCount(); }
+        @Override public long getSessionOpenCount() { return stats.getSessionOpenCount(); }
+        @Override public long getTransactionCount() { return stats.getTransactionCount(); }
+        @Override public long getConnectCount() { return stats.getConnectCount(); }
+        @Override public long getPrepareStatementCount() { return stats.getPrepareStatementCount(); }
+        @Override public long getSecondLevelCacheHitCount() { return stats.getSecondLevelCacheHitCount(); }
+        @Override public long getSecondLevelCacheMissCount() { return stats.getSecondLevelCacheMissCount(); }
+        @Override public long getQueryCacheHitCount() { return stats.getQueryCacheHitCount(); }
+        @Override public long getQueryCacheMissCount() { return stats.getQueryCacheMissCount(); }
+        @Override public long getNaturalIdCacheHitCount() { return stats.getNaturalIdCacheHitCount(); }
+        @Override public long getNaturalIdCacheMissCount() { return stats.getNaturalIdCacheMissCount(); }
+        @Override public void clear() { stats.clear(); }
+    }
+}
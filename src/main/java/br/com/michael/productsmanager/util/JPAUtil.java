@@ -1,54 +1,341 @@
 package br.com.michael.productsmanager.util;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+
+import javax.sql.DataSource;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Utilitário responsável por criar e fornecer uma instância única de EntityManagerFactory,
  * com base nas configurações externas contidas no arquivo {@code database.properties}.
+ * <p>
+ * Qualquer chave do arquivo pode ser sobrescrita por uma propriedade de sistema de mesmo nome
+ * (ex: {@code -Ddb.url=...}), o que permite apontar a aplicação para outro banco, como o H2
+ * embarcado usado pelos benchmarks, sem alterar os recursos empacotados. Propriedades de sistema
+ * iniciadas por {@code hibernate.} são repassadas diretamente ao Hibernate.
+ * <p>
+ * As conexões vêm de um pool HikariCP configurado pelas chaves {@code db.pool.*}; suas métricas
+ * ficam disponíveis em {@link #getPoolMetrics()} e também via JMX ({@code com.zaxxer.hikari}). Entre o
+ * Hibernate e o pool ficam o {@link SlowQueryLog}, que registra os comandos lentos ({@code db.slowQuery.*}), e o
+ * {@link StatementTracing}, que emite o evento JFR de cada comando.
+ * Com réplicas de leitura configuradas ({@code db.replica.*}), cada uma tem seu próprio pool e as leituras
+ * dos DAOs são distribuídas entre elas pelo {@link ReadReplicas}.
+ * <p>
+ * A fábrica não é criada no carregamento da classe: {@link #warmUp()} a constrói em uma thread própria,
+ * para que a aplicação a inicie enquanto a tela de login é exibida. {@link #getEntityManagerFactory()}
+ * aguarda essa construção (ou a inicia, se ninguém o tiver feito).
  *
  * Essa classe aplica o padrão Singleton para garantir que apenas uma fábrica seja criada
  * durante o ciclo de vida da aplicação.
  */
 public class JPAUtil {
 
-    /** Instância única da fábrica de EntityManager, carregada na inicialização da classe. */
-    private static final EntityManagerFactory emf = buildEntityManagerFactory();
+    /** Tamanho padrão dos lotes JDBC quando {@code db.batch.size} não é informado. */
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
+    /** Configurações lidas do arquivo {@code database.properties}. */
+    private static final Properties config = loadProperties();
+
+    /** Métricas do pool de conexões. */
+    private static final PoolMetrics poolMetrics = new PoolMetrics();
+
+    /** Pool de conexões usado pelo Hibernate, criado junto com a fábrica. */
+    private static volatile HikariDataSource dataSource;
+
+    /** Réplicas de leitura ({@code null} se não configuradas ou antes da construção da fábrica). */
+    private static volatile ReadReplicas readReplicas;
+
+    /** Log de comandos lentos ({@code null} se desativado ou antes da construção da fábrica). */
+    private static volatile SlowQueryLog slowQueryLog;
+
+    /** Construção da instância única da fábrica de EntityManager ({@code null} até o primeiro {@link #warmUp()}). */
+    private static volatile CompletableFuture<EntityManagerFactory> emf;
 
     /**
-     * Cria e configura a {@code EntityManagerFactory} utilizando os dados do arquivo {@code database.properties}.
+     * Carrega o arquivo {@code database.properties} do classpath.
      *
-     * @return Instância configurada de {@code EntityManagerFactory}
+     * @return Propriedades lidas do arquivo
      * @throws RuntimeException caso haja erro ao ler o arquivo de propriedades
      */
-    private static EntityManagerFactory buildEntityManagerFactory() {
+    private static Properties loadProperties() {
         try (InputStream input = JPAUtil.class.getClassLoader().getResourceAsStream("database.properties")) {
             Properties props = new Properties();
             props.load(input);
+            return props;
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao carregar configurações do banco de dados", e);
+        }
+    }
 
-            Map<String, String> overrides = new HashMap<>();
-            overrides.put("jakarta.persistence.jdbc.url", props.getProperty("db.url"));
-            overrides.put("jakarta.persistence.jdbc.user", props.getProperty("db.user"));
-            overrides.put("jakarta.persistence.jdbc.password", props.getProperty("db.password"));
+    /**
+     * Inicia a construção da {@code EntityManagerFactory} em segundo plano, se ainda não tiver sido iniciada.
+     * <p>
+     * A construção (pool de conexões, migrações do esquema pelo {@link MigrationRunner}, metadados do Hibernate)
+     * roda na thread daemon {@code jpa-warmup}.
+     * Se falhar, o future é concluído com o erro e a próxima chamada tenta de novo.
+     *
+     * @return Future concluído com a fábrica pronta
+     */
+    public static CompletableFuture<EntityManagerFactory> warmUp() {
+        CompletableFuture<EntityManagerFactory> current = emf;
+        if (current != null) return current;
 
-            return Persistence.createEntityManagerFactory("productsMG", overrides);
+        synchronized (JPAUtil.class) {
+            if (emf == null) {
+                CompletableFuture<EntityManagerFactory> building = new CompletableFuture<>();
+                emf = building;
+                Thread thread = new Thread(() -> build(building), "jpa-warmup");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            return emf;
+        }
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao carregar configurações do banco de dados", e);
+    /**
+     * Cria o pool e a fábrica e conclui o future da construção.
+     */
+    private static void build(CompletableFuture<EntityManagerFactory> building) {
+        try {
+            dataSource = buildDataSource();
+            readReplicas = buildReadReplicas();
+            new MigrationRunner(dataSource).run(MigrationRunner.Mode.parse(getProperty("db.migration.mode")));
+            StartupTimeline.mark("Esquema do banco verificado");
+            EntityManagerFactory factory = buildEntityManagerFactory();
+            HibernateStatistics.register(factory);
+            DaoMetrics.publish();
+            StartupTimeline.mark("EntityManagerFactory pronta");
+            building.complete(factory);
+        } catch (Throwable e) {
+            if (readReplicas != null) {
+                readReplicas.close();
+                readReplicas = null;
+            }
+            if (dataSource != null) {
+                dataSource.close();
+                dataSource = null;
+            }
+            synchronized (JPAUtil.class) {
+                if (emf == building) emf = null;
+            }
+            building.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Cria o pool de conexões do banco principal a partir das chaves {@code db.*} e {@code db.pool.*}.
+     *
+     * @return Pool de conexões inicializado
+     */
+    static HikariDataSource buildDataSource() {
+        HikariConfig hikari = poolConfig("productsMG", getProperty("db.url"), getProperty("db.user"), getProperty("db.password"));
+        hikari.setMaximumPoolSize(getIntProperty("db.pool.maxSize", 10));
+        hikari.setConnectionTimeout(getIntProperty("db.pool.connectionTimeoutMs", 5_000));
+        hikari.setMetricsTrackerFactory(poolMetrics);
+        return new HikariDataSource(hikari);
+    }
+
+    /**
+     * Cria um pool para cada URL de {@code db.replica.urls}, com as chaves {@code db.replica.*}.
+     * <p>
+     * As conexões das réplicas são somente leitura. Uma réplica fora do ar não impede a inicialização:
+     * ela entra no rodízio quando a verificação do {@link ReadReplicas} conseguir uma conexão.
+     *
+     * @return Réplicas ativas, ou {@code null} se {@code db.replica.urls} estiver vazio
+     */
+    private static ReadReplicas buildReadReplicas() {
+        String urls = getProperty("db.replica.urls");
+        if (urls == null || urls.isBlank()) return null;
+
+        String user = getProperty("db.replica.user");
+        String password = getProperty("db.replica.password");
+        if (user == null || user.isBlank()) {
+            user = getProperty("db.user");
+            password = getProperty("db.password");
+        }
+        List<HikariDataSource> pools = new ArrayList<>();
+        // Separadas por espaço: vírgulas aparecem nas próprias URLs (ex: vários hosts no MySQL)
+        for (String url : urls.trim().split("\\s+")) {
+            HikariConfig hikari = poolConfig("productsMG-replica-" + (pools.size() + 1), url, user, password);
+            hikari.setMaximumPoolSize(getIntProperty("db.replica.pool.maxSize", 10));
+            hikari.setConnectionTimeout(getIntProperty("db.replica.connectionTimeoutMs", 1_000));
+            hikari.setReadOnly(true);
+            hikari.setInitializationFailTimeout(-1);
+            pools.add(new HikariDataSource(hikari));
+        }
+        return ReadReplicas.start(pools);
+    }
+
+    /**
+     * Configuração comum aos pools do banco principal e das réplicas ({@code db.driver} e {@code db.pool.*}).
+     * <p>
+     * Para o MySQL, também ativa o cache de prepared statements do driver.
+     */
+    private static HikariConfig poolConfig(String poolName, String url, String user, String password) {
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName(poolName);
+        hikari.setJdbcUrl(url);
+        hikari.setUsername(user);
+        hikari.setPassword(password);
+        hikari.setDriverClassName(getProperty("db.driver") != null ? getProperty("db.driver") : "com.mysql.cj.jdbc.Driver");
+        hikari.setAutoCommit(false);
+        hikari.setMinimumIdle(getIntProperty("db.pool.minIdle", 2));
+        hikari.setIdleTimeout(getIntProperty("db.pool.idleTimeoutMs", 600_000));
+        hikari.setMaxLifetime(getIntProperty("db.pool.maxLifetimeMs", 1_800_000));
+        hikari.setLeakDetectionThreshold(getIntProperty("db.pool.leakDetectionMs", 0));
+        hikari.setRegisterMbeans(true);
+
+        if (url != null && url.startsWith("jdbc:mysql:")) {
+            hikari.addDataSourceProperty("cachePrepStmts", "true");
+            hikari.addDataSourceProperty("useServerPrepStmts", "true");
+            hikari.addDataSourceProperty("prepStmtCacheSize", getIntProperty("db.pool.prepStmtCacheSize", 250));
+            hikari.addDataSourceProperty("prepStmtCacheSqlLimit", getIntProperty("db.pool.prepStmtCacheSqlLimit", 2048));
+        }
+        return hikari;
+    }
+
+    /**
+     * Cria e configura a {@code EntityManagerFactory} utilizando os dados do arquivo {@code database.properties}.
+     *
+     * @return Instância configurada de {@code EntityManagerFactory}
+     */
+    private static EntityManagerFactory buildEntityManagerFactory() {
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("jakarta.persistence.nonJtaDataSource", statementDataSource());
+        overrides.put("hibernate.connection.provider_disables_autocommit", "true");
+        overrides.put("hibernate.jdbc.batch_size", String.valueOf(getBatchSize()));
+
+        // O dialeto é opcional: quando ausente, vale o definido no persistence.xml
+        String dialect = getProperty("db.dialect");
+        if (dialect != null) overrides.put("hibernate.dialect", dialect);
+
+        System.getProperties().stringPropertyNames().stream()
+                .filter(key -> key.startsWith("hibernate."))
+                .forEach(key -> overrides.put(key, System.getProperty(key)));
+
+        return Persistence.createEntityManagerFactory("productsMG", overrides);
+    }
+
+    /**
+     * Pool entregue ao Hibernate: o próprio pool (ou o roteamento entre ele e as réplicas de leitura), envolvido pelo
+     * log de comandos lentos, quando ativo, e sempre pelo rastreamento dos comandos ({@link StatementTracing}).
+     * As migrações usam o pool do banco principal diretamente.
+     */
+    private static DataSource statementDataSource() {
+        DataSource target = readReplicas != null ? readReplicas.routing(dataSource) : dataSource;
+        if (slowQueryLog == null) slowQueryLog = SlowQueryLog.fromConfig();
+        if (slowQueryLog != null) target = slowQueryLog.wrap(target);
+        return StatementTracing.wrap(target);
+    }
+
+    /**
+     * Lê uma configuração do banco, priorizando a propriedade de sistema de mesmo nome.
+     *
+     * @param key Nome da chave (ex: {@code db.url})
+     * @return Valor configurado ou {@code null} se a chave não existir
+     */
+    public static String getProperty(String key) {
+        return System.getProperty(key, config.getProperty(key));
+    }
+
+    /**
+     * Lê uma configuração numérica do banco.
+     *
+     * @param key Nome da chave
+     * @param defaultValue Valor usado quando a chave não existir
+     * @return Valor configurado ou {@code defaultValue}
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Retorna o tamanho dos lotes de escrita ({@code db.batch.size}), usado tanto pelo
+     * Hibernate ({@code hibernate.jdbc.batch_size}) quanto pelas inserções em massa dos DAOs.
+     *
+     * @return Quantidade de comandos enviados por lote JDBC
+     */
+    public static int getBatchSize() {
+        return getIntProperty("db.batch.size", DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Retorna as métricas do pool de conexões (ativas, ociosas, tempo de espera etc.).
+     *
+     * @return Métricas atualizadas pelo HikariCP
+     */
+    public static PoolMetrics getPoolMetrics() {
+        return poolMetrics;
+    }
+
+    /**
+     * @return Log de comandos lentos, ou {@code null} se desativado ({@code db.slowQuery.enabled=false})
+     */
+    public static SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * @return Réplicas de leitura, ou {@code null} se não configuradas ({@code db.replica.urls} vazio)
+     */
+    public static ReadReplicas getReadReplicas() {
+        return readReplicas;
+    }
+
+    /**
+     * @return {@code true} se a {@code EntityManagerFactory} já foi construída com sucesso
+     */
+    public static boolean isReady() {
+        CompletableFuture<EntityManagerFactory> current = emf;
+        return current != null && current.isDone() && !current.isCompletedExceptionally();
+    }
+
+    /**
+     * Fecha a {@code EntityManagerFactory} e o pool de conexões.
+     * Deve ser chamado uma única vez, no encerramento da aplicação.
+     * <p>
+     * Se a fábrica ainda não estiver pronta, não há o que fechar: a construção em andamento roda
+     * em uma thread daemon e termina junto com a JVM.
+     */
+    public static void shutdown() {
+        if (!isReady()) return;
+        EntityManagerFactory factory = emf.join();
+        try {
+            if (factory.isOpen()) factory.close();
+        } finally {
+            if (readReplicas != null) readReplicas.close();
+            dataSource.close();
+            if (slowQueryLog != null) slowQueryLog.close();
         }
     }
 
     /**
      * Retorna a instância única da {@code EntityManagerFactory}.
      * Essa fábrica deve ser compartilhada por todos os DAOs da aplicação.
+     * <p>
+     * Aguarda a construção iniciada por {@link #warmUp()}, ou a inicia se ainda não tiver sido iniciada.
      *
-     * @return {@code EntityManagerFactory} instanciada no carregamento da classe
+     * @return {@code EntityManagerFactory} pronta para uso
+     * @throws RuntimeException caso a construção da fábrica falhe
      */
     public static EntityManagerFactory getEntityManagerFactory() {
-        return emf;
+        try {
+            return warmUp().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package br.com.michael.productsmanager.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com faixas logarítmicas (oito faixas por potência de dois, erro máximo de ~12%),
+ * em microssegundos.
+ * <p>
+ * As faixas são contadores atômicos: registrar uma medida não aloca nem bloqueia, e os percentis são
+ * calculados só quando o histograma é consultado.
+ */
+public class LatencyHistogram {
+
+    /** Latências até este valor (em µs) têm faixa própria. */
+    private static final int LINEAR_LIMIT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = LINEAR_LIMIT + (Long.SIZE - 4) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Resumo do histograma.
+     *
+     * @param count Medidas registradas
+     * @param errors Medidas que terminaram em erro
+     * @param p50 Mediana, em ms
+     * @param p95 Percentil 95, em ms
+     * @param p99 Percentil 99, em ms
+     * @param max Maior latência, em ms
+     */
+    public record Snapshot(long count, long errors, double p50, double p95, double p99, double max) {}
+
+    /**
+     * Registra uma medida.
+     *
+     * @param nanos Duração, em nanossegundos
+     */
+    public void record(long nanos) {
+        buckets.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * Conta um erro (a duração da operação é registrada à parte, com {@link #record}).
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * @return Contagens e percentis até o momento
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        int last = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+            if (counts[i] > 0) last = i;
+        }
+        return new Snapshot(total, errors.sum(), percentile(counts, total, 0.50), percentile(counts, total, 0.95),
+                percentile(counts, total, 0.99), upperBound(last) / 1000.0);
+    }
+
+    private static double percentile(long[] counts, long total, double quantile) {
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) return upperBound(i) / 1000.0;
+        }
+        return 0;
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros < LINEAR_LIMIT) return (int) Math.max(micros, 0);
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return Maior latência (em µs) contada na faixa
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) return bucket;
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 4;
+        int sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
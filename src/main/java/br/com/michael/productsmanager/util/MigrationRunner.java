@@ -0,0 +1,489 @@
+package br.com.michael.productsmanager.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Executor das migrações do esquema do banco de dados.
+ * <p>
+ * As migrações são scripts SQL em {@code sql/migrations}, empacotados no classpath em {@code db/migration},
+ * com o nome {@code V<versão>__<descrição>.sql}. São aplicadas em ordem de versão e registradas na tabela
+ * {@code schema_version} com o checksum (SHA-256) do script: um script alterado depois de aplicado impede a
+ * inicialização. O modo de execução vem de {@code db.migration.mode}:
+ * <ul>
+ *     <li>{@code validate} (padrão): apenas confere versões e checksums, falhando se houver versões pendentes.
+ *     Uma única consulta, sem bloqueios nem comandos DDL;</li>
+ *     <li>{@code migrate}: aplica as versões pendentes;</li>
+ *     <li>{@code none}: não acessa o banco.</li>
+ * </ul>
+ * A aplicação inicia em {@code validate}; as migrações são aplicadas em uma etapa própria da implantação,
+ * rodando esta classe ({@link #main}) antes de iniciar a nova versão.
+ * <p>
+ * Um banco que já tem as tabelas da aplicação, mas não a {@code schema_version} (criado pelo antigo
+ * {@code database.sql}), tem a primeira versão registrada como {@code BASELINE}, sem executá-la; as
+ * versões seguintes são aplicadas normalmente.
+ * <p>
+ * Scripts iniciados pela linha {@code -- migration: online} alteram tabelas grandes sem bloquear as escritas.
+ * Contêm um único comando, executado fora de transação; no MySQL, cada {@code ALTER TABLE} ou
+ * {@code CREATE INDEX} precisa declarar {@code LOCK=NONE} (o MySQL recusa o comando em vez de bloquear a
+ * tabela), e a espera pelo bloqueio de metadados é limitada a {@code db.migration.lockWaitSeconds}, com até
+ * {@code db.migration.lockRetries} novas tentativas, para que a migração não enfileire as consultas da
+ * aplicação atrás de uma transação longa.
+ */
+public final class MigrationRunner {
+
+    /** Modo de execução ({@code db.migration.mode}). */
+    public enum Mode {
+        MIGRATE, VALIDATE, NONE;
+
+        /**
+         * @param value Valor configurado ({@code migrate}, {@code validate} ou {@code none})
+         * @return Modo correspondente; {@code VALIDATE} se o valor estiver ausente
+         */
+        public static Mode parse(String value) {
+            return value == null || value.isBlank() ? VALIDATE : valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Script de migração lido do classpath.
+     *
+     * @param version Versão (número após o {@code V})
+     * @param description Descrição (texto após {@code __})
+     * @param script Nome do arquivo
+     * @param sql Conteúdo do script
+     * @param checksum SHA-256 do conteúdo, em hexadecimal
+     * @param online {@code true} se o script for marcado com {@code -- migration: online}
+     */
+    record Migration(int version, String description, String script, String sql, String checksum, boolean online) {}
+
+    /** Diretório dos scripts no classpath. */
+    private static final String LOCATION = "db/migration";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final String ONLINE_DIRECTIVE = "-- migration: online";
+    private static final Pattern DDL = Pattern.compile(
+            "^(ALTER\\s+TABLE|CREATE\\s+(UNIQUE\\s+|FULLTEXT\\s+)?INDEX)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LOCK_NONE = Pattern.compile("\\bLOCK\\s*=\\s*NONE\\b", Pattern.CASE_INSENSITIVE);
+
+    /** SQLStates de tabela inexistente (MySQL e H2; o H2 usa {@code 42S04} quando o banco está vazio). */
+    private static final Set<String> TABLE_NOT_FOUND = Set.of("42S02", "42S04");
+
+    /** Código de erro do MySQL para espera de bloqueio esgotada (inclusive o de metadados). */
+    private static final int MYSQL_LOCK_WAIT_TIMEOUT = 1205;
+
+    /** Nome do bloqueio que impede duas instâncias de migrarem o mesmo banco ao mesmo tempo (MySQL). */
+    private static final String MIGRATION_LOCK = "products_manager_schema_migration";
+
+    private final DataSource dataSource;
+    private final List<Migration> migrations;
+    private final int lockWaitSeconds = JPAUtil.getIntProperty("db.migration.lockWaitSeconds", 5);
+    private final int lockRetries = JPAUtil.getIntProperty("db.migration.lockRetries", 10);
+
+    /**
+     * @param dataSource Conexões do banco a migrar
+     * @throws IllegalStateException se os scripts não puderem ser lidos
+     */
+    public MigrationRunner(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.migrations = loadMigrations();
+    }
+
+    /**
+     * Aplica as migrações pendentes no banco de {@code database.properties}: a etapa de implantação que antecede
+     * a inicialização da nova versão da aplicação.
+     *
+     * @param args Não utilizados
+     */
+    public static void main(String[] args) {
+        try (HikariDataSource dataSource = JPAUtil.buildDataSource()) {
+            int applied = new MigrationRunner(dataSource).run(Mode.MIGRATE);
+            System.out.println(applied == 0 ? "Esquema do banco já está atualizado" : applied + " migração(ões) aplicada(s)");
+        }
+    }
+
+    /**
+     * Confere a versão do esquema e, no modo {@code MIGRATE}, aplica as migrações pendentes.
+     *
+     * @param mode Modo de execução
+     * @return Quantidade de migrações aplicadas
+     * @throws IllegalStateException se um script aplicado tiver sido alterado, se houver versões pendentes
+     *                               no modo {@code VALIDATE} ou se uma migração falhar
+     */
+    public int run(Mode mode) {
+        if (mode == Mode.NONE) return 0;
+
+        try (Connection con = dataSource.getConnection()) {
+            con.setAutoCommit(true);
+            if (mode == Mode.VALIDATE) {
+                List<Migration> pending = pending(appliedChecksums(con));
+                if (!pending.isEmpty()) {
+                    throw new IllegalStateException("Esquema do banco desatualizado; aplique as migrações com " +
+                            MigrationRunner.class.getName() + ". Pendentes: " +
+                            pending.stream().map(Migration::script).toList());
+                }
+                return 0;
+            }
+
+            boolean mysql = "MySQL".equalsIgnoreCase(con.getMetaData().getDatabaseProductName());
+            if (mysql) acquireLock(con);
+            try {
+                createVersionTable(con);
+                Map<Integer, String> applied = appliedChecksums(con);
+
+                if (applied.isEmpty() && !migrations.isEmpty() && hasApplicationTables(con)) {
+                    Migration baseline = migrations.get(0);
+                    record(con, baseline, "BASELINE", 0);
+                    applied.put(baseline.version(), baseline.checksum());
+                    System.out.println("Banco existente registrado na versão " + baseline.version() + " (" + baseline.description() + ")");
+                }
+
+                List<Migration> pending = pending(applied);
+                for (Migration migration : pending) {
+                    apply(con, migration, mysql);
+                }
+                return pending.size();
+            } finally {
+                if (mysql) releaseLock(con);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro ao verificar a versão do esquema do banco", e);
+        }
+    }
+
+    /**
+     * Confere os checksums das versões aplicadas e lista as pendentes.
+     *
+     * @param applied Checksum de cada versão registrada em {@code schema_version}
+     * @return Migrações ainda não aplicadas, em ordem de versão
+     * @throws IllegalStateException se um script aplicado tiver sido alterado ou se uma versão pendente for
+     *                               anterior à versão atual do banco
+     */
+    private List<Migration> pending(Map<Integer, String> applied) {
+        int latest = applied.keySet().stream().max(Integer::compare).orElse(0);
+        List<Migration> pending = new ArrayList<>();
+        for (Migration migration : migrations) {
+            String checksum = applied.get(migration.version());
+            if (checksum == null) {
+                if (migration.version() < latest) {
+                    throw new IllegalStateException("Migração " + migration.script() +
+                            " é anterior à versão atual do banco (" + latest + ") e não foi aplicada");
+                }
+                pending.add(migration);
+            } else if (!checksum.equals(migration.checksum())) {
+                throw new IllegalStateException("Migração " + migration.script() + " foi alterada depois de aplicada");
+            }
+        }
+        if (latest > (migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version())) {
+            System.err.println("Banco na versão " + latest + ", mais nova que as migrações desta aplicação");
+        }
+        return pending;
+    }
+
+    /**
+     * Aplica uma migração e registra sua versão.
+     * <p>
+     * Scripts comuns rodam em uma transação. No MySQL, comandos DDL confirmam a transação implicitamente:
+     * se o script falhar no meio, as alterações de estrutura já executadas permanecem, e a versão só é
+     * registrada quando o script inteiro for concluído. Scripts online rodam fora de transação, com a espera
+     * por bloqueios limitada.
+     */
+    private void apply(Connection con, Migration migration, boolean mysql) throws SQLException {
+        List<String> statements = split(migration.sql());
+        long start = System.nanoTime();
+
+        if (migration.online()) {
+            if (statements.size() != 1) {
+                throw new IllegalStateException("Migração online " + migration.script() + " deve conter um único comando");
+            }
+            String sql = statements.get(0);
+            if (mysql && DDL.matcher(sql).find() && !LOCK_NONE.matcher(sql).find()) {
+                throw new IllegalStateException("Migração online " + migration.script() + " precisa declarar LOCK=NONE");
+            }
+            executeOnline(con, migration, sql, mysql);
+            record(con, migration, "SQL", (System.nanoTime() - start) / 1_000_000);
+        } else {
+            con.setAutoCommit(false);
+            String current = null;
+            try (Statement st = con.createStatement()) {
+                for (String sql : statements) {
+                    current = sql;
+                    st.execute(sql);
+                }
+                current = null;
+                record(con, migration, "SQL", (System.nanoTime() - start) / 1_000_000);
+                con.commit();
+            } catch (SQLException e) {
+                con.rollback();
+                throw new IllegalStateException("Falha na migração " + migration.script() +
+                        (current != null ? " no comando: " + current : ""), e);
+            } finally {
+                con.setAutoCommit(true);
+            }
+        }
+        System.out.printf("Migração %s aplicada em %d ms%n", migration.script(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Executa o comando de uma migração online. No MySQL, a espera pelo bloqueio de metadados é limitada e
+     * repetida: enquanto o {@code ALTER} espera, as novas consultas à tabela esperariam atrás dele.
+     */
+    private void executeOnline(Connection con, Migration migration, String sql, boolean mysql) throws SQLException {
+        if (!mysql) {
+            try (Statement st = con.createStatement()) {
+                st.execute(sql);
+            }
+            return;
+        }
+
+        try (Statement st = con.createStatement()) {
+            long previousTimeout;
+            try (ResultSet rs = st.executeQuery("SELECT @@SESSION.lock_wait_timeout")) {
+                rs.next();
+                previousTimeout = rs.getLong(1);
+            }
+            st.execute("SET SESSION lock_wait_timeout = " + lockWaitSeconds);
+            try {
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        st.execute(sql);
+                        return;
+                    } catch (SQLException e) {
+                        if (e.getErrorCode() != MYSQL_LOCK_WAIT_TIMEOUT || attempt > lockRetries) {
+                            throw new IllegalStateException("Falha na migração " + migration.script(), e);
+                        }
+                        System.err.printf("Migração %s aguardando bloqueio da tabela (tentativa %d de %d)%n",
+                                migration.script(), attempt, lockRetries);
+                        sleepBeforeRetry(attempt);
+                    }
+                }
+            } finally {
+                // A conexão volta ao pool: restaura o valor da sessão
+                st.execute("SET SESSION lock_wait_timeout = " + previousTimeout);
+            }
+        }
+    }
+
+    private static void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(Math.min(attempt, 5) * 1_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Migração interrompida", e);
+        }
+    }
+
+    private static void createVersionTable(Connection con) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version int NOT NULL, " +
+                    "description varchar(200) NOT NULL, " +
+                    "script varchar(255) NOT NULL, " +
+                    "checksum char(64) NOT NULL, " +
+                    "type varchar(10) NOT NULL, " +
+                    "execution_ms bigint NOT NULL, " +
+                    "installed_on timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                    "PRIMARY KEY (version))");
+        }
+    }
+
+    /**
+     * @return Checksum de cada versão registrada; vazio se a {@code schema_version} ainda não existir
+     */
+    private static Map<Integer, String> appliedChecksums(Connection con) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) applied.put(rs.getInt(1), rs.getString(2));
+        } catch (SQLException e) {
+            if (!TABLE_NOT_FOUND.contains(e.getSQLState())) throw e;
+        }
+        return applied;
+    }
+
+    private static void record(Connection con, Migration migration, String type, long executionMs) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("INSERT INTO schema_version " +
+                "(version, description, script, checksum, type, execution_ms) VALUES (?, ?, ?, ?, ?, ?)")) {
+            ps.setInt(1, migration.version());
+            ps.setString(2, migration.description());
+            ps.setString(3, migration.script());
+            ps.setString(4, migration.checksum());
+            ps.setString(5, type);
+            ps.setLong(6, executionMs);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * @return {@code true} se as tabelas da aplicação já existirem (banco criado antes das migrações)
+     */
+    private static boolean hasApplicationTables(Connection con) throws SQLException {
+        return hasTable(con, "product");
+    }
+
+    private static boolean hasTable(Connection con, String table) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.executeQuery("SELECT 1 FROM " + table + " WHERE 1 = 0").close();
+            return true;
+        } catch (SQLException e) {
+            if (TABLE_NOT_FOUND.contains(e.getSQLState())) return false;
+            throw e;
+        }
+    }
+
+    private static void acquireLock(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, MIGRATION_LOCK);
+            ps.setInt(2, 300);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new IllegalStateException("Outra instância está migrando o banco de dados");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection con) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, MIGRATION_LOCK);
+            ps.executeQuery().close();
+        }
+    }
+
+    /**
+     * Lê os scripts de {@code db/migration}, de um diretório (durante o desenvolvimento) ou de dentro do JAR.
+     *
+     * @return Migrações em ordem de versão
+     */
+    private static List<Migration> loadMigrations() {
+        URL url = MigrationRunner.class.getClassLoader().getResource(LOCATION);
+        if (url == null) {
+            throw new IllegalStateException("Scripts de migração não encontrados no classpath (" + LOCATION + ")");
+        }
+
+        try {
+            URI uri = url.toURI();
+            if (!"jar".equals(uri.getScheme())) {
+                return readMigrations(Path.of(uri));
+            }
+            try (FileSystem jar = FileSystems.newFileSystem(uri, Map.of())) {
+                return readMigrations(jar.getPath(LOCATION));
+            } catch (FileSystemAlreadyExistsException e) {
+                return readMigrations(FileSystems.getFileSystem(uri).getPath(LOCATION));
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new IllegalStateException("Erro ao ler os scripts de migração", e);
+        }
+    }
+
+    private static List<Migration> readMigrations(Path directory) throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                Matcher matcher = SCRIPT_NAME.matcher(name);
+                if (!matcher.matches()) continue;
+
+                String sql = Files.readString(file, StandardCharsets.UTF_8).replace("\r\n", "\n");
+                boolean online = sql.lines().findFirst().map(String::strip)
+                        .filter(ONLINE_DIRECTIVE::equalsIgnoreCase).isPresent();
+                migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                        name, sql, checksum(sql), online));
+            }
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Versão de migração duplicada: " + migrations.get(i).script());
+            }
+        }
+        return migrations;
+    }
+
+    private static String checksum(String sql) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sql.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Separa o script em comandos pelo {@code ;}, ignorando comentários e o {@code ;} dentro de textos
+     * e identificadores entre aspas.
+     *
+     * @param script Conteúdo do script
+     * @return Comandos, sem o {@code ;} final
+     */
+    static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        char quote = 0;
+
+        for (int i = 0; i < script.length(); i++) {
+            char c = script.charAt(i);
+            if (quote != 0) {
+                current.append(c);
+                if (c == '\\' && quote != '`' && i + 1 < script.length()) {
+                    current.append(script.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+                current.append(c);
+            } else if (script.startsWith("--", i)) {
+                int end = script.indexOf('\n', i);
+                i = end < 0 ? script.length() : end;
+                current.append('\n');
+            } else if (script.startsWith("/*", i)) {
+                int end = script.indexOf("*/", i + 2);
+                i = end < 0 ? script.length() : end + 1;
+                current.append(' ');
+            } else if (c == ';') {
+                addStatement(statements, current);
+            } else {
+                current.append(c);
+            }
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String statement = current.toString().strip();
+        if (!statement.isEmpty()) statements.add(statement);
+        current.setLength(0);
+    }
+}
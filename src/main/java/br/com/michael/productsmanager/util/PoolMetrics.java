@@ -0,0 +1,113 @@
+package br.com.michael.productsmanager.util;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas do pool de conexões, alimentadas pelo HikariCP.
+ * <p>
+ * Reúne o estado instantâneo do pool (conexões ativas, ociosas e threads aguardando) e
+ * contadores acumulados desde a inicialização (tempo de espera para obter conexão,
+ * tempo de uso e timeouts), usados para dimensionar {@code db.pool.maxSize} com dados reais.
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    private volatile PoolStats poolStats;
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder usageCount = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireCount.increment();
+                acquireNanos.add(elapsedAcquiredNanos);
+                maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageCount.increment();
+                usageMillis.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeoutCount.increment();
+            }
+        };
+    }
+
+    /** @return Conexões emprestadas no momento */
+    public int getActiveConnections() {
+        return poolStats == null ? 0 : poolStats.getActiveConnections();
+    }
+
+    /** @return Conexões abertas e disponíveis no pool */
+    public int getIdleConnections() {
+        return poolStats == null ? 0 : poolStats.getIdleConnections();
+    }
+
+    /** @return Total de conexões abertas (ativas + ociosas) */
+    public int getTotalConnections() {
+        return poolStats == null ? 0 : poolStats.getTotalConnections();
+    }
+
+    /** @return Threads aguardando uma conexão livre */
+    public int getPendingThreads() {
+        return poolStats == null ? 0 : poolStats.getPendingThreads();
+    }
+
+    /** @return Quantidade de conexões obtidas do pool desde a inicialização */
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    /** @return Tempo médio de espera para obter uma conexão, em milissegundos */
+    public double getAverageWaitMillis() {
+        long count = acquireCount.sum();
+        return count == 0 ? 0 : acquireNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /** @return Maior tempo de espera para obter uma conexão, em milissegundos */
+    public double getMaxWaitMillis() {
+        return maxAcquireNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /** @return Tempo médio em que uma conexão fica emprestada, em milissegundos */
+    public double getAverageUsageMillis() {
+        long count = usageCount.sum();
+        return count == 0 ? 0 : usageMillis.sum() / (double) count;
+    }
+
+    /** @return Quantidade de pedidos de conexão que estouraram {@code db.pool.connectionTimeoutMs} */
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * Retorna um resumo legível das métricas, útil para logs.
+     *
+     * @return Métricas formatadas em uma linha
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "PoolMetrics{active=%d, idle=%d, total=%d, pending=%d, acquired=%d, avgWaitMs=%.3f, maxWaitMs=%.3f, avgUsageMs=%.3f, timeouts=%d}",
+                getActiveConnections(), getIdleConnections(), getTotalConnections(), getPendingThreads(),
+                getAcquireCount(), getAverageWaitMillis(), getMaxWaitMillis(), getAverageUsageMillis(), getTimeoutCount());
+    }
+}
@@ -0,0 +1,319 @@
+package br.com.michael.productsmanager.util;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Réplicas de leitura do banco ({@code db.replica.*}), criadas pelo {@link JPAUtil} quando
+ * {@code db.replica.urls} está preenchido.
+ * <p>
+ * O pool entregue ao Hibernate passa a ser um roteador ({@link #routing}): as conexões pedidas dentro de um
+ * {@link #replica(Object)} vêm de uma réplica, escolhida em rodízio entre as que estão respondendo; as demais
+ * (escritas, migrações e leituras fora de um {@code replica}) vêm do banco principal. Os DAOs abrem um
+ * {@code replica} apenas nos métodos somente leitura. A fábrica de EntityManager continua única, então o cache
+ * de segundo nível é o mesmo e as escritas o invalidam normalmente. As leituras em uma réplica usam o que já
+ * estiver em cache, mas não gravam nele ({@link Route#createEntityManager}); as consultas do cache de consultas
+ * ficam no banco principal. Assim, só o banco principal preenche os caches.
+ * <p>
+ * Para que cada usuário leia as próprias escritas, os DAOs chamam {@link #wrote(Object)} antes de confirmar uma
+ * escrita: durante {@code db.replica.stickyMillis} (o atraso máximo esperado da replicação), as leituras com a
+ * mesma chave vão ao banco principal. A chave é o ID do usuário nas leituras do catálogo e o username na
+ * leitura do cadastro.
+ * <p>
+ * Uma thread própria verifica as réplicas a cada {@code db.replica.healthCheckSeconds}; uma réplica que falhar,
+ * na verificação ou ao fornecer uma conexão, sai do rodízio até responder de novo. Sem réplicas disponíveis, as
+ * leituras vão ao banco principal.
+ */
+public final class ReadReplicas implements AutoCloseable {
+
+    /** Espera máxima pela resposta de uma réplica na verificação. */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /** Roteamento sem efeito: a leitura vai ao banco principal. */
+    private static final Route PRIMARY = () -> {};
+
+    /** Leitura em uma réplica; {@link Route#close()} devolve a thread ao banco principal. */
+    private static final Route REPLICA = new Route() {
+        @Override
+        public EntityManager createEntityManager(EntityManagerFactory emf) {
+            EntityManager em = emf.createEntityManager();
+            em.unwrap(Session.class).setCacheMode(CacheMode.GET);
+            return em;
+        }
+
+        @Override
+        public void close() {
+            onReplica.remove();
+        }
+    };
+
+    /** Réplicas em uso ({@code null} sem réplicas configuradas ou antes da construção da fábrica). */
+    private static volatile ReadReplicas active;
+
+    /** Indica que as conexões pedidas pela thread atual devem vir de uma réplica. */
+    private static final ThreadLocal<Boolean> onReplica = new ThreadLocal<>();
+
+    /**
+     * Leitura roteada para uma réplica; {@link #close()} devolve a thread ao banco principal.
+     */
+    public interface Route extends AutoCloseable {
+
+        /**
+         * Cria o EntityManager da leitura. Em uma réplica, as entidades já em cache continuam sendo usadas, mas as
+         * lidas do banco não são gravadas no cache de segundo nível ({@link CacheMode#GET}): uma réplica atrasada o
+         * preencheria com dados antigos, servidos a todos os usuários mesmo depois de ela se atualizar. O modo não
+         * impede gravações no cache de consultas, então consultas com {@code HINT_CACHEABLE} não usam réplicas.
+         *
+         * @param emf Fábrica de EntityManager
+         * @return EntityManager a ser fechado antes do roteamento
+         */
+        default EntityManager createEntityManager(EntityManagerFactory emf) {
+            return emf.createEntityManager();
+        }
+
+        @Override
+        void close();
+    }
+
+    private static final class Replica {
+        final HikariDataSource pool;
+        volatile boolean healthy;
+        boolean checked; // acessado apenas pela thread de verificação
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final long stickyNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<Object, Long> recentWrites = new ConcurrentHashMap<>();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryFallbacks = new LongAdder();
+    private final ScheduledExecutorService healthCheck = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "db-replica-health");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Ativa as réplicas e inicia as verificações. Até a primeira verificação, as leituras vão ao banco principal.
+     *
+     * @param pools Pools de conexões das réplicas
+     * @return Réplicas ativas; devem ser encerradas com {@link #close()}
+     */
+    static ReadReplicas start(List<HikariDataSource> pools) {
+        ReadReplicas replicas = new ReadReplicas(pools.stream().map(Replica::new).toList(),
+                JPAUtil.getIntProperty("db.replica.stickyMillis", 5_000));
+        long interval = JPAUtil.getIntProperty("db.replica.healthCheckSeconds", 5);
+        replicas.healthCheck.scheduleWithFixedDelay(replicas::check, 0, interval, TimeUnit.SECONDS);
+        active = replicas;
+        return replicas;
+    }
+
+    private ReadReplicas(List<Replica> replicas, long stickyMillis) {
+        this.replicas = replicas;
+        this.stickyNanos = TimeUnit.MILLISECONDS.toNanos(stickyMillis);
+    }
+
+    /**
+     * @return {@code true} se há réplicas de leitura configuradas
+     */
+    public static boolean isEnabled() {
+        return active != null;
+    }
+
+    /**
+     * Roteia as leituras da thread atual para uma réplica, até o {@link Route#close()}.
+     * <p>
+     * Sem réplicas configuradas, ou se houve uma escrita com a mesma chave há menos de
+     * {@code db.replica.stickyMillis}, as leituras continuam no banco principal.
+     *
+     * @param key Chave das escritas que a leitura deve enxergar (ID do usuário ou username)
+     * @return Roteamento a ser fechado ao fim da leitura (em um {@code finally})
+     */
+    public static Route replica(Object key) {
+        ReadReplicas replicas = active;
+        if (replicas == null || replicas.recentlyWritten(key) || onReplica.get() != null) return PRIMARY;
+        onReplica.set(Boolean.TRUE);
+        return REPLICA;
+    }
+
+    /**
+     * Registra uma escrita: as leituras com a mesma chave ficam no banco principal por {@code db.replica.stickyMillis}.
+     * Chamado antes do commit, para que nenhuma leitura entre o commit e o registro vá a uma réplica atrasada.
+     *
+     * @param key Chave das leituras afetadas (ID do usuário ou username)
+     */
+    public static void wrote(Object key) {
+        ReadReplicas replicas = active;
+        if (replicas != null && key != null) replicas.recentWrites.put(key, System.nanoTime() + replicas.stickyNanos);
+    }
+
+    private boolean recentlyWritten(Object key) {
+        Long until = key == null ? null : recentWrites.get(key);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    /**
+     * Envolve o pool do banco principal com o roteamento para as réplicas.
+     *
+     * @param primary Pool do banco principal
+     * @return Pool entregue ao Hibernate
+     */
+    DataSource routing(DataSource primary) {
+        return new RoutingDataSource(primary);
+    }
+
+    /**
+     * @return Resumo das réplicas para o painel de diagnóstico
+     */
+    public String report() {
+        StringBuilder text = new StringBuilder("Réplicas de leitura:");
+        for (Replica replica : replicas) {
+            text.append("\n  ").append(replica.pool.getPoolName()).append(": ")
+                    .append(replica.healthy ? "disponível" : "fora do rodízio");
+        }
+        text.append("\n  leituras nas réplicas=").append(replicaReads.sum())
+                .append(" no principal por falta de réplica=").append(primaryFallbacks.sum());
+        return text.toString();
+    }
+
+    /**
+     * Para as verificações e fecha os pools das réplicas.
+     */
+    @Override
+    public void close() {
+        if (active == this) active = null;
+        healthCheck.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    /**
+     * Conexão de uma réplica disponível, em rodízio, ou {@code null} se nenhuma responder.
+     */
+    private Connection replicaConnection() {
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (!replica.healthy) continue;
+            try {
+                Connection connection = replica.pool.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        primaryFallbacks.increment();
+        return null;
+    }
+
+    /**
+     * Verifica cada réplica e descarta os registros de escrita vencidos. Roda na thread de verificação.
+     */
+    private void check() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) throw new SQLException("conexão inválida");
+                if (!replica.healthy) System.out.println("Réplica " + replica.pool.getPoolName() + " disponível");
+                replica.healthy = true;
+            } catch (SQLException e) {
+                if (!replica.checked) {
+                    System.err.println("Réplica " + replica.pool.getPoolName() + " indisponível: " + e.getMessage());
+                }
+                markDown(replica, e);
+            }
+            replica.checked = true;
+        }
+        long now = System.nanoTime();
+        recentWrites.values().removeIf(until -> until - now <= 0);
+    }
+
+    private static void markDown(Replica replica, SQLException e) {
+        if (replica.healthy) {
+            System.err.println("Réplica " + replica.pool.getPoolName() + " fora do rodízio: " + e.getMessage());
+        }
+        replica.healthy = false;
+    }
+
+    /**
+     * Pool entregue ao Hibernate: conexões de réplica dentro de um {@link #replica}, do principal nos demais casos.
+     */
+    private final class RoutingDataSource implements DataSource {
+
+        private final DataSource primary;
+
+        RoutingDataSource(DataSource primary) {
+            this.primary = primary;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (onReplica.get() != null) {
+                Connection connection = replicaConnection();
+                if (connection != null) return connection;
+            }
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return primary.getConnection(username, password);
+        }
+
+        @Override
+        public PrintWriter getLogWriter() throws SQLException {
+            return primary.getLogWriter();
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) throws SQLException {
+            primary.setLogWriter(out);
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) throws SQLException {
+            primary.setLoginTimeout(seconds);
+        }
+
+        @Override
+        public int getLoginTimeout() throws SQLException {
+            return primary.getLoginTimeout();
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            return primary.getParentLogger();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> type) throws SQLException {
+            return type.isInstance(this) ? type.cast(this) : primary.unwrap(type);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> type) throws SQLException {
+            return type.isInstance(this) || primary.isWrapperFor(type);
+        }
+    }
+}
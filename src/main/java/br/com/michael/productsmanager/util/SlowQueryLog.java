@@ -0,0 +1,397 @@
+package br.com.michael.productsmanager.util;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log estruturado de comandos SQL lentos, no lugar do {@code hibernate.show_sql}.
+ * <p>
+ * {@link #wrap} envolve o pool de conexões entregue ao Hibernate e mede cada execução de comando. Comandos que
+ * passam de {@code db.slowQuery.thresholdMs}, e uma amostra de 1 a cada {@code db.slowQuery.sampleRate} dos
+ * demais, viram uma linha JSON com o SQL, os tipos dos parâmetros (nunca os valores), a duração da execução,
+ * as linhas lidas ou alteradas e o método do DAO que executou o comando.
+ * <p>
+ * A gravação é feita por uma thread própria a partir de uma fila limitada ({@code db.slowQuery.queueSize}):
+ * com a fila cheia a linha é descartada e contada em {@link #getDroppedCount()}, sem nunca bloquear o DAO.
+ * Comandos que não serão registrados não têm as linhas contadas, nem o chamador identificado.
+ */
+public final class SlowQueryLog implements AutoCloseable {
+
+    private static final String APP_PACKAGE = "br.com.michael.productsmanager.";
+    private static final String DAO_PACKAGE = APP_PACKAGE + "dao.";
+
+    /**
+     * Um comando registrado.
+     *
+     * @param timestamp Instante do fim da execução, em ms desde a época
+     * @param sql Texto do comando, com {@code ?} no lugar dos parâmetros
+     * @param params Tipo de cada parâmetro ({@code null} para parâmetros nulos)
+     * @param durationNanos Duração da execução
+     * @param rows Linhas lidas (consultas) ou alteradas (demais comandos); -1 se desconhecido
+     * @param batch Comandos enviados no lote (0 fora de lotes)
+     * @param caller Método que executou o comando (ex: {@code ProductDAO.search}); {@code null} fora do código da aplicação
+     * @param slow {@code true} se passou do limite; {@code false} se entrou pela amostragem
+     */
+    private record Entry(long timestamp, String sql, List<String> params, long durationNanos, long rows, int batch,
+                         String caller, boolean slow) {
+
+        Entry withRows(long rows) {
+            return new Entry(timestamp, sql, params, durationNanos, rows, batch, caller, slow);
+        }
+
+        String toJson() {
+            StringBuilder json = new StringBuilder(128 + sql.length());
+            json.append("{\"time\":\"").append(Instant.ofEpochMilli(timestamp)).append('"')
+                    .append(",\"durationMs\":").append(String.format(Locale.US, "%.3f", durationNanos / 1_000_000.0))
+                    .append(",\"slow\":").append(slow)
+                    .append(",\"caller\":").append(quote(caller))
+                    .append(",\"rows\":").append(rows);
+            if (batch > 0) json.append(",\"batch\":").append(batch);
+            json.append(",\"sql\":").append(quote(sql)).append(",\"params\":[");
+            for (int i = 0; i < params.size(); i++) {
+                if (i > 0) json.append(',');
+                json.append(quote(params.get(i)));
+            }
+            return json.append("]}").toString();
+        }
+    }
+
+    private final long thresholdNanos;
+    private final int sampleRate;
+    private final Path file;
+    private final BlockingQueue<Entry> queue;
+    private final LongAdder logged = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * Cria o log e inicia a thread de gravação.
+     *
+     * @param thresholdMs Duração a partir da qual um comando é sempre registrado
+     * @param sampleRate Registra 1 a cada N comandos abaixo do limite (0 desativa a amostragem)
+     * @param queueSize Linhas que podem aguardar gravação
+     * @param file Arquivo de destino (acrescentado), ou {@code null} para a saída de erro
+     */
+    public SlowQueryLog(long thresholdMs, int sampleRate, int queueSize, Path file) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.sampleRate = sampleRate;
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.writer = new Thread(this::drain, "slow-query-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Cria o log a partir das chaves {@code db.slowQuery.*}.
+     *
+     * @return Log configurado, ou {@code null} se {@code db.slowQuery.enabled=false}
+     */
+    static SlowQueryLog fromConfig() {
+        if ("false".equalsIgnoreCase(JPAUtil.getProperty("db.slowQuery.enabled"))) return null;
+        String file = JPAUtil.getProperty("db.slowQuery.file");
+        return new SlowQueryLog(JPAUtil.getIntProperty("db.slowQuery.thresholdMs", 200),
+                JPAUtil.getIntProperty("db.slowQuery.sampleRate", 0),
+                JPAUtil.getIntProperty("db.slowQuery.queueSize", 1024),
+                file == null || file.isBlank() ? null : Path.of(file.trim()));
+    }
+
+    /**
+     * Envolve um pool de conexões: os comandos criados pelas conexões obtidas dele passam a ser medidos.
+     *
+     * @param target Pool de conexões
+     * @return Pool que registra os comandos lentos
+     */
+    public DataSource wrap(DataSource target) {
+        return proxy(DataSource.class, target, (proxy, method, args) -> {
+            Object result = call(target, method, args);
+            return result instanceof Connection connection ? connection(connection) : result;
+        });
+    }
+
+    /**
+     * @return Linhas entregues à thread de gravação
+     */
+    public long getLoggedCount() {
+        return logged.sum();
+    }
+
+    /**
+     * @return Linhas descartadas porque a fila de gravação estava cheia
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Grava as linhas pendentes e encerra a thread de gravação.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = call(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return proxy(method.getReturnType(), statement, new StatementHandler(statement, sql));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Mede as execuções de um comando e guarda os tipos dos parâmetros informados desde a última execução.
+     * Um comando JDBC é usado por uma thread de cada vez.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private String[] params = new String[8];
+        private int paramCount;
+        private int batch;
+        private ResultSetHandler openResult;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) return execute(method, args);
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                param(index, name.equals("setNull") || args[1] == null ? null : args[1].getClass().getSimpleName());
+            } else if (name.equals("clearParameters")) {
+                paramCount = 0;
+            } else if (name.equals("addBatch")) {
+                batch++;
+            } else if (name.equals("clearBatch")) {
+                batch = 0;
+            } else if (name.equals("close") && openResult != null) {
+                openResult.finish();
+            }
+            return call(target, method, args);
+        }
+
+        private void param(int index, String type) {
+            if (index > params.length) params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+            params[index - 1] = type;
+            paramCount = Math.max(paramCount, index);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            // Executar de novo fecha o resultado anterior
+            if (openResult != null) {
+                openResult.finish();
+                openResult = null;
+            }
+            String text = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            int batched = method.getName().startsWith("executeBatch") || method.getName().startsWith("executeLargeBatch")
+                    ? batch : 0;
+            if (batched > 0) batch = 0;
+
+            long start = System.nanoTime();
+            Object result = call(target, method, args);
+            long elapsed = System.nanoTime() - start;
+
+            boolean slow = elapsed >= thresholdNanos;
+            if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextInt(sampleRate) != 0)) return result;
+
+            Entry entry = new Entry(System.currentTimeMillis(), text, List.of(paramTypes()), elapsed, -1,
+                    batched, caller(), slow);
+            if (result instanceof ResultSet resultSet) {
+                openResult = new ResultSetHandler(resultSet, entry);
+                return proxy(ResultSet.class, resultSet, openResult);
+            }
+            emit(entry.withRows(rows(result)));
+            return result;
+        }
+
+        private String[] paramTypes() {
+            String[] types = Arrays.copyOf(params, paramCount);
+            for (int i = 0; i < types.length; i++) {
+                if (types[i] == null) types[i] = "null";
+            }
+            return types;
+        }
+
+        private long rows(Object result) throws SQLException {
+            return switch (result) {
+                case Integer count -> count;
+                case Long count -> count;
+                case int[] counts -> Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+                case long[] counts -> Arrays.stream(counts).filter(count -> count > 0).sum();
+                case Boolean hasResultSet -> hasResultSet ? -1 : target.getUpdateCount();
+                default -> -1;
+            };
+        }
+    }
+
+    /**
+     * Conta as linhas lidas de uma consulta registrada e entrega a linha do log quando ela é fechada.
+     */
+    private final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final Entry entry;
+        private long rows;
+        private boolean finished;
+
+        ResultSetHandler(ResultSet target, Entry entry) {
+            this.target = target;
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = call(target, method, args);
+            switch (method.getName()) {
+                case "next" -> {
+                    if ((Boolean) result) rows++;
+                }
+                case "close" -> finish();
+                default -> {}
+            }
+            return result;
+        }
+
+        void finish() {
+            if (finished) return;
+            finished = true;
+            emit(entry.withRows(rows));
+        }
+    }
+
+    private void emit(Entry entry) {
+        if (queue.offer(entry)) {
+            logged.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Identifica o método que executou o comando: o primeiro DAO na pilha ou, na falta dele, a primeira classe
+     * da aplicação fora deste pacote.
+     */
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> {
+            String fallback = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (!className.startsWith(APP_PACKAGE) || className.startsWith(APP_PACKAGE + "util.")) continue;
+                String name = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                if (className.startsWith(DAO_PACKAGE)) return name;
+                if (fallback == null) fallback = name;
+            }
+            return fallback;
+        });
+    }
+
+    private void drain() {
+        try (Writer out = open()) {
+            while (true) {
+                Entry entry = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    if (closed) break;
+                    continue;
+                }
+                out.write(entry.toJson());
+                out.write(System.lineSeparator());
+                if (queue.isEmpty()) out.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Log de consultas lentas desativado: " + e.getMessage());
+            queue.clear();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Writer open() throws IOException {
+        if (file == null) {
+            // Não fecha a saída de erro junto com o log
+            return new BufferedWriter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        Class<?>[] interfaces = type.isInterface() ? new Class<?>[]{type} : target.getClass().getInterfaces();
+        return (T) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), interfaces, handler);
+    }
+
+    static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String quote(String value) {
+        if (value == null) return "null";
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
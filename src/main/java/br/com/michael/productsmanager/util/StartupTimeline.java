@@ -0,0 +1,55 @@
+package br.com.michael.productsmanager.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Linha do tempo da inicialização da aplicação, usada para acompanhar o tempo até o primeiro login.
+ * <p>
+ * Cada marco é registrado uma única vez, em milissegundos desde o início do processo da JVM
+ * (ex: tela de login exibida, {@code EntityManagerFactory} pronta, primeira consulta). O relatório
+ * é impresso quando o primeiro login é concluído.
+ */
+public final class StartupTimeline {
+
+    /** Início do processo, ou o carregamento desta classe se o sistema operacional não o informar. */
+    private static final long start = ProcessHandle.current().info().startInstant()
+            .map(instant -> instant.toEpochMilli())
+            .orElseGet(System::currentTimeMillis);
+
+    private static final Map<String, Long> marks = new LinkedHashMap<>();
+
+    private StartupTimeline() {}
+
+    /**
+     * Registra um marco, se ainda não tiver sido registrado.
+     *
+     * @param milestone Nome do marco (ex: {@code EntityManagerFactory pronta})
+     * @return {@code true} se esta foi a primeira ocorrência do marco
+     */
+    public static synchronized boolean mark(String milestone) {
+        return marks.putIfAbsent(milestone, System.currentTimeMillis() - start) == null;
+    }
+
+    /**
+     * @return Marcos registrados até agora, na ordem em que ocorreram, em milissegundos desde o início da JVM
+     */
+    public static synchronized Map<String, Long> snapshot() {
+        return new LinkedHashMap<>(marks);
+    }
+
+    /**
+     * Monta o relatório da linha do tempo, com o tempo de cada marco e o intervalo desde o anterior.
+     *
+     * @return Texto pronto para o log
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder("Linha do tempo da inicialização (ms desde o início da JVM):");
+        long previous = 0;
+        for (Map.Entry<String, Long> mark : snapshot().entrySet()) {
+            report.append(String.format("%n  %6d  (+%5d)  %s", mark.getValue(), mark.getValue() - previous, mark.getKey()));
+            previous = mark.getValue();
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.michael.productsmanager.util;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static br.com.michael.productsmanager.util.SlowQueryLog.call;
+import static br.com.michael.productsmanager.util.SlowQueryLog.proxy;
+
+/**
+ * Emite o evento {@code JdbcStatement} ({@link Tracing}) de cada comando SQL executado pelas conexões do pool
+ * entregue ao Hibernate.
+ * <p>
+ * Instalado sempre pelo {@link JPAUtil}, independente do log de comandos lentos ({@code db.slowQuery.enabled}),
+ * para que a gravação mostre os comandos de uma ação mesmo com o log desligado. Sem uma gravação ativa, o custo
+ * por comando é o do proxy e o de verificar se o evento está habilitado.
+ */
+final class StatementTracing {
+
+    private StatementTracing() {}
+
+    /**
+     * Envolve um pool de conexões: os comandos criados pelas conexões obtidas dele passam a emitir o evento.
+     *
+     * @param target Pool de conexões
+     * @return Pool rastreado
+     */
+    static DataSource wrap(DataSource target) {
+        return proxy(DataSource.class, target, (proxy, method, args) -> {
+            Object result = call(target, method, args);
+            return result instanceof Connection connection ? connection(connection) : result;
+        });
+    }
+
+    private static Connection connection(Connection target) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = call(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return proxy(method.getReturnType(), statement, new StatementHandler(statement, sql));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Mede as execuções de um comando; o SQL é o informado na criação ou, em um {@link Statement}, na execução.
+     */
+    private record StatementHandler(Statement target, String sql) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) return call(target, method, args);
+
+            String text = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            Tracing.JdbcStatementEvent event = Tracing.beginStatement();
+            try {
+                return call(target, method, args);
+            } finally {
+                Tracing.endStatement(event, text);
+            }
+        }
+    }
+}
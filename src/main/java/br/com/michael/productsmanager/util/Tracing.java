@@ -0,0 +1,290 @@
+package br.com.michael.productsmanager.util;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Eventos do Java Flight Recorder que rastreiam uma ação do usuário da tela até o banco.
+ * <p>
+ * Cada ação da interface ({@link #startAction}) recebe um id, propagado para as threads que executam suas
+ * etapas ({@link #propagating}: virtual threads do banco e pool do BCrypt). Os eventos emitidos durante a
+ * ação carregam esse id ({@code actionId}), de forma que uma gravação mostra onde o tempo de um clique foi gasto:
+ * <ul>
+ *     <li>{@code UiAction}: da ação até o fim do tratamento do resultado na thread de interface;</li>
+ *     <li>{@code DaoCall}: cada método dos DAOs ({@link DaoMetrics.Call});</li>
+ *     <li>{@code Transaction}: do início ao commit de uma transação, com o tempo do commit (flush do Hibernate
+ *     incluído) à parte;</li>
+ *     <li>{@code PasswordHash}: cada hash ou verificação BCrypt;</li>
+ *     <li>{@code JdbcStatement}: cada comando SQL enviado ao banco (medido pelo {@link StatementTracing},
+ *     mesmo com o log de comandos lentos desligado).</li>
+ * </ul>
+ * Sem uma gravação ativa os eventos não são gravados e o custo é o de verificar se estão habilitados.
+ * Para mantê-los sempre ligados, os eventos mais frequentes só são gravados a partir de 1 ms (ajustável
+ * por evento na gravação, ex: {@code br.com.michael.productsmanager.DaoCall#threshold=0ms}).
+ */
+public final class Tracing {
+
+    /** Prefixo dos nomes dos eventos. */
+    static final String EVENT_PREFIX = "br.com.michael.productsmanager.";
+
+    /** Categoria dos eventos na gravação. */
+    static final String CATEGORY = "Products Manager";
+
+    private static final AtomicLong ids = new AtomicLong();
+
+    /** Ação em andamento na thread atual. */
+    private static final ThreadLocal<Action> current = new ThreadLocal<>();
+
+    private Tracing() {}
+
+    @Name(EVENT_PREFIX + "UiAction")
+    @Label("Ação da interface")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class UiActionEvent extends Event {
+        @Label("Id da ação") long actionId;
+        @Label("Ação") String action;
+        @Label("Falhou") boolean failed;
+    }
+
+    @Name(EVENT_PREFIX + "Transaction")
+    @Label("Transação")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static final class TransactionEvent extends Event {
+        @Label("Id da ação") long actionId;
+        @Label("Tempo do commit") @Description("Flush do Hibernate e commit no banco") @Timespan long commitTime;
+    }
+
+    @Name(EVENT_PREFIX + "PasswordHash")
+    @Label("Hash de senha (BCrypt)")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class PasswordHashEvent extends Event {
+        @Label("Id da ação") long actionId;
+        @Label("Custo") int cost;
+        @Label("Verificação") @Description("Verificação de senha; falso para a geração de um novo hash") boolean check;
+    }
+
+    @Name(EVENT_PREFIX + "JdbcStatement")
+    @Label("Comando SQL")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static final class JdbcStatementEvent extends Event {
+        @Label("Id da ação") long actionId;
+        @Label("SQL") String sql;
+    }
+
+    /**
+     * Ação do usuário em andamento. Encerrada com {@link #end}, normalmente após o resultado ser exibido.
+     */
+    public static final class Action {
+
+        private final long id = ids.incrementAndGet();
+        private final UiActionEvent event = new UiActionEvent();
+
+        private Action(String name) {
+            event.actionId = id;
+            event.action = name;
+            event.begin();
+        }
+
+        /**
+         * Executa um trecho como parte da ação: os eventos emitidos nele e nas tarefas que ele agendar
+         * recebem o id da ação.
+         *
+         * @param body Trecho a executar
+         * @param <T> Tipo do resultado
+         * @return Resultado do trecho
+         */
+        public <T> T call(Supplier<T> body) {
+            Action previous = current.get();
+            current.set(this);
+            try {
+                return body.get();
+            } finally {
+                restore(previous);
+            }
+        }
+
+        /**
+         * @see #call(Supplier)
+         */
+        public void run(Runnable body) {
+            call(() -> {
+                body.run();
+                return null;
+            });
+        }
+
+        /**
+         * Encerra a ação e grava o evento.
+         *
+         * @param failed {@code true} se a ação terminou em erro
+         */
+        public void end(boolean failed) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Inicia uma ação do usuário.
+     *
+     * @param name Nome da ação (ex: {@code Adicionar produto})
+     * @return Ação iniciada
+     */
+    public static Action startAction(String name) {
+        return new Action(name);
+    }
+
+    /**
+     * Executa uma ação síncrona da interface do início ao fim.
+     *
+     * @param name Nome da ação
+     * @param body Tratamento da ação
+     */
+    public static void action(String name, Runnable body) {
+        Action action = startAction(name);
+        boolean failed = true;
+        try {
+            action.run(body);
+            failed = false;
+        } finally {
+            action.end(failed);
+        }
+    }
+
+    /**
+     * @return Id da ação em andamento na thread atual, ou 0 se não houver
+     */
+    public static long currentActionId() {
+        Action action = current.get();
+        return action != null ? action.id : 0;
+    }
+
+    /**
+     * Envolve um executor para que as tarefas rodem como parte da ação de quem as agendou.
+     *
+     * @param executor Executor original
+     * @return Executor que propaga a ação atual
+     */
+    public static Executor propagating(Executor executor) {
+        return task -> {
+            Action action = current.get();
+            executor.execute(action == null ? task : () -> action.run(task));
+        };
+    }
+
+    private static void restore(Action previous) {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+
+    /**
+     * Transação de um DAO, rastreada do início ao commit.
+     */
+    public static final class Transaction {
+
+        private final EntityTransaction transaction;
+        private final TransactionEvent event = new TransactionEvent();
+
+        private Transaction(EntityTransaction transaction) {
+            this.transaction = transaction;
+            event.begin();
+            transaction.begin();
+        }
+
+        /**
+         * Confirma a transação e grava o evento.
+         */
+        public void commit() {
+            if (!event.isEnabled()) {
+                transaction.commit();
+                return;
+            }
+            long start = System.nanoTime();
+            transaction.commit();
+            event.commitTime = System.nanoTime() - start;
+            event.end();
+            if (event.shouldCommit()) {
+                event.actionId = currentActionId();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Inicia a transação de um EntityManager. Transações desfeitas não geram evento: a falha aparece no
+     * evento do DAO.
+     *
+     * @param em EntityManager do DAO
+     * @return Transação iniciada
+     */
+    public static Transaction begin(EntityManager em) {
+        return new Transaction(em.getTransaction());
+    }
+
+    /**
+     * Calcula ou verifica um hash BCrypt, gravando o tempo gasto.
+     *
+     * @param cost Custo do hash
+     * @param check {@code true} para uma verificação de senha
+     * @param hashing Cálculo do hash
+     * @param <T> Tipo do resultado
+     * @return Resultado do cálculo
+     */
+    public static <T> T passwordHash(int cost, boolean check, Supplier<T> hashing) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        T result = hashing.get();
+        event.end();
+        if (event.shouldCommit()) {
+            event.actionId = currentActionId();
+            event.cost = cost;
+            event.check = check;
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Inicia o evento de um comando SQL.
+     *
+     * @return Evento iniciado, concluído por {@link #endStatement}
+     */
+    static JdbcStatementEvent beginStatement() {
+        JdbcStatementEvent event = new JdbcStatementEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endStatement(JdbcStatementEvent event, String sql) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.actionId = currentActionId();
+            event.sql = sql;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.michael.productsmanager.view;
+
+/**
+ * Ponto de entrada do JAR executável ({@code java -jar}).
+ * <p>
+ * Com o JavaFX no classpath (e não no module path), a JVM recusa iniciar diretamente uma classe que
+ * estende {@code Application}; esta classe apenas delega para {@link Main#main(String[])}.
+ */
+public final class Launcher {
+
+    private Launcher() {}
+
+    /**
+     * @param args Argumentos da linha de comando, repassados à aplicação
+     */
+    public static void main(String[] args) {
+        Main.main(args);
+    }
+}
@@ -1,5 +1,9 @@
 package br.com.michael.productsmanager.view;
 
+import br.com.michael.productsmanager.service.StartupWarmup;
+import br.com.michael.productsmanager.util.CacheStatistics;
+import br.com.michael.productsmanager.util.JPAUtil;
+import br.com.michael.productsmanager.util.StartupTimeline;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -23,6 +27,7 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage stage) {
+        StartupTimeline.mark("JavaFX iniciado");
 
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LoginView.fxml"));
@@ -32,6 +37,7 @@ public class Main extends Application {
             stage.setScene(scene);
             stage.initStyle(StageStyle.UNDECORATED);
             stage.show();
+            StartupTimeline.mark("Tela de login exibida");
 
         } catch (IOException e) {
             System.err.println("Falha ao carregar a interface de login.");
@@ -39,12 +45,27 @@ public class Main extends Application {
         }
     }
 
+    /**
+     * Encerra a aplicação (chamado pelo JavaFX após {@code Platform.exit()}),
+     * registrando as estatísticas do cache e fechando a {@code EntityManagerFactory} e o pool de conexões.
+     */
+    @Override
+    public void stop() {
+        // Se o banco nunca ficou pronto (ex: fechada na tela de login), não há estatísticas nem o que fechar
+        if (JPAUtil.isReady()) System.out.println(CacheStatistics.report());
+        JPAUtil.shutdown();
+    }
+
     /**
      * Ponto de entrada da aplicação.
+     * <p>
+     * O aquecimento do banco começa antes do JavaFX, em paralelo com a inicialização do toolkit
+     * e o carregamento da tela de login.
      *
      * @param args Argumentos da linha de comando (opcional)
      */
     public static void main(String[] args) {
+        StartupWarmup.start();
         launch(args);
     }
 }
\ No newline at end of file